@@ -0,0 +1,123 @@
+package com.tenco.bank.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.service.AccountService;
+
+/**
+ * AccountService 주요 경로 벤치마크 (처리량 + 지연 분포)
+ * SingleThreaded / MultiThreaded 두 가지로 실행된다.
+ * 출금/입금/이체는 스레드마다 전용 계좌를 써서 같은 행 경합이 아니라 경로 자체 비용을 잰다.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AccountServiceBenchmark {
+
+	public static class SingleThreaded extends AccountServiceBenchmark {
+	}
+
+	@Threads(8)
+	public static class MultiThreaded extends AccountServiceBenchmark {
+	}
+
+	@State(Scope.Benchmark)
+	public static class Bank {
+		ConfigurableApplicationContext context;
+		AccountService accountService;
+		final AtomicLong sequence = new AtomicLong();
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = BankBenchmarkContext.start();
+			accountService = context.getBean(AccountService.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+
+		String nextNumber() {
+			return "b-" + sequence.incrementAndGet();
+		}
+
+		// USER_2 소유의 계좌를 만들고 계좌 번호 반환
+		String createAccount(long balance) {
+			String number = nextNumber();
+			accountService.createAccount(new SaveDTO(number, BankBenchmarkContext.PASSWORD, balance),
+					BankBenchmarkContext.USER_2);
+			return number;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Accounts {
+		String first;
+		String second;
+		boolean reverse;
+
+		@Setup(Level.Trial)
+		public void create(Bank bank) {
+			first = bank.createAccount(Long.MAX_VALUE / 4);
+			second = bank.createAccount(Long.MAX_VALUE / 4);
+		}
+	}
+
+	@Benchmark
+	public void createAccount(Bank bank) {
+		bank.accountService.createAccount(new SaveDTO(bank.nextNumber(), BankBenchmarkContext.PASSWORD, 1000L),
+				BankBenchmarkContext.USER_1);
+	}
+
+	@Benchmark
+	public List<Account> readAccountListByUserId(Bank bank) {
+		return bank.accountService.readAccountListByUserId(BankBenchmarkContext.USER_1);
+	}
+
+	@Benchmark
+	public void updateAccountWithdrawal(Bank bank, Accounts accounts) {
+		bank.accountService.updateAccountWithdrawal(
+				new WithdrawalDTO(1L, accounts.first, BankBenchmarkContext.PASSWORD), BankBenchmarkContext.USER_2);
+	}
+
+	@Benchmark
+	public void updateAccountDeposit(Bank bank, Accounts accounts) {
+		bank.accountService.updateAccountDeposit(new DepositDTO(1L, accounts.first), BankBenchmarkContext.USER_2);
+	}
+
+	@Benchmark
+	public void updateAccountTransfer(Bank bank, Accounts accounts) {
+		// 방향을 번갈아 바꿔서 잔액이 한쪽으로 쏠리지 않게 한다.
+		accounts.reverse = !accounts.reverse;
+		String from = accounts.reverse ? accounts.second : accounts.first;
+		String to = accounts.reverse ? accounts.first : accounts.second;
+		bank.accountService.updateAccountTransfer(
+				new TransferDTO(1L, from, to, BankBenchmarkContext.PASSWORD), BankBenchmarkContext.USER_2);
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.tenco.bank.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.service.BalanceSnapshotService;
+
+/**
+ * 시점 잔액 조회 비교 (내역 rows 건, 계좌 1000 개, 365 일)
+ * - snapshot : 일별 스냅샷 + 같은 날 원장 항목 (BalanceSnapshotService)
+ * - historyScan : 기존 방식 - history_tb 에서 시점 이전 마지막 내역을 찾아 w/d 잔액 선택
+ * 같은 거래를 history_tb 와 ledger_entry_tb(계좌 쪽 항목만) 양쪽에 넣는다.
+ * 실행 : ./gradlew jmh -Pjmh.includes=BalanceAtBenchmark
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BalanceAtBenchmark {
+
+	private static final int ACCOUNTS = 1000;
+	private static final int FIRST_ACCOUNT_ID = 1001;
+	private static final int DAYS = 365;
+
+	@State(Scope.Benchmark)
+	public static class Bank {
+		@Param({ "10000000" })
+		int rows;
+
+		ConfigurableApplicationContext context;
+		BalanceSnapshotService balanceSnapshotService;
+		JdbcTemplate jdbcTemplate;
+		LocalDateTime start;
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = BankBenchmarkContext.start();
+			balanceSnapshotService = context.getBean(BalanceSnapshotService.class);
+			jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+			// 거래 x : 계좌 (x mod 1000), 시각은 365 일에 고르게 (id 순서 = 시간 순서)
+			start = LocalDate.now().minusDays(DAYS).atStartOfDay();
+			long stepMillis = DAYS * 86_400_000L / rows;
+			Timestamp base = Timestamp.valueOf(start);
+			jdbcTemplate.update("insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id, created_at) "
+					+ "select 1, null, x / ?, null, mod(x, ?) + ?, dateadd('MILLISECOND', x * ?, ?) from system_range(1, ?)",
+					ACCOUNTS, ACCOUNTS, FIRST_ACCOUNT_ID, stepMillis, base, rows);
+			jdbcTemplate.update("insert into ledger_entry_tb(movement_id, account_id, direction, amount, created_at) "
+					+ "select 'bench', mod(x, ?) + ?, 'C', 1, dateadd('MILLISECOND', x * ?, ?) from system_range(1, ?)",
+					ACCOUNTS, FIRST_ACCOUNT_ID, stepMillis, base, rows);
+
+			long began = System.nanoTime();
+			int created = balanceSnapshotService.snapshotThrough(LocalDate.now().minusDays(1));
+			System.out.printf("%nsnapshots=%d built in %dms%n", created,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began));
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+
+		int randomAccount() {
+			return FIRST_ACCOUNT_ID + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+		}
+
+		LocalDateTime randomTime() {
+			return start.plusSeconds(ThreadLocalRandom.current().nextLong(DAYS * 86_400L));
+		}
+	}
+
+	@Benchmark
+	public long snapshot(Bank bank) {
+		return bank.balanceSnapshotService.balanceAt(bank.randomAccount(), bank.randomTime());
+	}
+
+	@Benchmark
+	public Long historyScan(Bank bank) {
+		int accountId = bank.randomAccount();
+		Timestamp at = Timestamp.valueOf(bank.randomTime());
+		return bank.jdbcTemplate.query("select case when w_account_id = ? then w_balance else d_balance end "
+				+ "from history_tb where (w_account_id = ? or d_account_id = ?) and created_at <= ? "
+				+ "order by created_at desc, id desc limit 1",
+				rs -> rs.next() ? rs.getLong(1) : 0L, accountId, accountId, accountId, at);
+	}
+
+}
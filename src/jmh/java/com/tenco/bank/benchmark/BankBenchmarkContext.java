@@ -0,0 +1,42 @@
+package com.tenco.bank.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tenco.bank.ClassBankApplication;
+
+/**
+ * 벤치마크용 애플리케이션 기동 도우미
+ * 인메모리 H2(jdbc:h2:mem:bankdb;MODE=MySQL) 에 db/table.sql, db/data.sql 을 적재한 상태로 띄운다.
+ * 컨트롤러가 HttpSession 을 주입받으므로 임베디드 톰캣을 임의 포트로 같이 띄운다.
+ */
+public final class BankBenchmarkContext {
+
+	// data.sql 에 들어있는 사용자 id
+	public static final Integer USER_1 = 1;
+	public static final Integer USER_2 = 2;
+	public static final String PASSWORD = "1234";
+
+	private BankBenchmarkContext() {
+	}
+
+	/**
+	 * @param extraProperties 벤치마크별 추가 설정 (key=value)
+	 */
+	public static ConfigurableApplicationContext start(String... extraProperties) {
+		List<String> properties = new ArrayList<>(List.of(
+				"server.port=0",
+				"spring.main.banner-mode=off",
+				"spring.output.ansi.enabled=never",
+				"spring.datasource.url=jdbc:h2:mem:bankdb;MODE=MySQL",
+				"logging.level.root=WARN"));
+		properties.addAll(List.of(extraProperties));
+		// 명령행 인자로 넘겨야 application.yml 보다 우선한다.
+		String[] args = properties.stream().map(property -> "--" + property).toArray(String[]::new);
+		return new SpringApplicationBuilder(ClassBankApplication.class).run(args);
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.tenco.bank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.HistoryAppender;
+
+/**
+ * 거래 내역 기록 방식 비교 : 건별 insert (groupCommit=false) vs 그룹 커밋 (groupCommit=true)
+ * 동시 기록 스레드 1 / 16 / 64 개
+ * 입금은 스레드마다 전용 계좌를 써서 계좌 행 경합 없이 내역 기록 비용 차이만 보이게 한다.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class HistoryAppenderBenchmark {
+
+	@Threads(1)
+	public static class Writers1 extends HistoryAppenderBenchmark {
+	}
+
+	@Threads(16)
+	public static class Writers16 extends HistoryAppenderBenchmark {
+	}
+
+	@Threads(64)
+	public static class Writers64 extends HistoryAppenderBenchmark {
+	}
+
+	@State(Scope.Benchmark)
+	public static class Bank {
+		@Param({ "false", "true" })
+		String groupCommit;
+
+		ConfigurableApplicationContext context;
+		AccountService accountService;
+		HistoryAppender historyAppender;
+		final AtomicLong sequence = new AtomicLong();
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = BankBenchmarkContext.start(
+					"bank.history.group-commit.enabled=" + groupCommit,
+					// 기록 스레드 수만큼 커넥션이 있어야 풀 대기가 아니라 기록 방식 차이가 측정된다.
+					"spring.datasource.hikari.maximum-pool-size=72");
+			accountService = context.getBean(AccountService.class);
+			historyAppender = context.getBean(HistoryAppender.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			if (historyAppender.isEnabled()) {
+				System.out.printf("%ngroup commit flushes=%d rows=%d (avg %.1f rows/flush)%n",
+						historyAppender.getFlushCount(), historyAppender.getFlushedRows(),
+						(double) historyAppender.getFlushedRows() / Math.max(1, historyAppender.getFlushCount()));
+			}
+			context.close();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Writer {
+		String number;
+
+		@Setup(Level.Trial)
+		public void create(Bank bank) {
+			number = "h-" + bank.sequence.incrementAndGet();
+			bank.accountService.createAccount(new SaveDTO(number, BankBenchmarkContext.PASSWORD, 0L),
+					BankBenchmarkContext.USER_2);
+		}
+	}
+
+	@Benchmark
+	public void deposit(Bank bank, Writer writer) {
+		bank.accountService.updateAccountDeposit(new DepositDTO(1L, writer.number), BankBenchmarkContext.USER_2);
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.tenco.bank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.HotAccountService;
+
+/**
+ * 계좌 하나에 동시 입금이 몰릴 때의 처리량 - slot 수 별 확장성
+ * slots=0 : 일반 계좌 (account_tb 한 행에 모든 입금이 줄을 선다)
+ * 실행 : ./gradlew jmh -Pjmh.includes=HotAccountBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class HotAccountBenchmark {
+
+	private static final String NUMBER = "hot-bench";
+
+	@Param({ "0", "1", "4", "16" })
+	int slots;
+
+	ConfigurableApplicationContext context;
+	AccountService accountService;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BankBenchmarkContext.start(
+				"spring.datasource.hikari.maximum-pool-size=20",
+				"bank.account.hot.enabled=" + (slots > 0),
+				"bank.account.hot.slots=" + Math.max(slots, 1),
+				"bank.account.hot.compaction-interval-ms=1000");
+		accountService = context.getBean(AccountService.class);
+		accountService.createAccount(new SaveDTO(NUMBER, BankBenchmarkContext.PASSWORD, 0L), BankBenchmarkContext.USER_2);
+		if (slots > 0) {
+			Integer accountId = context.getBean(AccountRepository.class).findByNumber(NUMBER).getId();
+			context.getBean(HotAccountService.class).enable(accountId, slots);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public void depositToHotAccount() {
+		accountService.updateAccountDeposit(new DepositDTO(1L, NUMBER), BankBenchmarkContext.USER_2);
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.tenco.bank.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.ReconciliationReportDTO;
+import com.tenco.bank.service.ReconciliationService;
+
+/**
+ * 잔액 대사 전체 실행 시간 - 병렬 범위 수(parallelism) 별 확장성
+ * 계좌 accounts 개, 계좌당 원장 항목 entriesPerAccount 개 (기본 20만 계좌 x 25 = 500만 행)
+ * 실행 : ./gradlew jmh -Pjmh.includes=ReconciliationBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ReconciliationBenchmark {
+
+	@Param({ "1", "2", "4", "8" })
+	int parallelism;
+
+	@Param({ "200000" })
+	int accounts;
+
+	@Param({ "25" })
+	int entriesPerAccount;
+
+	ConfigurableApplicationContext context;
+	ReconciliationService reconciliationService;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BankBenchmarkContext.start(
+				"spring.datasource.hikari.maximum-pool-size=" + (parallelism + 2),
+				"bank.reconcile.range-size=5000");
+		reconciliationService = context.getBean(ReconciliationService.class);
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+		// 계좌 잔액 = 항목 수 (항목마다 C 1)
+		int firstId = jdbcTemplate.queryForObject("select max(id) from account_tb", Integer.class) + 1;
+		jdbcTemplate.update("insert into account_tb(id, number, password, balance, user_id) "
+				+ "select x, concat('bench-', x), '1234', ?, ? from system_range(?, ?)",
+				entriesPerAccount, BankBenchmarkContext.USER_2, firstId, firstId + accounts - 1);
+		jdbcTemplate.update("insert into ledger_entry_tb(movement_id, account_id, direction, amount) "
+				+ "select 'bench', ? + mod(x, ?), 'C', 1 from system_range(0, ?)",
+				firstId, accounts, (long) accounts * entriesPerAccount - 1);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public ReconciliationReportDTO reconcile() {
+		ReconciliationReportDTO report = reconciliationService.reconcile(parallelism);
+		if (!report.getMismatches().isEmpty()) {
+			throw new IllegalStateException("unexpected mismatches " + report.getMismatches().size());
+		}
+		return report;
+	}
+
+}
@@ -0,0 +1,227 @@
+package com.tenco.bank.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 기동 시간 비교 - 프로세스 시작부터 첫 /index 성공 응답, 로그인 후 첫 /account/list 성공 응답까지 걸린 시간
+ * JMH 로는 JVM 기동 자체를 잴 수 없어서 모드별로 애플리케이션 프로세스를 새로 띄워 측정한다.
+ *
+ * 모드 (실행 인자는 build.gradle 의 startupArgs 가 만든 build/startup/*.args)
+ * - DEFAULT : 일반 classpath 실행
+ * - CDS : AppCDS 아카이브 (app.jsa) 사용
+ * - AOT : Spring AOT 초기화 코드 사용 (-Dspring.aot.enabled=true)
+ * - AOT_CDS : 둘 다 (app-aot.jsa) - 빠른 기동 실행 설정 (fast.args)
+ *
+ * train : 학습 실행 (-XX:ArchiveClassesAtExit) 으로 아카이브 생성 - ./gradlew cdsArchive
+ * compare : 모드별 startup.runs 회 기동 후 중앙값/최소값 출력 - ./gradlew startupBenchmark -Pstartup.runs=5
+ */
+public final class StartupBenchmark {
+
+	private static final String MAIN_CLASS = "com.tenco.bank.ClassBankApplication";
+	private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+	private static final long POLL_INTERVAL_MS = 5;
+
+	// data.sql 사용자
+	private static final String USERNAME = "길동";
+
+	enum Mode {
+		DEFAULT("default.args", null),
+		CDS("default.args", "app.jsa"),
+		AOT("aot.args", null),
+		AOT_CDS("aot.args", "app-aot.jsa");
+
+		private final String argsFile;
+		private final String archive;
+
+		Mode(String argsFile, String archive) {
+			this.argsFile = argsFile;
+			this.archive = archive;
+		}
+	}
+
+	private record Timing(long indexMillis, long listMillis) {
+	}
+
+	private static final HttpClient CLIENT = HttpClient.newBuilder()
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(1))
+			.build();
+
+	private StartupBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Path dir = Path.of(System.getProperty("startup.dir", "build/startup")).toAbsolutePath();
+		String command = args.length > 0 ? args[0] : "compare";
+		switch (command) {
+			case "train" -> train(dir);
+			case "compare" -> compare(dir, Integer.getInteger("startup.runs", 5));
+			default -> throw new IllegalArgumentException("usage: StartupBenchmark train|compare");
+		}
+	}
+
+	/**
+	 * 아카이브를 쓰는 모드마다 학습 실행 - 실제 요청 (/index, 로그인, /account/list) 까지 처리한 뒤 정상 종료해야
+	 * 요청 처리 중 적재되는 클래스 (JSP 컴파일, MyBatis 매퍼 등) 도 아카이브에 들어간다.
+	 */
+	private static void train(Path dir) throws Exception {
+		for (Mode mode : Mode.values()) {
+			if (mode.archive == null) {
+				continue;
+			}
+			Path archive = dir.resolve(mode.archive);
+			Files.deleteIfExists(archive);
+			Timing timing = launch(dir, mode, List.of("-XX:ArchiveClassesAtExit=" + archive), "train-" + mode);
+			if (!Files.exists(archive)) {
+				throw new IllegalStateException("CDS archive was not written: " + archive);
+			}
+			System.out.printf("trained %-8s index=%dms list=%dms --> %s (%dMB)%n", mode, timing.indexMillis(),
+					timing.listMillis(), archive, Files.size(archive) >> 20);
+		}
+	}
+
+	private static void compare(Path dir, int runs) throws Exception {
+		Map<Mode, List<Timing>> results = new EnumMap<>(Mode.class);
+		// 모드를 번갈아 실행해서 디스크 캐시, CPU 상태 차이가 한 모드에 몰리지 않게 한다.
+		for (int run = 0; run < runs; run++) {
+			for (Mode mode : Mode.values()) {
+				List<String> options = mode.archive == null ? List.of()
+						: List.of("-XX:SharedArchiveFile=" + dir.resolve(mode.archive));
+				String name = mode + "-" + run;
+				Timing timing = launch(dir, mode, options, name);
+				checkSharedArchiveUsed(mode, dir.resolve("logs").resolve(name + ".log"));
+				results.computeIfAbsent(mode, k -> new ArrayList<>()).add(timing);
+			}
+		}
+
+		long baseline = median(results.get(Mode.DEFAULT), Timing::listMillis);
+		System.out.printf("%-8s %12s %12s %12s %12s %8s%n", "mode", "index p50", "index min", "list p50", "list min",
+				"vs default");
+		for (Mode mode : Mode.values()) {
+			List<Timing> timings = results.get(mode);
+			long list = median(timings, Timing::listMillis);
+			System.out.printf("%-8s %10dms %10dms %10dms %10dms %7.0f%%%n", mode,
+					median(timings, Timing::indexMillis), min(timings, Timing::indexMillis),
+					list, min(timings, Timing::listMillis), 100.0 * list / baseline);
+		}
+	}
+
+	/**
+	 * 애플리케이션을 띄우고 첫 성공 응답 시각을 잰 뒤 SIGTERM 으로 정상 종료 (학습 실행은 종료 시 아카이브 기록)
+	 */
+	private static Timing launch(Path dir, Mode mode, List<String> jvmOptions, String name) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(ProcessHandle.current().info().command().orElse("java"));
+		command.add("@" + dir.resolve(mode.argsFile));
+		command.addAll(jvmOptions);
+		command.add(MAIN_CLASS);
+		command.add("--server.port=" + port);
+		command.add("--spring.output.ansi.enabled=never");
+
+		Path log = dir.resolve("logs").resolve(name + ".log");
+		Files.createDirectories(log.getParent());
+		ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile());
+		String base = "http://localhost:" + port;
+
+		long start = System.nanoTime();
+		Process process = builder.start();
+		try {
+			long deadline = start + STARTUP_TIMEOUT.toNanos();
+			awaitSuccess(process, log, deadline, HttpRequest.newBuilder(URI.create(base + "/index")).build());
+			long index = System.nanoTime() - start;
+
+			String cookie = signIn(base);
+			awaitSuccess(process, log, deadline, HttpRequest.newBuilder(URI.create(base + "/account/list"))
+					.header("Cookie", cookie).build());
+			long list = System.nanoTime() - start;
+			return new Timing(TimeUnit.NANOSECONDS.toMillis(index), TimeUnit.NANOSECONDS.toMillis(list));
+		} finally {
+			process.destroy();
+			if (!process.waitFor(60, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	// 200 이면서 alert 스크립트 (GlobalControllerAdvice 오류 응답) 가 아닐 때까지 반복 요청
+	private static void awaitSuccess(Process process, Path log, long deadline, HttpRequest request) throws Exception {
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("application exited with " + process.exitValue() + ", see " + log);
+			}
+			try {
+				HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+				if (response.statusCode() == 200 && !response.body().contains("alert(")) {
+					return;
+				}
+			} catch (IOException e) {
+				// 아직 포트가 열리지 않음
+			}
+			Thread.sleep(POLL_INTERVAL_MS);
+		}
+		throw new IllegalStateException("no successful response from " + request.uri() + " within " + STARTUP_TIMEOUT
+				+ ", see " + log);
+	}
+
+	private static String signIn(String base) throws Exception {
+		String form = "username=" + URLEncoder.encode(USERNAME, StandardCharsets.UTF_8) + "&password="
+				+ BankBenchmarkContext.PASSWORD;
+		HttpResponse<String> response = CLIENT.send(HttpRequest.newBuilder(URI.create(base + "/user/sign-in"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build(), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 302) {
+			throw new IllegalStateException("sign-in failed with HTTP " + response.statusCode());
+		}
+		return response.headers().allValues("Set-Cookie").stream()
+				.map(header -> header.split(";", 2)[0])
+				.collect(Collectors.joining("; "));
+	}
+
+	// 아카이브가 classpath/JDK 불일치로 무시되면 (-Xshare:auto) JVM 은 경고만 남기고 계속 뜬다. 측정값이 잘못 섞이지 않게 실패 처리
+	private static void checkSharedArchiveUsed(Mode mode, Path log) throws IOException {
+		if (mode.archive == null) {
+			return;
+		}
+		List<String> warnings = Files.readAllLines(log).stream()
+				.filter(line -> line.contains("[warning][cds"))
+				.toList();
+		if (!warnings.isEmpty()) {
+			throw new IllegalStateException(mode + " did not use its CDS archive (run ./gradlew cdsArchive): " + warnings);
+		}
+	}
+
+	private static long median(List<Timing> timings, ToLongFunction<Timing> value) {
+		long[] sorted = timings.stream().mapToLong(value).sorted().toArray();
+		return sorted[sorted.length / 2];
+	}
+
+	private static long min(List<Timing> timings, ToLongFunction<Timing> value) {
+		return timings.stream().mapToLong(value).min().orElse(0);
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.tenco.bank.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tenco.bank.handler.TokenBucketLimiter;
+
+/**
+ * 처리율 제한 요청당 비용 (목표 : 1us 보다 충분히 작게)
+ * users=1 : 모든 스레드가 같은 버킷 (CAS 경합 최악), users=100000 : 사용자별로 흩어진 버킷
+ * 실행 : ./gradlew jmh -Pjmh.includes=TokenBucketBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBucketBenchmark {
+
+	@Param({ "1", "100000" })
+	int users;
+
+	// 거절 없이 항상 허용되도록 넉넉한 속도 (허용 경로 비용 측정)
+	final TokenBucketLimiter limiter = new TokenBucketLimiter(1e9, 1_000_000);
+
+	@Benchmark
+	public long singleThread() {
+		return limiter.tryAcquire(ThreadLocalRandom.current().nextInt(users));
+	}
+
+	@Benchmark
+	@Threads(8)
+	public long eightThreads() {
+		return limiter.tryAcquire(ThreadLocalRandom.current().nextInt(users));
+	}
+
+}
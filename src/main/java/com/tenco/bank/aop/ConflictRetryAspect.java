@@ -0,0 +1,87 @@
+package com.tenco.bank.aop;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.utils.Define;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * @RetryOnConflict 메서드 재시도
+ *
+ * - 최대 max-attempts 번 실행, 실행 사이에 0 ~ min(max-backoff, backoff x 2^(n-1)) ms 임의 대기 (full jitter)
+ *   --> 같이 충돌한 요청들이 같은 시점에 다시 몰리지 않는다.
+ * - 모두 충돌하면 CONCURRENT_UPDATE_CONFLICT (409)
+ * - 트랜잭션 바깥에서 감싸도록 @Order(1) (@Transactional 보다 먼저, OperationMetricsAspect 보다 안쪽)
+ *   --> 재시도마다 새 트랜잭션, 지연 지표는 재시도를 포함한 전체 시간
+ * - bank.account.conflict.retries (Counter) : tag = method, outcome(retried/exhausted)
+ */
+@Aspect
+@Component
+@Order(1)
+public class ConflictRetryAspect {
+
+	private static final String RETRIES = "bank.account.conflict.retries";
+
+	private final MeterRegistry meterRegistry;
+	private final int maxAttempts;
+	private final long backoffMillis;
+	private final long maxBackoffMillis;
+
+	public ConflictRetryAspect(MeterRegistry meterRegistry,
+			@Value("${bank.account.retry.max-attempts:3}") int maxAttempts,
+			@Value("${bank.account.retry.backoff-ms:5}") long backoffMillis,
+			@Value("${bank.account.retry.max-backoff-ms:100}") long maxBackoffMillis) {
+		this.meterRegistry = meterRegistry;
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.backoffMillis = backoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	@Around("@annotation(com.tenco.bank.aop.RetryOnConflict)")
+	public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return joinPoint.proceed();
+		}
+		String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+				+ joinPoint.getSignature().getName();
+		for (int attempt = 1;; attempt++) {
+			try {
+				return joinPoint.proceed();
+			} catch (OptimisticLockingFailureException e) {
+				if (attempt >= maxAttempts) {
+					counter(method, "exhausted").increment();
+					throw new DataDeliveryException(Define.CONCURRENT_UPDATE_CONFLICT, HttpStatus.CONFLICT);
+				}
+				counter(method, "retried").increment();
+				Thread.sleep(backoff(attempt));
+			}
+		}
+	}
+
+	private long backoff(int attempt) {
+		long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+		return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	private Counter counter(String method, String outcome) {
+		return Counter.builder(RETRIES)
+				.description("Optimistic lock conflicts retried or given up")
+				.tag("method", method)
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.tenco.bank.aop;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SignInDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.utils.Define;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 입출금/이체, 로그인 서비스 호출 지표
+ *
+ * - bank.operation (Timer) : 지연 히스토그램, tag = operation, outcome(success/failure), error
+ *   실패 건수는 outcome=failure 인 _count 로 본다. error 는 예외 메세지에 해당하는 Define 상수 이름
+ *   (Define 에 없는 메세지는 UNDEFINED, DataDeliveryException 이 아닌 예외는 예외 클래스 이름)
+ * - bank.operation.amount (DistributionSummary) : 성공한 거래 금액 분포, tag = operation
+ *
+ * 트랜잭션 바깥에서 감싸도록 @Order(0) - 커밋 시간과 커밋 실패까지 포함해서 측정한다.
+ */
+@Aspect
+@Component
+@Order(0)
+public class OperationMetricsAspect {
+
+	private static final String TIMER = "bank.operation";
+	private static final String AMOUNT = "bank.operation.amount";
+
+	// Define 메세지 --> 상수 이름
+	private static final Map<String, String> ERROR_CODES = errorCodes();
+
+	private final MeterRegistry meterRegistry;
+
+	public OperationMetricsAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Around("execution(* com.tenco.bank.service.AccountService.updateAccountWithdrawal(..)) && args(dto, ..)")
+	public Object withdrawal(ProceedingJoinPoint joinPoint, WithdrawalDTO dto) throws Throwable {
+		return record(joinPoint, "withdrawal", dto.getAmount());
+	}
+
+	@Around("execution(* com.tenco.bank.service.AccountService.updateAccountDeposit(..)) && args(dto, ..)")
+	public Object deposit(ProceedingJoinPoint joinPoint, DepositDTO dto) throws Throwable {
+		return record(joinPoint, "deposit", dto.getAmount());
+	}
+
+	// updateAccountTransfer, updateAccountTransferVerified (비동기 이체)
+	@Around("execution(* com.tenco.bank.service.AccountService.updateAccountTransfer*(..)) && args(dto, ..)")
+	public Object transfer(ProceedingJoinPoint joinPoint, TransferDTO dto) throws Throwable {
+		return record(joinPoint, "transfer", dto.getAmount());
+	}
+
+	@Around("execution(* com.tenco.bank.service.UserService.readUser(..)) && args(dto)")
+	public Object readUser(ProceedingJoinPoint joinPoint, SignInDTO dto) throws Throwable {
+		return record(joinPoint, "readUser", null);
+	}
+
+	private Object record(ProceedingJoinPoint joinPoint, String operation, Long amount) throws Throwable {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "success";
+		String error = "none";
+		try {
+			Object result = joinPoint.proceed();
+			if (amount != null) {
+				DistributionSummary.builder(AMOUNT)
+						.description("Amount of successful money movements")
+						.baseUnit("won")
+						.tag("operation", operation)
+						.publishPercentileHistogram()
+						.register(meterRegistry)
+						.record(amount);
+			}
+			return result;
+		} catch (Throwable e) {
+			outcome = "failure";
+			error = errorCode(e);
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(TIMER)
+					.description("Latency of account and user service operations")
+					.tag("operation", operation)
+					.tag("outcome", outcome)
+					.tag("error", error)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		}
+	}
+
+	static String errorCode(Throwable e) {
+		if (e.getMessage() != null && ERROR_CODES.containsKey(e.getMessage())) {
+			return ERROR_CODES.get(e.getMessage());
+		}
+		if (e instanceof DataDeliveryException) {
+			return "UNDEFINED";
+		}
+		return e.getClass().getSimpleName();
+	}
+
+	private static Map<String, String> errorCodes() {
+		Map<String, String> codes = new HashMap<>();
+		for (Field field : Define.class.getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+				try {
+					codes.putIfAbsent((String) field.get(null), field.getName());
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		return Map.copyOf(codes);
+	}
+
+}
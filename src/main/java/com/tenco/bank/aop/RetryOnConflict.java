@@ -0,0 +1,17 @@
+package com.tenco.bank.aop;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 잠금 충돌(OptimisticLockingFailureException) 시 메서드 전체를 다시 실행한다. (ConflictRetryAspect)
+ * 이미 진행 중인 트랜잭션 안에서 호출되면 재시도하지 않고 바깥으로 넘긴다. (롤백 단위가 바깥 트랜잭션)
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
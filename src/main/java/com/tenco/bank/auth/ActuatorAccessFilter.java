@@ -0,0 +1,86 @@
+package com.tenco.bank.auth;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.tenco.bank.repository.model.User;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * /actuator/** 접근 제한
+ * - public-endpoints (기본 health, info, prometheus) 의 GET 은 누구나 호출할 수 있다.
+ * - 그 밖의 endpoint (metrics, sqlstats 등) 와 변경 요청 (DELETE /actuator/sqlstats 등) 은
+ *   로그인한 사용자 중 admin-user-ids 에 있는 사용자만 호출할 수 있다. (로그인 전 401, 권한 없음 403)
+ * - admin-user-ids 가 비어 있으면 아무도 호출할 수 없다.
+ * actuator endpoint 는 컨트롤러가 아니라서 컨트롤러의 로그인 검사와 HandlerInterceptor 를 거치지 않으므로 필터에서 검사한다.
+ */
+@Component
+public class ActuatorAccessFilter extends OncePerRequestFilter {
+
+	// 스프링 MVC 가 요청을 연결하는 경로와 같게 정규화 (%xx 복원, ;matrix 제거, // --> /)
+	// getRequestURI() 그대로 비교하면 /%61ctuator/metrics, /actuator;x=1/metrics 같은 주소가 검사를 피한다.
+	private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+	private final PrincipalManager principalManager;
+	private final String basePath;
+	private final List<String> publicEndpoints;
+	private final Set<Integer> adminUserIds;
+
+	public ActuatorAccessFilter(PrincipalManager principalManager,
+			@Value("${management.endpoints.web.base-path:/actuator}") String basePath,
+			@Value("${bank.management.public-endpoints:health,info,prometheus}") List<String> publicEndpoints,
+			@Value("${bank.management.admin-user-ids:}") Set<Integer> adminUserIds) {
+		this.principalManager = principalManager;
+		this.basePath = basePath;
+		this.publicEndpoints = publicEndpoints;
+		this.adminUserIds = adminUserIds;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = PATH_HELPER.getPathWithinApplication(request);
+		return !(path.equals(basePath) || path.startsWith(basePath + "/"));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (HttpMethod.GET.matches(request.getMethod()) && isPublic(PATH_HELPER.getPathWithinApplication(request))) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		User principal = principalManager.resolve(request);
+		if (principal == null) {
+			response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+			return;
+		}
+		if (!adminUserIds.contains(principal.getId())) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	// /actuator/health/db --> health (".." 가 있으면 다른 endpoint 로 갈 수 있으므로 공개로 보지 않는다)
+	private boolean isPublic(String path) {
+		String[] segments = path.substring(basePath.length()).split("/");
+		for (String segment : segments) {
+			if (segment.equals("..")) {
+				return false;
+			}
+		}
+		return segments.length > 1 && publicEndpoints.contains(segments[1]);
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.tenco.bank.auth;
+
+/**
+ * 로그인 상태 유지 방식
+ * SESSION : HttpSession 에 User 저장 (노드 고정 - sticky session 필요)
+ * TOKEN   : 사용자 id 를 담은 HMAC 서명 토큰(쿠키)만 사용 - 세션, DB 조회 없이 어느 노드에서든 검증
+ */
+public enum AuthMode {
+	SESSION, TOKEN
+}
@@ -0,0 +1,126 @@
+package com.tenco.bank.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 로그인 토큰 발급/검증
+ * 형식 : {userId}.{만료 epoch 초}.{HMAC-SHA256 서명(base64url)}
+ * 모든 노드가 같은 비밀 키(bank.auth.token.secret)를 써야 어느 노드에서든 검증된다.
+ * TOKEN 모드는 비밀 키가 없거나 32 바이트보다 짧으면 기동하지 않는다. (SESSION 모드는 토큰을 쓰지 않으므로 임의 키)
+ */
+@Slf4j
+@Component
+public class AuthTokenService {
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final int MIN_SECRET_BYTES = 32; // HMAC-SHA256 출력 크기
+
+	private final Mac prototype;
+	private final Duration ttl;
+	private final Clock clock;
+
+	@Autowired
+	public AuthTokenService(@Value("${bank.auth.mode:SESSION}") AuthMode mode,
+			@Value("${bank.auth.token.secret:}") String secret,
+			@Value("${bank.auth.token.ttl-minutes:60}") long ttlMinutes) {
+		this(checkSecret(mode, secret), Duration.ofMinutes(ttlMinutes), Clock.systemUTC());
+	}
+
+	// TOKEN 모드의 비밀 키 검사 - 임의 키로 기동하면 재기동/다른 노드에서 로그인이 풀린다.
+	static String checkSecret(AuthMode mode, String secret) {
+		if (mode == AuthMode.TOKEN
+				&& (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES)) {
+			throw new IllegalStateException(
+					"bank.auth.token.secret must be at least " + MIN_SECRET_BYTES + " bytes in TOKEN mode");
+		}
+		return secret;
+	}
+
+	AuthTokenService(String secret, Duration ttl, Clock clock) {
+		byte[] key;
+		if (secret == null || secret.isBlank()) {
+			// SESSION 모드 (토큰을 발급하지 않음) 또는 단위 테스트
+			log.debug("bank.auth.token.secret is not set - using a random key");
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+		} else {
+			key = secret.getBytes(StandardCharsets.UTF_8);
+		}
+		try {
+			this.prototype = Mac.getInstance(ALGORITHM);
+			this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+		} catch (NoSuchAlgorithmException | InvalidKeyException e) {
+			throw new IllegalStateException(e);
+		}
+		this.ttl = ttl;
+		this.clock = clock;
+	}
+
+	public String issue(Integer userId) {
+		String payload = userId + "." + clock.instant().plus(ttl).getEpochSecond();
+		return payload + "." + sign(payload);
+	}
+
+	/**
+	 * @return 서명이 맞고 만료되지 않았으면 사용자 id, 아니면 null
+	 */
+	public Integer verify(String token) {
+		if (token == null) {
+			return null;
+		}
+		int signatureAt = token.lastIndexOf('.');
+		int expiresAt = token.indexOf('.');
+		if (expiresAt <= 0 || signatureAt <= expiresAt) {
+			return null;
+		}
+		String payload = token.substring(0, signatureAt);
+		byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+		byte[] actual = token.substring(signatureAt + 1).getBytes(StandardCharsets.US_ASCII);
+		// 비교 시간으로 서명을 추측하지 못하게 고정 시간 비교
+		if (!MessageDigest.isEqual(expected, actual)) {
+			return null;
+		}
+		try {
+			long expires = Long.parseLong(token.substring(expiresAt + 1, signatureAt));
+			if (clock.instant().getEpochSecond() >= expires) {
+				return null;
+			}
+			return Integer.valueOf(token.substring(0, expiresAt));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	public Duration getTtl() {
+		return ttl;
+	}
+
+	private String sign(String payload) {
+		Mac mac;
+		try {
+			// Mac 은 스레드 안전하지 않으므로 초기화된 원본을 복제해서 쓴다.
+			mac = (Mac) prototype.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+		return ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+}
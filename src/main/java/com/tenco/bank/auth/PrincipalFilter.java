@@ -0,0 +1,39 @@
+package com.tenco.bank.auth;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.tenco.bank.repository.model.User;
+import com.tenco.bank.utils.Define;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 요청마다 로그인 사용자를 찾아서 요청 속성 "principal" 에 넣는다.
+ * 인증 검사(로그인 필요 여부)는 지금처럼 각 컨트롤러에서 한다.
+ */
+@Component
+public class PrincipalFilter extends OncePerRequestFilter {
+
+	private final PrincipalManager principalManager;
+
+	public PrincipalFilter(PrincipalManager principalManager) {
+		this.principalManager = principalManager;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		User principal = principalManager.resolve(request);
+		if (principal != null) {
+			request.setAttribute(Define.PRINCIPAL, principal);
+		}
+		filterChain.doFilter(request, response);
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.tenco.bank.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import com.tenco.bank.repository.model.User;
+import com.tenco.bank.utils.Define;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 로그인 사용자(principal) 저장/조회
+ * 인증 방식(bank.auth.mode)에 따라 세션 또는 서명 토큰 쿠키를 사용한다.
+ * 컨트롤러와 JSP 는 방식과 상관없이 요청 속성 "principal" 을 읽는다. (PrincipalFilter 가 채움)
+ */
+@Component
+public class PrincipalManager {
+
+	public static final String TOKEN_COOKIE = "BANK_TOKEN";
+	private static final String BEARER = "Bearer ";
+
+	private final AuthMode mode;
+	private final AuthTokenService authTokenService;
+	private final boolean secureCookie;
+
+	public PrincipalManager(@Value("${bank.auth.mode:SESSION}") AuthMode mode, AuthTokenService authTokenService,
+			@Value("${bank.auth.token.secure-cookie:false}") boolean secureCookie) {
+		this.mode = mode;
+		this.authTokenService = authTokenService;
+		this.secureCookie = secureCookie;
+	}
+
+	// 로그인 처리
+	public void signIn(User user, HttpServletRequest request, HttpServletResponse response) {
+		if (mode == AuthMode.SESSION) {
+			request.getSession().setAttribute(Define.PRINCIPAL, user);
+			return;
+		}
+		String token = authTokenService.issue(user.getId());
+		response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie(token, authTokenService.getTtl().toSeconds()).toString());
+	}
+
+	// 로그아웃 처리 (세션이 없으면 새로 만들지 않는다)
+	public void signOut(HttpServletRequest request, HttpServletResponse response) {
+		if (mode == AuthMode.SESSION) {
+			HttpSession session = request.getSession(false);
+			if (session != null) {
+				session.invalidate();
+			}
+			return;
+		}
+		response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie("", 0).toString());
+	}
+
+	/**
+	 * 현재 요청의 로그인 사용자
+	 * TOKEN 모드는 토큰의 사용자 id 만 담은 User 를 돌려준다. (DB 조회 없음)
+	 * @return 로그인 안 된 상태면 null
+	 */
+	public User resolve(HttpServletRequest request) {
+		if (mode == AuthMode.SESSION) {
+			HttpSession session = request.getSession(false);
+			return session == null ? null : (User) session.getAttribute(Define.PRINCIPAL);
+		}
+		Integer userId = authTokenService.verify(findToken(request));
+		return userId == null ? null : User.builder().id(userId).build();
+	}
+
+	public AuthMode getMode() {
+		return mode;
+	}
+
+	// 쿠키 우선, 없으면 Authorization: Bearer (API 호출용)
+	private static String findToken(HttpServletRequest request) {
+		Cookie[] cookies = request.getCookies();
+		if (cookies != null) {
+			for (Cookie cookie : cookies) {
+				if (TOKEN_COOKIE.equals(cookie.getName())) {
+					return cookie.getValue();
+				}
+			}
+		}
+		String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (authorization != null && authorization.startsWith(BEARER)) {
+			return authorization.substring(BEARER.length());
+		}
+		return null;
+	}
+
+	// secure : HTTPS 로만 전송 (bank.auth.token.secure-cookie)
+	private ResponseCookie tokenCookie(String value, long maxAgeSeconds) {
+		return ResponseCookie.from(TOKEN_COOKIE, value)
+				.httpOnly(true)
+				.secure(secureCookie)
+				.path("/")
+				.sameSite("Lax")
+				.maxAge(maxAgeSeconds)
+				.build();
+	}
+
+}
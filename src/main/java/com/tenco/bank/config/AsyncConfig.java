@@ -0,0 +1,15 @@
+package com.tenco.bank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * @Async 사용 설정
+ * 실행기는 스프링 부트 기본 applicationTaskExecutor 를 사용한다.
+ * spring.threads.virtual.enabled=true 이면 작업마다 가상 스레드로 실행된다. (MVC 비동기 응답도 동일)
+ */
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+
+}
@@ -0,0 +1,114 @@
+package com.tenco.bank.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 동시에 빌려줄 수 있는 커넥션 수를 permit 으로 제한하는 DataSource
+ * 가상 스레드 모드에서는 요청마다 스레드가 생기므로 수천 개의 스레드가 커넥션 풀에 한꺼번에 몰린다.
+ * 공정(FIFO) 세마포어 앞에서 먼저 줄을 세우고, 시간 안에 permit 을 못 받으면 바로 실패시킨다.
+ * permit 은 커넥션을 close 할 때 반납된다.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final int maxConcurrency;
+	private final long timeoutMillis;
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	public ConcurrencyLimitedDataSource(DataSource targetDataSource, int maxConcurrency, long timeoutMillis) {
+		super(targetDataSource);
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.maxConcurrency = maxConcurrency;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(obtainTargetDataSource().getConnection());
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(obtainTargetDataSource().getConnection(username, password));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private void acquire() throws SQLException {
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("interrupted while waiting for a JDBC permit", e);
+		}
+		if (!acquired) {
+			rejectedCount.increment();
+			throw new SQLTransientConnectionException(
+					"no JDBC permit available within " + timeoutMillis + "ms (max " + maxConcurrency + ")");
+		}
+	}
+
+	// close() 를 가로채서 permit 을 한 번만 반납한다.
+	private Connection limited(Connection target) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(ConcurrencyLimitedDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+						try {
+							target.close();
+						} finally {
+							if (released.compareAndSet(false, true)) {
+								permits.release();
+							}
+						}
+						return null;
+					}
+					try {
+						return method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	public int getWaitingCount() {
+		return permits.getQueueLength();
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+
+}
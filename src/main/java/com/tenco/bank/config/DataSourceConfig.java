@@ -0,0 +1,50 @@
+package com.tenco.bank.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+public class DataSourceConfig {
+
+	/**
+	 * 설정에 따라 DataSource 를 감싼다. (바깥쪽부터 Lazy --> 동시 사용 제한 --> 커넥션 풀)
+	 *
+	 * - 계좌 stripe 잠금 사용 시 LazyConnectionDataSourceProxy
+	 *   트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 빌리므로
+	 *   stripe 잠금을 기다리는 동안 커넥션 풀을 점유하지 않는다.
+	 * - JDBC 동시 사용 제한 (기본값 : 가상 스레드 모드일 때 사용)
+	 *   permit 수는 커넥션 풀 크기에 맞춘다.
+	 */
+	@Bean
+	public static BeanPostProcessor dataSourcePostProcessor(Environment environment) {
+		boolean lazy = environment.getProperty("bank.account.striped-lock.enabled", Boolean.class, false);
+		boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+		boolean limit = environment.getProperty("bank.jdbc.limiter.enabled", Boolean.class, virtualThreads);
+		int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+		int maxConcurrency = environment.getProperty("bank.jdbc.limiter.max-concurrency", Integer.class, poolSize);
+		long timeoutMillis = environment.getProperty("bank.jdbc.limiter.timeout-ms", Long.class, 5000L);
+
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+					return bean;
+				}
+				if (limit) {
+					dataSource = new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, timeoutMillis);
+				}
+				if (lazy) {
+					dataSource = new LazyConnectionDataSourceProxy(dataSource);
+				}
+				return dataSource;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.tenco.bank.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.tenco.bank.engine.TransferEngine;
+import com.tenco.bank.handler.RateLimitInterceptor;
+import com.tenco.bank.handler.TokenBucketLimiter;
+import com.tenco.bank.repository.cache.CachingAccountRepository;
+import com.tenco.bank.service.AccountLockManager;
+import com.tenco.bank.service.HistoryAppender;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 애플리케이션 구성 요소 지표 등록
+ * 커넥션 풀(HikariCP) 지표는 스프링 부트가 hikaricp_connections_* 로 등록한다.
+ * 여기서는 풀 앞단의 JDBC 동시 사용 제한, 계좌 stripe 잠금, 거래내역 그룹 커밋, 계좌 캐시, 처리율 제한, 이체 엔진을 등록한다.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public MeterBinder jdbcLimiterMetrics(DataSource dataSource) {
+		return registry -> {
+			ConcurrencyLimitedDataSource limiter = DataSourceUnwrapper.unwrap(dataSource, ConcurrencyLimitedDataSource.class);
+			if (limiter == null) {
+				return;
+			}
+			Gauge.builder("bank.jdbc.limiter.permits.max", limiter, ConcurrencyLimitedDataSource::getMaxConcurrency)
+					.register(registry);
+			Gauge.builder("bank.jdbc.limiter.permits.available", limiter, ConcurrencyLimitedDataSource::getAvailablePermits)
+					.register(registry);
+			Gauge.builder("bank.jdbc.limiter.waiting", limiter, ConcurrencyLimitedDataSource::getWaitingCount)
+					.description("Threads waiting for a JDBC permit")
+					.register(registry);
+			FunctionCounter.builder("bank.jdbc.limiter.rejected", limiter, ConcurrencyLimitedDataSource::getRejectedCount)
+					.description("Connection requests that timed out waiting for a permit")
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder accountLockMetrics(AccountLockManager lockManager) {
+		return registry -> {
+			if (!lockManager.isEnabled()) {
+				return;
+			}
+			FunctionCounter.builder("bank.account.lock.acquired", lockManager, AccountLockManager::getAcquireCount)
+					.register(registry);
+			FunctionCounter.builder("bank.account.lock.contended", lockManager, AccountLockManager::getContendedCount)
+					.register(registry);
+			FunctionCounter.builder("bank.account.lock.wait", lockManager, m -> m.getTotalWaitNanos() / 1e9)
+					.baseUnit("seconds")
+					.register(registry);
+			Gauge.builder("bank.account.lock.wait.max", lockManager, m -> m.getMaxWaitNanos() / 1e9)
+					.baseUnit("seconds")
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder historyAppenderMetrics(HistoryAppender historyAppender) {
+		return registry -> {
+			if (!historyAppender.isEnabled()) {
+				return;
+			}
+			Gauge.builder("bank.history.group-commit.queue", historyAppender, HistoryAppender::getQueueSize)
+					.register(registry);
+			FunctionCounter.builder("bank.history.group-commit.flushes", historyAppender, HistoryAppender::getFlushCount)
+					.register(registry);
+			FunctionCounter.builder("bank.history.group-commit.rows", historyAppender, HistoryAppender::getFlushedRows)
+					.register(registry);
+			FunctionCounter.builder("bank.history.group-commit.compensated", historyAppender, HistoryAppender::getCompensatedRows)
+					.register(registry);
+			FunctionCounter.builder("bank.history.group-commit.inline", historyAppender, HistoryAppender::getInlineRows)
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder accountCacheMetrics(ObjectProvider<CachingAccountRepository> cachingAccountRepository) {
+		return registry -> cachingAccountRepository.ifAvailable(cache -> {
+			CaffeineCacheMetrics.monitor(registry, cache.getNumberCache(), "account.number");
+			CaffeineCacheMetrics.monitor(registry, cache.getUserListCache(), "account.user-list");
+		});
+	}
+
+	@Bean
+	public MeterBinder transferEngineMetrics(ObjectProvider<TransferEngine> transferEngine) {
+		return registry -> transferEngine.ifAvailable(engine -> {
+			Gauge.builder("bank.engine.queued", engine, TransferEngine::getQueuedCommands)
+					.register(registry);
+			Gauge.builder("bank.engine.sync.lag", engine, TransferEngine::getSyncLag)
+					.description("Journal records not yet written to the database")
+					.register(registry);
+			Gauge.builder("bank.engine.credits.failed", engine, TransferEngine::getFailedCredits)
+					.description("Transfers whose credit side failed and is waiting for a retry")
+					.register(registry);
+		});
+	}
+
+	@Bean
+	public MeterBinder rateLimitMetrics(RateLimitInterceptor rateLimitInterceptor) {
+		return registry -> {
+			if (!rateLimitInterceptor.isEnabled()) {
+				return;
+			}
+			rateLimitInterceptor.getLimiters().forEach((endpoint, limiter) -> {
+				FunctionCounter.builder("bank.ratelimit.rejected", limiter, TokenBucketLimiter::getRejectedCount)
+						.description("Requests rejected with 429")
+						.tag("endpoint", endpoint)
+						.register(registry);
+				Gauge.builder("bank.ratelimit.buckets", limiter, TokenBucketLimiter::getBucketCount)
+						.description("Per-user buckets held in memory")
+						.tag("endpoint", endpoint)
+						.register(registry);
+			});
+		};
+	}
+
+}
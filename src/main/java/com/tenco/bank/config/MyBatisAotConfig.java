@@ -0,0 +1,58 @@
+package com.tenco.bank.config;
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+
+/**
+ * MyBatis 매퍼를 Spring AOT (./gradlew processAot) 생성 코드로 기동할 수 있게 하는 설정
+ *
+ * - 매퍼 bean 정의 (MapperFactoryBean) 는 생성자 인자가 매퍼 인터페이스 이름(String) 이라서
+ *   생성 코드가 인자를 Class 로 찾지 못한다. --> 인자를 Class 로, 대상 타입을 MapperFactoryBean<매퍼> 로 바꾼다.
+ * - 스캔 결과는 생성 코드에 들어가므로 매퍼 스캐너는 생성 코드에서 뺀다. (AOT 실행 시 다시 스캔하면 이름 충돌)
+ *   --> META-INF/spring/aot.factories 에 MapperScannerExcludeFilter 등록
+ * - 일반 실행에서는 대상 타입만 미리 정해질 뿐 동작은 같다.
+ */
+@Configuration
+public class MyBatisAotConfig {
+
+	@Bean
+	public static MergedBeanDefinitionPostProcessor mapperFactoryBeanTypeResolver() {
+		return new MapperFactoryBeanTypeResolver();
+	}
+
+	static class MapperFactoryBeanTypeResolver implements MergedBeanDefinitionPostProcessor {
+
+		@Override
+		public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+			if (!beanDefinition.hasBeanClass() || !MapperFactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass())
+					|| !beanDefinition.getResolvableType().hasUnresolvableGenerics()) {
+				return;
+			}
+			if (beanDefinition.getPropertyValues().get("mapperInterface") instanceof Class<?> mapperInterface) {
+				ConstructorArgumentValues constructorArgumentValues = new ConstructorArgumentValues();
+				constructorArgumentValues.addGenericArgumentValue(mapperInterface);
+				beanDefinition.setConstructorArgumentValues(constructorArgumentValues);
+				beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(beanDefinition.getBeanClass(), mapperInterface));
+			}
+		}
+
+	}
+
+	public static class MapperScannerExcludeFilter implements BeanRegistrationExcludeFilter {
+
+		@Override
+		public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+			return MapperScannerConfigurer.class.isAssignableFrom(registeredBean.getBeanClass());
+		}
+
+	}
+
+}
@@ -0,0 +1,13 @@
+package com.tenco.bank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 사용 설정 (만료 멱등 키 정리 등)
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+
+}
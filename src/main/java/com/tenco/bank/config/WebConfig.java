@@ -0,0 +1,25 @@
+package com.tenco.bank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.tenco.bank.handler.RateLimitInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private final RateLimitInterceptor rateLimitInterceptor;
+
+	public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+		this.rateLimitInterceptor = rateLimitInterceptor;
+	}
+
+	// 입출금/이체 요청 처리율 제한 (서비스 호출 전)
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(rateLimitInterceptor)
+				.addPathPatterns("/account/withdrawal", "/account/deposit", "/account/transfer", "/account/transfer/**");
+	}
+
+}
@@ -1,15 +1,35 @@
 package com.tenco.bank.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.tenco.bank.dto.AsyncTransferDTO;
+import com.tenco.bank.dto.BalanceAtDTO;
+import com.tenco.bank.dto.BulkTransferDTO;
+import com.tenco.bank.dto.BulkTransferResultDTO;
 import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.HistoryPageDTO;
 import com.tenco.bank.dto.SaveDTO;
 import com.tenco.bank.dto.TransferDTO;
 import com.tenco.bank.dto.WithdrawalDTO;
@@ -17,11 +37,17 @@ import com.tenco.bank.handler.exception.DataDeliveryException;
 import com.tenco.bank.handler.exception.UnAuthorizedException;
 import com.tenco.bank.repository.interfaces.AccountRepository;
 import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.PendingTransfer;
 import com.tenco.bank.repository.model.User;
 import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.AsyncTransferService;
+import com.tenco.bank.service.BalanceSnapshotService;
+import com.tenco.bank.service.BulkTransferService;
+import com.tenco.bank.service.HistoryExportService;
+import com.tenco.bank.service.IdempotencyService;
 import com.tenco.bank.utils.Define;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Controller // IoC 대상(싱글톤으로 관리)
 @RequestMapping("/account")
@@ -29,13 +55,27 @@ public class AccountController {
 	
 	
 	// 계좌 생성 화면 요청 DI 처리
-	private final HttpSession session;
+	// 로그인 사용자는 PrincipalFilter 가 요청 속성(principal)에 넣어 둔다. (세션/토큰 방식 공통)
+	private final HttpServletRequest request;
 	private final AccountService accountService;
+	private final HistoryExportService historyExportService;
+	private final BulkTransferService bulkTransferService;
+	private final IdempotencyService idempotencyService;
+	private final BalanceSnapshotService balanceSnapshotService;
+	private final AsyncTransferService asyncTransferService;
 	
-	public AccountController(HttpSession session,AccountService accountService) {
-		this.session=session;
+	public AccountController(HttpServletRequest request,AccountService accountService,
+			HistoryExportService historyExportService, BulkTransferService bulkTransferService,
+			IdempotencyService idempotencyService, BalanceSnapshotService balanceSnapshotService,
+			AsyncTransferService asyncTransferService) {
+		this.request=request;
 		this.accountService=accountService;
-		if(session==null) {
+		this.historyExportService=historyExportService;
+		this.bulkTransferService=bulkTransferService;
+		this.idempotencyService=idempotencyService;
+		this.balanceSnapshotService=balanceSnapshotService;
+		this.asyncTransferService=asyncTransferService;
+		if(request==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
 	}
@@ -48,7 +88,7 @@ public class AccountController {
 	@GetMapping("/save")
 	public String savePage() {
 		// 1. 인증 검사가 필요(account 전체 필요함)
-		User principal = (User)session.getAttribute("principal");
+		User principal = (User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
@@ -69,7 +109,7 @@ public class AccountController {
 		// 2. 인증 검사
 		// 3. 유효성 검사
 		// 4. 서비스 호출
-		User principal = (User) session.getAttribute("principal");
+		User principal = (User) request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
@@ -98,7 +138,7 @@ public class AccountController {
 	public String listPage(Model model) {
 		
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
@@ -122,13 +162,15 @@ public class AccountController {
 	 * @return
 	 */
 	@GetMapping("/withdrawal")
-	public String withDrawalPage() {
+	public String withDrawalPage(Model model) {
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
 		
+		// 폼 하나에 멱등 키 하나 - 같은 폼을 다시 전송하면 같은 키로 들어온다.
+		model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 		return "account/withdrawal";
 	}
 	
@@ -140,7 +182,7 @@ public class AccountController {
 	@PostMapping("/withdrawal")
 	public String withDrawalProc(WithdrawalDTO dto) {
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
@@ -160,7 +202,9 @@ public class AccountController {
 			throw new DataDeliveryException(Define.ENTER_YOUR_PASSWORD, HttpStatus.BAD_REQUEST);
 		}
 		
-		accountService.updateAccountWithdrawal(dto, principal.getId());
+		idempotencyService.execute(principal.getId(), idempotencyKey(), "withdrawal",
+				dto.getWAccountNumber() + "|" + dto.getAmount(),
+				() -> accountService.updateAccountWithdrawal(dto, principal.getId()));
 		
 		return "redirect:/account/list";
 	}
@@ -169,13 +213,15 @@ public class AccountController {
 	 * 입금 페이지 요청
 	 */
 	@GetMapping("/deposit")
-	public String depositPage() {
+	public String depositPage(Model model) {
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
 				
+		// 폼 하나에 멱등 키 하나 - 같은 폼을 다시 전송하면 같은 키로 들어온다.
+		model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 		return "account/deposit";
 	}
 	
@@ -189,7 +235,7 @@ public class AccountController {
 	@PostMapping("/deposit")
 	public String depositProc(DepositDTO dto) {
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
@@ -208,7 +254,9 @@ public class AccountController {
 			throw new DataDeliveryException(Define.ENTER_YOUR_ACCOUNT_NUMBER, HttpStatus.BAD_REQUEST);
 		}
 		
-		accountService.updateAccountDeposit(dto, principal.getId());
+		idempotencyService.execute(principal.getId(), idempotencyKey(), "deposit",
+				dto.getDAccountNumber() + "|" + dto.getAmount(),
+				() -> accountService.updateAccountDeposit(dto, principal.getId()));
 		
 		return "redirect:/account/list";
 	}
@@ -218,13 +266,15 @@ public class AccountController {
 	 * 이체 페이지 요청
 	 */
 	@GetMapping("/transfer")
-	public String transferPage() {
+	public String transferPage(Model model) {
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
 				
+		// 폼 하나에 멱등 키 하나 - 같은 폼을 다시 전송하면 같은 키로 들어온다.
+		model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 		return "account/transfer";
 	}
 	
@@ -238,7 +288,7 @@ public class AccountController {
 	@PostMapping("/transfer")
 	public String transferProc(TransferDTO dto) {
 		// 1. 인증 검사
-		User principal=(User)session.getAttribute("principal");
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
 		if(principal==null) {
 			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
@@ -246,12 +296,57 @@ public class AccountController {
 		// 입금시 검사해야 할 것
 		// 1. 계좌가 존재하는지
 		// 2. 돈이 존재하는지
-		System.out.println(dto);
+		checkTransfer(dto);
 		
-		// 입금-출금 계좌 중복 여부 확인 확인
-		if(dto.getDAccountNumber().equals(dto.getWAccountNumber())) {
-			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		idempotencyService.execute(principal.getId(), idempotencyKey(), "transfer",
+				dto.getWAccountNumber() + "|" + dto.getDAccountNumber() + "|" + dto.getAmount(),
+				() -> accountService.updateAccountTransfer(dto, principal.getId()));
+		
+		return "redirect:/account/list";
+	}
+	
+	/**
+	 * 비동기 이체 접수 - 확인 후 저장만 하고 바로 응답 (202 Accepted)
+	 * 주소 설계 : http://localhost:8080/account/transfer/async
+	 * 처리 결과는 Location 헤더의 주소로 조회한다.
+	 * @return 접수 건 (id, status=PENDING)
+	 */
+	@PostMapping("/transfer/async")
+	public ResponseEntity<AsyncTransferDTO> transferAsyncProc(TransferDTO dto) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
 		}
+		
+		// 2. 유효성 검사
+		checkTransfer(dto);
+		
+		// 3. 접수 (계좌, 비밀번호 확인 후 저장)
+		PendingTransfer pending = asyncTransferService.submit(dto, principal.getId());
+		return ResponseEntity.accepted()
+				.location(URI.create("/account/transfer/async/" + pending.getId()))
+				.body(AsyncTransferDTO.from(pending));
+	}
+	
+	/**
+	 * 비동기 이체 상태 조회
+	 * 주소 설계 : http://localhost:8080/account/transfer/async/1
+	 * @return 접수 건 (status : PENDING, DONE, FAILED, 엔진 모드 PROCESSING, UNKNOWN)
+	 */
+	@GetMapping("/transfer/async/{transferId}")
+	@ResponseBody
+	public AsyncTransferDTO transferAsyncStatus(@PathVariable(name = "transferId") Long transferId) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
+		}
+		
+		return AsyncTransferDTO.from(asyncTransferService.readTransfer(transferId, principal.getId()));
+	}
+	
+	private void checkTransfer(TransferDTO dto) {
 		// 입금 금액 널 확인
 		if (dto.getAmount() == null) {
             throw new DataDeliveryException(Define.ENTER_YOUR_BALANCE, HttpStatus.BAD_REQUEST);
@@ -268,15 +363,183 @@ public class AccountController {
 		if(dto.getWAccountNumber()==null) {
 			throw new DataDeliveryException(Define.ENTER_YOUR_ACCOUNT_NUMBER, HttpStatus.BAD_REQUEST);
 		}
+		// 입금-출금 계좌 중복 여부 확인 확인
+		if(dto.getDAccountNumber().equals(dto.getWAccountNumber())) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
 		// 출금 계좌 비밀번호 널 확인
 		if(dto.getPassword()==null) {
 			throw new DataDeliveryException(Define.ENTER_YOUR_PASSWORD, HttpStatus.BAD_REQUEST);
 		}
+	}
+	
+	/**
+	 * 멱등 키 - Idempotency-Key 헤더 (API 클라이언트) 또는 idempotencyKey 폼 값 (화면)
+	 * 없으면 null (멱등 처리 없이 실행)
+	 */
+	private String idempotencyKey() {
+		String key = request.getHeader("Idempotency-Key");
+		if (key == null) {
+			key = request.getParameter("idempotencyKey");
+		}
+		return key;
+	}
+	
+	/**
+	 * 대량 이체 (급여 이체) 요청 처리 - JSON
+	 * 주소 설계 : http://localhost:8080/account/transfer/bulk
+	 * {"wAccountNumber":"1111","password":"1234","items":[{"accountNumber":"2222","amount":100}, ...]}
+	 * @return 건별 처리 결과
+	 */
+	@PostMapping("/transfer/bulk")
+	@ResponseBody
+	public List<BulkTransferResultDTO> bulkTransferProc(@RequestBody BulkTransferDTO dto) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
+		}
 		
-		accountService.updateAccountTransfer(dto, principal.getId());
+		// 2. 유효성 검사 (건별 검사는 서비스에서 결과로 돌려준다)
+		checkBulkTransfer(dto);
 		
-		return "redirect:/account/list";
+		return bulkTransferService.transferAll(dto, principal.getId());
+	}
+	
+	/**
+	 * 대량 이체 (급여 이체) 요청 처리 - CSV 파일 업로드
+	 * 주소 설계 : http://localhost:8080/account/transfer/bulk/file
+	 * 파일 한 줄 : 입금계좌번호,금액
+	 * @return 건별 처리 결과
+	 */
+	@PostMapping("/transfer/bulk/file")
+	@ResponseBody
+	public List<BulkTransferResultDTO> bulkTransferFileProc(@RequestParam(name = "wAccountNumber") String wAccountNumber,
+			@RequestParam(name = "password") String password,
+			@RequestParam(name = "file") MultipartFile file) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
+		}
+		
+		// 2. 파일 파싱
+		if(file.isEmpty()) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		BulkTransferDTO dto;
+		try {
+			dto = new BulkTransferDTO(wAccountNumber, password, bulkTransferService.parseCsv(file.getInputStream()));
+		} catch (IOException e) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		
+		// 3. 유효성 검사
+		checkBulkTransfer(dto);
+		
+		return bulkTransferService.transferAll(dto, principal.getId());
 	}
 	
+	private void checkBulkTransfer(BulkTransferDTO dto) {
+		if(dto.getWAccountNumber()==null||dto.getWAccountNumber().isEmpty()) {
+			throw new DataDeliveryException(Define.ENTER_YOUR_ACCOUNT_NUMBER, HttpStatus.BAD_REQUEST);
+		}
+		if(dto.getPassword()==null||dto.getPassword().isEmpty()) {
+			throw new DataDeliveryException(Define.ENTER_YOUR_PASSWORD, HttpStatus.BAD_REQUEST);
+		}
+		if(dto.getItems()==null||dto.getItems().isEmpty()) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	/**
+	 * 계좌 상세 보기 - 거래 내역 (키셋 페이징)
+	 * 주소 설계 : http://localhost:8080/account/detail/1?type=all&cursor=...&size=20
+	 * @param type all(전체), withdrawal(출금), deposit(입금)
+	 * @param cursor 이전 페이지 응답의 다음 커서 (첫 페이지는 생략)
+	 * @return detail.jsp
+	 */
+	@GetMapping("/detail/{accountId}")
+	public String detailPage(@PathVariable(name = "accountId") Integer accountId,
+			@RequestParam(name = "type", required = false, defaultValue = "all") String type,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", required = false) Integer size,
+			Model model) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
+		}
+		
+		// 2. 서비스 호출 (유효성 검사 포함)
+		HistoryPageDTO historyPage = accountService.readHistoryListByAccountId(type, accountId, cursor, size, principal.getId());
+		model.addAttribute("historyPage", historyPage);
+		
+		return "account/detail";
+	}
+	
+	/**
+	 * 시점 잔액 조회 (일별 스냅샷 + 같은 날 원장 항목)
+	 * 주소 설계 : http://localhost:8080/account/detail/1/balance?at=2024-07-01T15:30:00
+	 * @param at 조회 시점 (생략하면 현재)
+	 */
+	@GetMapping("/detail/{accountId}/balance")
+	@ResponseBody
+	public BalanceAtDTO balanceAt(@PathVariable(name = "accountId") Integer accountId,
+			@RequestParam(name = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
+		}
+		
+		// 2. 본인 계좌 확인
+		Account account = accountService.readAccountByAccountId(accountId, principal.getId());
+		
+		// 3. 미래 시점은 조회하지 않는다.
+		LocalDateTime now = LocalDateTime.now();
+		if(at==null) {
+			at=now;
+		} else if(at.isAfter(now)) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		
+		return new BalanceAtDTO(account.getId(), account.getNumber(), at, balanceSnapshotService.balanceAt(account.getId(), at));
+	}
+	
+	/**
+	 * 거래 내역 내보내기 (감사용, 전체 내역)
+	 * 주소 설계 : http://localhost:8080/account/detail/1/export?format=csv
+	 * 응답 스트림에 한 행씩 바로 쓴다. (메모리에 모으지 않음)
+	 * @param format csv, ndjson
+	 */
+	@GetMapping("/detail/{accountId}/export")
+	public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable(name = "accountId") Integer accountId,
+			@RequestParam(name = "format", required = false, defaultValue = HistoryExportService.CSV) String format) {
+		// 1. 인증 검사
+		User principal=(User)request.getAttribute(Define.PRINCIPAL);
+		if(principal==null) {
+			throw new UnAuthorizedException(Define.NOT_AN_AUTHENTICATED_USER, HttpStatus.UNAUTHORIZED);
+		}
+		
+		// 2. 유효성 검사
+		if(!HistoryExportService.CSV.equals(format) && !HistoryExportService.NDJSON.equals(format)) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		
+		// 3. 본인 계좌 확인은 응답을 시작하기 전에 끝낸다.
+		Account account = accountService.readAccountByAccountId(accountId, principal.getId());
+		
+		MediaType contentType = HistoryExportService.CSV.equals(format)
+				? new MediaType("text", "csv", StandardCharsets.UTF_8)
+				: MediaType.APPLICATION_NDJSON;
+		StreamingResponseBody body = out -> historyExportService.exportHistory(account.getId(), format, out);
+		
+		return ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"history-" + account.getNumber() + "." + format + "\"")
+				.contentType(contentType)
+				.body(body);
+	}
 	
 }
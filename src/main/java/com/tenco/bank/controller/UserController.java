@@ -8,26 +8,28 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import com.tenco.bank.utils.Define;
+import com.tenco.bank.auth.PrincipalManager;
 import com.tenco.bank.dto.SignInDTO;
 import com.tenco.bank.dto.SignUpDTO;
 import com.tenco.bank.handler.exception.DataDeliveryException;
 import com.tenco.bank.repository.model.User;
 import com.tenco.bank.service.UserService;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller // IoC에 대상(싱글톤 패턴으로 관리됨) 
 @RequestMapping("/user") // 대문 처리 
 public class UserController {
 
 	private UserService userService;
-	private final HttpSession session;
+	private final PrincipalManager principalManager;
 	
 	// DI 처리 
 	@Autowired // 노란색 경고는 사용할 필요 없음 - 가독성 위해서 선언해도 됨
-	public UserController(UserService service, HttpSession session) {
+	public UserController(UserService service, PrincipalManager principalManager) {
 		this.userService = service;
-		this.session = session;
+		this.principalManager = principalManager;
 	}
 	
 	/**
@@ -88,7 +90,7 @@ public class UserController {
 	 * @return
 	 */
 	@PostMapping("/sign-in")
-	public String signProc(SignInDTO dto) {
+	public String signProc(SignInDTO dto, HttpServletRequest request, HttpServletResponse response) {
 		// 1. 인증 검사 x 
 		// 2. 유효성 검사 
 		
@@ -100,8 +102,8 @@ public class UserController {
 		}
 		// 서비스 호출 
 		User principal = userService.readUser(dto);
-		// 세션 메모리에 등록 처리 
-		session.setAttribute(Define.PRINCIPAL, principal);
+		// 로그인 상태 저장 (bank.auth.mode - SESSION : 세션 메모리, TOKEN : 서명 토큰 쿠키)
+		principalManager.signIn(principal, request, response);
 		// 새로운 페이지로 이동 처리 
 		// TODO - 계좌 목록 페이지 이동처리 예정 
 		return "redirect:/index"; 
@@ -109,8 +111,8 @@ public class UserController {
 	
 	// 코드 추가 
 	@GetMapping("/logout")
-	public String logout() {
-		session.invalidate(); // 로그아웃 됨 
+	public String logout(HttpServletRequest request, HttpServletResponse response) {
+		principalManager.signOut(request, response); // 로그아웃 됨 
 		return "redirect:/user/sign-in";
 	}
 	
@@ -0,0 +1,40 @@
+package com.tenco.bank.dto;
+
+import java.sql.Timestamp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.tenco.bank.repository.model.PendingTransfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 비동기 이체 접수/상태 응답
+@Data
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AsyncTransferDTO {
+
+	private Long id; // 접수 ID (상태 조회 주소에 사용)
+	private String status; // PENDING, DONE, FAILED (엔진 모드 : PROCESSING, UNKNOWN)
+	private String message; // 실패 사유 (Define 메세지)
+	// getWAccountNumber() 의 JSON 기본 이름은 waccountNumber 이므로 이름을 고정한다.
+	@JsonProperty("wAccountNumber")
+	private String wAccountNumber;
+	@JsonProperty("dAccountNumber")
+	private String dAccountNumber;
+	private Long amount;
+	private Timestamp createdAt;
+	private Timestamp updatedAt;
+
+	public static AsyncTransferDTO from(PendingTransfer pending) {
+		return new AsyncTransferDTO(pending.getId(), pending.getStatus(), pending.getMessage(),
+				pending.getWAccountNumber(), pending.getDAccountNumber(), pending.getAmount(),
+				pending.getCreatedAt(), pending.getUpdatedAt());
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.tenco.bank.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 시점 잔액 조회 결과
+@Data
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceAtDTO {
+
+	private Integer accountId;
+	private String number; // 계좌 번호
+	private LocalDateTime at; // 조회 시점
+	private Long balance; // 조회 시점 잔액
+
+}
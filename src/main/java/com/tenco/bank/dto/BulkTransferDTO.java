@@ -0,0 +1,27 @@
+package com.tenco.bank.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 대량 이체 (급여 이체) 요청 - 출금 계좌 1개 --> 입금 계좌 여러 개
+@Data
+@Builder
+@ToString(exclude = "password")
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferDTO {
+
+	// getWAccountNumber() 의 JSON 기본 이름은 waccountNumber 이므로 이름을 고정한다.
+	@JsonProperty("wAccountNumber")
+	private String wAccountNumber; // 출금 계좌
+	private String password; // 출금 계좌 비밀 번호
+	private List<BulkTransferItemDTO> items; // 입금 계좌, 금액 목록
+
+}
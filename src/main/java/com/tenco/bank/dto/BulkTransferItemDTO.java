@@ -0,0 +1,20 @@
+package com.tenco.bank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 대량 이체 한 건 (입금 계좌, 금액)
+@Data
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferItemDTO {
+
+	private String accountNumber; // 입금 계좌
+	private Long amount; // 이체 금액
+
+}
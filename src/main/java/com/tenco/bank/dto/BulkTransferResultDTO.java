@@ -0,0 +1,31 @@
+package com.tenco.bank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 대량 이체 건별 처리 결과
+@Data
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferResultDTO {
+
+	private int index; // 요청 목록에서의 순서 (0 부터)
+	private String accountNumber;
+	private Long amount;
+	private boolean success;
+	private String message; // 실패 사유 (Define 메세지)
+
+	public static BulkTransferResultDTO success(int index, BulkTransferItemDTO item) {
+		return new BulkTransferResultDTO(index, item.getAccountNumber(), item.getAmount(), true, null);
+	}
+
+	public static BulkTransferResultDTO fail(int index, BulkTransferItemDTO item, String message) {
+		return new BulkTransferResultDTO(index, item.getAccountNumber(), item.getAmount(), false, message);
+	}
+
+}
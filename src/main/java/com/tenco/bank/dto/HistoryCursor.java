@@ -0,0 +1,55 @@
+package com.tenco.bank.dto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.http.HttpStatus;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.model.History;
+import com.tenco.bank.utils.Define;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 거래내역 키셋 페이징 커서 - 마지막으로 본 행의 (created_at, id)
+// 문자열 형식 : 2024-07-01T10:15:30.123456_42
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class HistoryCursor {
+
+	private Timestamp createdAt;
+	private Integer id;
+
+	public static HistoryCursor of(History history) {
+		return new HistoryCursor(history.getCreatedAt(), history.getId());
+	}
+
+	public String encode() {
+		return createdAt.toLocalDateTime() + "_" + id;
+	}
+
+	// null 또는 빈 문자열이면 첫 페이지 (null 반환)
+	public static HistoryCursor decode(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		int separator = cursor.lastIndexOf('_');
+		if (separator < 0) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		try {
+			LocalDateTime createdAt = LocalDateTime.parse(cursor.substring(0, separator));
+			Integer id = Integer.valueOf(cursor.substring(separator + 1));
+			return new HistoryCursor(Timestamp.valueOf(createdAt), id);
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+	}
+
+}
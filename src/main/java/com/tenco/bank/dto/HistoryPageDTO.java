@@ -0,0 +1,32 @@
+package com.tenco.bank.dto;
+
+import java.util.List;
+
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.History;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 계좌별 거래내역 한 페이지
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class HistoryPageDTO {
+
+	private Account account;
+	private String type; // all, withdrawal, deposit
+	private int size; // 페이지 크기 (다음 페이지 링크에 그대로 넘긴다)
+	private List<History> historyList;
+	private String nextCursor; // 다음 페이지 커서 (마지막 페이지면 null)
+
+	public boolean isHasNext() {
+		return nextCursor != null;
+	}
+
+}
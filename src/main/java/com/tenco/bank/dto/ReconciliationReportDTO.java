@@ -0,0 +1,27 @@
+package com.tenco.bank.dto;
+
+import java.util.List;
+
+import com.tenco.bank.repository.model.BalanceMismatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 잔액 대사 결과
+@Data
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationReportDTO {
+
+	private int maxAccountId; // 검사한 계좌 id 범위 (1 ~ maxAccountId)
+	private int ranges; // 나눠서 검사한 id 범위 수
+	private int parallelism; // 동시에 검사한 범위 수
+	private long elapsedMillis;
+	private List<BalanceMismatch> mismatches; // 다시 확인해도 다른 계좌
+
+}
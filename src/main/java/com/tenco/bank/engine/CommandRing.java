@@ -0,0 +1,67 @@
+package com.tenco.bank.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 잠금 없는 고정 크기 링 버퍼 (생산자 여럿, 소비자 하나)
+ *
+ * - 생산자 : tail 을 CAS 로 한 칸 차지한 뒤 그 칸에 명령을 넣는다. (release 저장)
+ * - 소비자 : head 칸에 명령이 보이면(acquire 읽기) 꺼내고 칸을 비운 뒤 head 를 넘긴다.
+ * - 칸을 차지한 생산자가 아직 명령을 넣지 않았으면 소비자는 그 칸에서 기다린다. (순서 유지)
+ */
+final class CommandRing<T> {
+
+	private final AtomicReferenceArray<T> slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head; // 소비자만 변경
+
+	CommandRing(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return false : 가득 참
+	 */
+	boolean offer(T command) {
+		while (true) {
+			long claimed = tail.get();
+			if (claimed - head >= slots.length()) {
+				return false;
+			}
+			if (tail.compareAndSet(claimed, claimed + 1)) {
+				slots.setRelease((int) claimed & mask, command);
+				return true;
+			}
+		}
+	}
+
+	// 소비자 스레드 전용
+	T poll() {
+		long current = head;
+		int index = (int) current & mask;
+		T command = slots.getAcquire(index);
+		if (command == null) {
+			return null;
+		}
+		slots.setPlain(index, null);
+		head = current + 1;
+		return command;
+	}
+
+	boolean isEmpty() {
+		return tail.get() == head;
+	}
+
+	int size() {
+		return (int) (tail.get() - head);
+	}
+
+	int capacity() {
+		return slots.length();
+	}
+
+}
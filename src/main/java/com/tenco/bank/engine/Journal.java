@@ -0,0 +1,231 @@
+package com.tenco.bank.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 파티션 하나의 추가 전용 저널 (메모리 매핑 파일)
+ *
+ * - 세그먼트 파일 이름은 첫 레코드 순번 (00000000000000000001.journal), 크기는 고정이다.
+ * - 레코드는 64 바이트 고정. magic 을 마지막에 써서 쓰다 만 레코드는 재생 시 끝으로 본다.
+ * - append 는 기록 스레드 하나만 호출한다. read 는 다른 스레드(DB 동기화)가 호출해도 된다.
+ *   (절대 위치 읽기만 사용, 읽는 쪽은 기록 스레드가 발행한 순번까지만 읽는다)
+ * - force=false 이면 매핑된 페이지에 쓰는 것까지만 한다. (프로세스 종료에는 안전, OS 장애 시 유실 가능)
+ */
+final class Journal implements Closeable {
+
+	static final int RECORD_SIZE = 64;
+	private static final int MAGIC = 0x4A524E4C; // "JRNL"
+	private static final String SUFFIX = ".journal";
+
+	private final Path directory;
+	private final int recordsPerSegment;
+	private final boolean force;
+	private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+	private volatile Segment active;
+	private long nextSeq;
+
+	private record Segment(long firstSeq, Path path, FileChannel channel, MappedByteBuffer buffer) {
+		int offset(long seq) {
+			return (int) (seq - firstSeq) * RECORD_SIZE;
+		}
+	}
+
+	private Journal(Path directory, long segmentBytes, boolean force) {
+		this.directory = directory;
+		this.recordsPerSegment = (int) Math.max(1, Math.min(segmentBytes, Integer.MAX_VALUE) / RECORD_SIZE);
+		this.force = force;
+	}
+
+	/**
+	 * 저널을 열고 afterSeq 이후 레코드를 순서대로 재생한다.
+	 * @param afterSeq 이미 반영된(DB 동기화된) 마지막 순번
+	 */
+	static Journal open(Path directory, long segmentBytes, boolean force, long afterSeq,
+			Consumer<JournalRecord> replay) throws IOException {
+		Files.createDirectories(directory);
+		Journal journal = new Journal(directory, segmentBytes, force);
+		List<Path> files;
+		try (Stream<Path> list = Files.list(directory)) {
+			files = list.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+		}
+		for (Path path : files) {
+			String name = path.getFileName().toString();
+			journal.map(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), path);
+		}
+		long last = journal.replay(afterSeq, replay);
+		if (last < afterSeq) {
+			// 남은 레코드가 모두 DB 에 반영된 것뿐 (세그먼트 삭제 전 종료 등) - 버리고 afterSeq 다음부터 새로 쓴다.
+			journal.deleteAll();
+		}
+		journal.nextSeq = Math.max(last, afterSeq) + 1;
+		if (journal.active == null || journal.nextSeq - journal.active.firstSeq() >= journal.recordsPerSegment) {
+			journal.roll();
+		}
+		return journal;
+	}
+
+	private Segment map(long firstSeq, Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+		Segment segment = new Segment(firstSeq, path, channel, buffer);
+		segments.put(firstSeq, segment);
+		active = segment;
+		return segment;
+	}
+
+	// 빈틈 없이 이어지는 레코드만 재생 - 마지막 유효 순번 반환 (없으면 0)
+	private long replay(long afterSeq, Consumer<JournalRecord> consumer) {
+		long last = 0;
+		for (Segment segment : segments.values()) {
+			if (last != 0 && segment.firstSeq() != last + 1) {
+				break;
+			}
+			for (int i = 0; i < recordsPerSegment; i++) {
+				long seq = segment.firstSeq() + i;
+				int offset = segment.offset(seq);
+				if (segment.buffer().getInt(offset + 60) != MAGIC || segment.buffer().getLong(offset) != seq) {
+					return last;
+				}
+				last = seq;
+				if (seq > afterSeq) {
+					consumer.accept(read(segment, seq));
+				}
+			}
+		}
+		return last;
+	}
+
+	long nextSeq() {
+		return nextSeq;
+	}
+
+	long lastSeq() {
+		return nextSeq - 1;
+	}
+
+	/**
+	 * 레코드 추가 (기록 스레드 전용) - record 에 순번을 채워서 반환
+	 */
+	long append(JournalRecord record) {
+		if (nextSeq - active.firstSeq() >= recordsPerSegment) {
+			flush();
+			roll();
+		}
+		long seq = nextSeq++;
+		record.setSeq(seq);
+		MappedByteBuffer buffer = active.buffer();
+		int offset = active.offset(seq);
+		buffer.putLong(offset, seq);
+		buffer.putInt(offset + 8, record.getType());
+		buffer.putInt(offset + 12, record.getAccountId());
+		buffer.putInt(offset + 16, record.getCounterAccountId());
+		buffer.putLong(offset + 20, record.getAmount());
+		buffer.putLong(offset + 28, record.getBalanceAfter());
+		buffer.putLong(offset + 36, record.getCounterBalance());
+		buffer.putLong(offset + 44, record.getTransferId());
+		buffer.putLong(offset + 52, record.getTimestamp());
+		buffer.putInt(offset + 60, MAGIC);
+		return seq;
+	}
+
+	// 기록 스레드 전용 - 응답 전에 호출
+	void flush() {
+		if (force) {
+			active.buffer().force();
+		}
+	}
+
+	JournalRecord read(long seq) {
+		Map.Entry<Long, Segment> entry = segments.floorEntry(seq);
+		if (entry == null) {
+			throw new IllegalStateException("journal record " + seq + " was deleted");
+		}
+		return read(entry.getValue(), seq);
+	}
+
+	private JournalRecord read(Segment segment, long seq) {
+		MappedByteBuffer buffer = segment.buffer();
+		int offset = segment.offset(seq);
+		JournalRecord record = new JournalRecord();
+		record.setSeq(buffer.getLong(offset));
+		record.setType(buffer.getInt(offset + 8));
+		record.setAccountId(buffer.getInt(offset + 12));
+		record.setCounterAccountId(buffer.getInt(offset + 16));
+		record.setAmount(buffer.getLong(offset + 20));
+		record.setBalanceAfter(buffer.getLong(offset + 28));
+		record.setCounterBalance(buffer.getLong(offset + 36));
+		record.setTransferId(buffer.getLong(offset + 44));
+		record.setTimestamp(buffer.getLong(offset + 52));
+		return record;
+	}
+
+	/**
+	 * seq 까지 DB 에 반영된 뒤 호출 - 모든 레코드가 seq 이하인 세그먼트 파일 삭제 (현재 세그먼트 제외)
+	 */
+	void deleteThrough(long seq) {
+		List<Segment> deletable = new ArrayList<>();
+		Segment previous = null;
+		for (Segment segment : segments.values()) {
+			if (previous != null && segment.firstSeq() - 1 <= seq) {
+				deletable.add(previous);
+			}
+			previous = segment;
+		}
+		for (Segment segment : deletable) {
+			if (segment == active) {
+				continue;
+			}
+			segments.remove(segment.firstSeq());
+			try {
+				segment.channel().close();
+				Files.deleteIfExists(segment.path());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private void deleteAll() throws IOException {
+		for (Segment segment : segments.values()) {
+			segment.channel().close();
+			Files.deleteIfExists(segment.path());
+		}
+		segments.clear();
+		active = null;
+	}
+
+	int segmentCount() {
+		return segments.size();
+	}
+
+	private void roll() {
+		try {
+			map(nextSeq, directory.resolve(String.format("%020d%s", nextSeq, SUFFIX)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		for (Segment segment : segments.values()) {
+			segment.channel().close();
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.tenco.bank.engine;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 저널 레코드 한 건 (고정 64 바이트)
+ * 모든 종류가 같은 모양이며 종류에 따라 쓰지 않는 필드는 0 이다.
+ */
+@Data
+@NoArgsConstructor
+public class JournalRecord {
+
+	public static final int WITHDRAW = 1; // accountId 출금
+	public static final int DEPOSIT = 2; // accountId 입금
+	public static final int DEBIT = 3; // 이체 출금쪽 (accountId --> counterAccountId, transferId)
+	public static final int CREDIT = 4; // 이체 입금쪽 (counterBalance : 출금 계좌의 출금 후 잔액)
+
+	private long seq; // 파티션 안의 순번 (1 부터, 빈틈 없음)
+	private int type;
+	private int accountId;
+	private int counterAccountId;
+	private long amount;
+	private long balanceAfter; // 적용 후 accountId 잔액
+	private long counterBalance;
+	private long transferId;
+	private long timestamp; // epoch millis
+
+	public JournalRecord(int type, int accountId, int counterAccountId, long amount, long balanceAfter,
+			long counterBalance, long transferId) {
+		this.type = type;
+		this.accountId = accountId;
+		this.counterAccountId = counterAccountId;
+		this.amount = amount;
+		this.balanceAfter = balanceAfter;
+		this.counterBalance = counterBalance;
+		this.transferId = transferId;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+}
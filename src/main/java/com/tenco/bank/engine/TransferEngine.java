@@ -0,0 +1,632 @@
+package com.tenco.bank.engine;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.cache.CachingAccountRepository;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.interfaces.EngineRepository;
+import com.tenco.bank.repository.interfaces.HistoryRepository;
+import com.tenco.bank.repository.interfaces.LedgerRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.EngineTransfer;
+import com.tenco.bank.repository.model.History;
+import com.tenco.bank.repository.model.LedgerEntry;
+import com.tenco.bank.utils.Define;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 단일 기록자 이체 엔진 (bank.engine.enabled=true 일 때만 사용)
+ *
+ * - 계좌는 id mod partitions 로 파티션에 속한다. 파티션마다 기록 스레드 1개가 그 파티션 계좌의
+ *   잔액(long 배열, 인덱스 = id / partitions)을 혼자 바꾼다. --> 잔액에 잠금이 없다.
+ * - 요청 스레드는 잠금 없는 링 버퍼에 명령을 넣고 결과를 기다린다.
+ * - 기록 스레드는 명령을 적용하고 저널(메모리 매핑 파일)에 쓴 뒤 응답한다. (여러 건을 모아서 flush)
+ * - 파티션을 넘는 이체 : 출금 파티션이 DEBIT 을 저널에 쓰고 응답한 뒤, 입금 파티션으로 CREDIT 을 넘긴다.
+ *   (입금쪽 반영 전 잠깐 동안은 돈이 이동 중인 상태)
+ *   입금쪽 반영이 실패하면(잔액 overflow, 계좌 적재 실패 등) credit-retry-interval-ms 마다 다시 보내고,
+ *   그동안 bank.engine.credits.failed 지표에 남는다.
+ * - 응답 시간 초과는 명령이 나중에 적용될 수 있으므로 RESULT_UNKNOWN 으로 응답한다.
+ *   그 밖의 오류 (업무 오류, 대기열 가득 참 등) 는 적용되지 않은 명령이다. 호출하는 쪽은 RESULT_UNKNOWN 을 다시 보내면 안 된다.
+ *   (IdempotencyService 는 이 결과를 저장하고, AsyncTransferService 는 UNKNOWN 으로 두고 다시 보내지 않는다)
+ * - 기록 스레드는 할 일이 없으면 잠깐 spin 후 park 한다. 명령/입금을 넣는 쪽이 unpark 한다.
+ * - DB 동기화 스레드가 저널을 읽어 account_tb, history_tb, ledger_entry_tb 를 batch 로 갱신하고
+ *   같은 트랜잭션에서 반영 순번(engine_sync_tb)을 기록한다. 반영된 세그먼트 파일은 지운다.
+ * - 재기동 : DB 잔액을 읽은 뒤 반영 순번 이후의 저널을 재생하고,
+ *   DEBIT 만 있고 CREDIT 이 없는 이체는 입금쪽을 다시 보낸다.
+ * - 한 계좌의 모든 변경은 그 계좌 파티션 저널에 순서대로 있으므로 DB 에도 같은 순서로 반영된다.
+ * - 여러 노드에서 같은 DB 로 동시에 켜면 안 된다. (단일 노드 전용)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.engine.enabled", havingValue = "true")
+public class TransferEngine implements InitializingBean, DisposableBean {
+
+	private static final long UNKNOWN = Long.MIN_VALUE; // 아직 적재하지 않은 계좌
+	private static final VarHandle BALANCE = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final int MAX_PUBLISH_BATCH = 512;
+	private static final int IDLE_SPINS = 100;
+
+	private final EngineRepository engineRepository;
+	private final AccountRepository accountRepository;
+	private final SqlSessionTemplate batchSqlSession;
+	private final TransactionTemplate transactionTemplate;
+	private final Path journalDirectory;
+	private final long segmentBytes;
+	private final boolean forceJournal;
+	private final int syncBatchSize;
+	private final long syncIntervalMillis;
+	private final long timeoutMillis;
+	private final Partition[] partitions;
+	// 입금쪽 반영에 실패한 CREDIT - 주기적으로 다시 보낸다.
+	private final ConcurrentLinkedQueue<Command> failedCredits = new ConcurrentLinkedQueue<>();
+	private volatile boolean running;
+
+	public TransferEngine(EngineRepository engineRepository, AccountRepository accountRepository,
+			SqlSessionFactory sqlSessionFactory, PlatformTransactionManager transactionManager,
+			@Value("${bank.engine.partitions:4}") int partitions,
+			@Value("${bank.engine.ring-size:65536}") int ringSize,
+			@Value("${bank.engine.journal.dir:data/journal}") String journalDirectory,
+			@Value("${bank.engine.journal.segment-size-mb:64}") long segmentSizeMb,
+			@Value("${bank.engine.journal.force:false}") boolean forceJournal,
+			@Value("${bank.engine.sync.batch-size:1000}") int syncBatchSize,
+			@Value("${bank.engine.sync.interval-ms:10}") long syncIntervalMillis,
+			@Value("${bank.engine.timeout-ms:3000}") long timeoutMillis) {
+		this.engineRepository = engineRepository;
+		this.accountRepository = accountRepository;
+		this.batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.journalDirectory = Path.of(journalDirectory);
+		this.segmentBytes = segmentSizeMb * 1024 * 1024;
+		this.forceJournal = forceJournal;
+		this.syncBatchSize = syncBatchSize;
+		this.syncIntervalMillis = syncIntervalMillis;
+		this.timeoutMillis = timeoutMillis;
+		this.partitions = new Partition[partitions];
+		for (int i = 0; i < partitions; i++) {
+			this.partitions[i] = new Partition(i, ringSize);
+		}
+	}
+
+	/**
+	 * 출금 - 저널 기록 후 반환
+	 * @return 출금 후 잔액
+	 */
+	public long withdraw(Integer accountId, long amount) {
+		return submit(new Command(JournalRecord.WITHDRAW, accountId, 0, amount));
+	}
+
+	/**
+	 * 입금
+	 * @return 입금 후 잔액
+	 */
+	public long deposit(Integer accountId, long amount) {
+		return submit(new Command(JournalRecord.DEPOSIT, accountId, 0, amount));
+	}
+
+	/**
+	 * 이체 - 출금쪽 저널 기록 후 반환 (입금쪽은 곧이어 입금 계좌 파티션에서 반영)
+	 * @return 출금 후 출금 계좌 잔액
+	 */
+	public long transfer(Integer fromAccountId, Integer toAccountId, long amount) {
+		return submit(new Command(JournalRecord.DEBIT, fromAccountId, toAccountId, amount));
+	}
+
+	/**
+	 * 엔진 기준 현재 잔액 (아직 적재하지 않은 계좌면 null)
+	 */
+	public Long balanceOf(Integer accountId) {
+		return partitionOf(accountId).read(accountId);
+	}
+
+	private long submit(Command command) {
+		Partition partition = partitionOf(command.accountId);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		while (!partition.ring.offer(command)) {
+			// 링이 가득 참 - 기록 스레드가 비울 때까지 잠깐씩 대기
+			if (!running || System.nanoTime() > deadline) {
+				throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			LockSupport.parkNanos(10_000);
+		}
+		LockSupport.unpark(partition.writer);
+		// 여기부터는 링에 들어간 명령 - 응답을 못 받아도 이후 적용될 수 있다. (결과는 잔액/내역으로 확인)
+		try {
+			return command.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof DataDeliveryException cause) {
+				throw cause;
+			}
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataDeliveryException(Define.RESULT_UNKNOWN, HttpStatus.SERVICE_UNAVAILABLE);
+		} catch (TimeoutException e) {
+			throw new DataDeliveryException(Define.RESULT_UNKNOWN, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+
+	private Partition partitionOf(int accountId) {
+		return partitions[Math.floorMod(accountId, partitions.length)];
+	}
+
+	private static final class Command {
+		final int type;
+		final int accountId;
+		final int counterAccountId;
+		final long amount;
+		long counterBalance; // CREDIT : 출금 후 출금 계좌 잔액
+		long transferId; // CREDIT
+		long value; // 응답할 잔액
+		final CompletableFuture<Long> result;
+
+		Command(int type, int accountId, int counterAccountId, long amount) {
+			this.type = type;
+			this.accountId = accountId;
+			this.counterAccountId = counterAccountId;
+			this.amount = amount;
+			this.result = type == JournalRecord.CREDIT ? null : new CompletableFuture<>();
+		}
+
+		static Command credit(int toAccountId, int fromAccountId, long amount, long fromBalance, long transferId) {
+			Command command = new Command(JournalRecord.CREDIT, toAccountId, fromAccountId, amount);
+			command.counterBalance = fromBalance;
+			command.transferId = transferId;
+			return command;
+		}
+	}
+
+	private final class Partition {
+		final int index;
+		final CommandRing<Command> ring;
+		// 다른 파티션에서 넘어온 입금 - 가득 차서 기록 스레드끼리 서로 기다리는 일이 없도록 크기 제한 없음
+		final ConcurrentLinkedQueue<Command> credits = new ConcurrentLinkedQueue<>();
+		volatile long[] balances = new long[0];
+		Journal journal;
+		volatile long journaledSeq; // 응답/동기화 가능한 마지막 순번 (기록 스레드가 발행)
+		volatile long syncedSeq; // DB 반영 완료 순번
+		Thread writer;
+		Thread syncer;
+
+		// 기록 스레드 전용
+		private final List<Command> acked = new ArrayList<>();
+		private final List<Command> forwards = new ArrayList<>();
+		private boolean dirty;
+
+		Partition(int index, int ringSize) {
+			this.index = index;
+			this.ring = new CommandRing<>(ringSize);
+		}
+
+		// ---- 잔액 배열 (쓰기는 기록 스레드, 시작 전 적재 단계에서만) ----
+
+		void store(int accountId, long balance) {
+			int slot = accountId / partitions.length;
+			long[] current = balances;
+			if (slot >= current.length) {
+				long[] grown = Arrays.copyOf(current, Math.max(slot + 1, current.length * 2));
+				Arrays.fill(grown, current.length, grown.length, UNKNOWN);
+				balances = grown;
+				current = grown;
+			}
+			BALANCE.setRelease(current, slot, balance);
+		}
+
+		Long read(int accountId) {
+			int slot = accountId / partitions.length;
+			long[] current = balances;
+			if (slot >= current.length) {
+				return null;
+			}
+			long balance = (long) BALANCE.getAcquire(current, slot);
+			return balance == UNKNOWN ? null : balance;
+		}
+
+		// 엔진 시작 후 생성된 계좌는 처음 쓸 때 DB 에서 적재 (아직 엔진 변경이 없으므로 DB 잔액이 정확)
+		long balance(int accountId) {
+			Long balance = read(accountId);
+			if (balance == null) {
+				balance = accountRepository.findBalanceById(accountId);
+				if (balance == null) {
+					throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+				}
+				store(accountId, balance);
+			}
+			return balance;
+		}
+
+		// ---- 기록 스레드 ----
+
+		void writeLoop() {
+			int idle = 0;
+			while (true) {
+				Command command = credits.poll();
+				if (command == null) {
+					command = ring.poll();
+				}
+				if (command != null) {
+					idle = 0;
+					apply(command);
+					if (acked.size() >= MAX_PUBLISH_BATCH) {
+						publish();
+					}
+					continue;
+				}
+				if (dirty) {
+					publish();
+					continue;
+				}
+				if (!running) {
+					return;
+				}
+				if (++idle < IDLE_SPINS) {
+					Thread.onSpinWait();
+				} else {
+					// submit, enqueueCredit, destroy 가 unpark 한다. (먼저 unpark 되었으면 바로 반환)
+					LockSupport.park(this);
+				}
+			}
+		}
+
+		private void apply(Command command) {
+			try {
+				long balance = balance(command.accountId);
+				switch (command.type) {
+				case JournalRecord.WITHDRAW -> {
+					long after = debit(balance, command.amount);
+					append(new JournalRecord(JournalRecord.WITHDRAW, command.accountId, 0, command.amount, after, 0, 0));
+					store(command.accountId, after);
+					command.value = after;
+					acked.add(command);
+				}
+				case JournalRecord.DEPOSIT -> {
+					long after = Math.addExact(balance, command.amount);
+					append(new JournalRecord(JournalRecord.DEPOSIT, command.accountId, 0, command.amount, after, 0, 0));
+					store(command.accountId, after);
+					command.value = after;
+					acked.add(command);
+				}
+				case JournalRecord.DEBIT -> {
+					long after = debit(balance, command.amount);
+					long transferId = ((long) index << 48) | journal.nextSeq();
+					append(new JournalRecord(JournalRecord.DEBIT, command.accountId, command.counterAccountId,
+							command.amount, after, 0, transferId));
+					store(command.accountId, after);
+					command.value = after;
+					acked.add(command);
+					forwards.add(Command.credit(command.counterAccountId, command.accountId, command.amount, after,
+							transferId));
+				}
+				case JournalRecord.CREDIT -> {
+					long after = Math.addExact(balance, command.amount);
+					append(new JournalRecord(JournalRecord.CREDIT, command.accountId, command.counterAccountId,
+							command.amount, after, command.counterBalance, command.transferId));
+					store(command.accountId, after);
+				}
+				default -> throw new IllegalStateException("unknown command " + command.type);
+				}
+			} catch (RuntimeException e) {
+				// 저널 기록 후에 잔액을 바꾸므로 여기서는 잔액이 바뀌지 않은 상태
+				if (command.result == null) {
+					// 입금쪽 반영 실패 - 출금은 이미 응답했으므로 버리지 않고 다시 보낸다. (retryFailedCredits)
+					log.error("engine credit {} to account {} failed", command.transferId, command.accountId, e);
+					failedCredits.add(command);
+				} else {
+					command.result.completeExceptionally(e instanceof ArithmeticException
+							? new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST)
+							: e);
+				}
+			}
+		}
+
+		private long debit(long balance, long amount) {
+			if (balance < amount) {
+				throw new DataDeliveryException(Define.LACK_Of_BALANCE, HttpStatus.BAD_REQUEST);
+			}
+			return balance - amount;
+		}
+
+		private void append(JournalRecord record) {
+			journal.append(record);
+			dirty = true;
+		}
+
+		// 저널 flush 후 응답, 입금쪽 전달
+		private void publish() {
+			journal.flush();
+			journaledSeq = journal.lastSeq();
+			dirty = false;
+			for (Command command : acked) {
+				command.result.complete(command.value);
+			}
+			acked.clear();
+			for (Command credit : forwards) {
+				partitionOf(credit.accountId).enqueueCredit(credit);
+			}
+			forwards.clear();
+		}
+
+		void enqueueCredit(Command credit) {
+			credits.add(credit);
+			LockSupport.unpark(writer);
+		}
+
+		// ---- DB 동기화 스레드 ----
+
+		void syncLoop() {
+			while (running || syncedSeq < journaledSeq) {
+				long target = journaledSeq;
+				if (syncedSeq >= target) {
+					pause(syncIntervalMillis);
+					continue;
+				}
+				long to = Math.min(target, syncedSeq + syncBatchSize);
+				try {
+					sync(syncedSeq + 1, to);
+					syncedSeq = to;
+					journal.deleteThrough(to);
+				} catch (RuntimeException e) {
+					log.error("engine partition {} failed to sync journal {}..{}", index, syncedSeq + 1, to, e);
+					if (!running) {
+						return;
+					}
+					pause(1000);
+				}
+			}
+		}
+
+		private void sync(long from, long to) {
+			List<JournalRecord> records = new ArrayList<>((int) (to - from + 1));
+			for (long seq = from; seq <= to; seq++) {
+				records.add(journal.read(seq));
+			}
+			Set<Integer> touched = new HashSet<>();
+			transactionTemplate.executeWithoutResult(status -> {
+				AccountRepository accounts = batchSqlSession.getMapper(AccountRepository.class);
+				HistoryRepository histories = batchSqlSession.getMapper(HistoryRepository.class);
+				LedgerRepository ledger = batchSqlSession.getMapper(LedgerRepository.class);
+				EngineRepository engine = batchSqlSession.getMapper(EngineRepository.class);
+				for (JournalRecord record : records) {
+					touched.add(record.getAccountId());
+					syncRecord(record, accounts, histories, ledger, engine);
+				}
+				engine.updateSyncPosition(index, to);
+				for (BatchResult batchResult : batchSqlSession.flushStatements()) {
+					for (int updateCount : batchResult.getUpdateCounts()) {
+						if (updateCount == 0) {
+							throw new IllegalStateException("engine sync statement changed no rows: " + batchResult.getSql());
+						}
+					}
+				}
+			});
+			// BATCH 매퍼는 계좌 캐시를 거치지 않으므로 직접 무효화
+			if (accountRepository instanceof CachingAccountRepository cache) {
+				touched.forEach(cache::evictBalance);
+			}
+		}
+
+		private void syncRecord(JournalRecord record, AccountRepository accounts, HistoryRepository histories,
+				LedgerRepository ledger, EngineRepository engine) {
+			int accountId = record.getAccountId();
+			long amount = record.getAmount();
+			switch (record.getType()) {
+			case JournalRecord.WITHDRAW -> {
+				accounts.updateBalanceWithdraw(accountId, amount);
+				histories.insert(History.builder().amount(amount).wBalance(record.getBalanceAfter())
+						.wAccountId(accountId).build());
+				String movementId = "engine-" + index + "-" + record.getSeq();
+				ledger.insertEntry(entry(movementId, accountId, LedgerEntry.DEBIT, amount));
+				ledger.insertEntry(entry(movementId, null, LedgerEntry.CREDIT, amount));
+			}
+			case JournalRecord.DEPOSIT -> {
+				accounts.updateBalanceDeposit(accountId, amount);
+				histories.insert(History.builder().amount(amount).dBalance(record.getBalanceAfter())
+						.dAccountId(accountId).build());
+				String movementId = "engine-" + index + "-" + record.getSeq();
+				ledger.insertEntry(entry(movementId, null, LedgerEntry.DEBIT, amount));
+				ledger.insertEntry(entry(movementId, accountId, LedgerEntry.CREDIT, amount));
+			}
+			case JournalRecord.DEBIT -> {
+				accounts.updateBalanceWithdraw(accountId, amount);
+				ledger.insertEntry(entry("transfer-" + record.getTransferId(), accountId, LedgerEntry.DEBIT, amount));
+				engine.insertTransfer(new EngineTransfer(record.getTransferId(), EngineTransfer.DEBIT, accountId,
+						record.getCounterAccountId(), amount, record.getBalanceAfter()));
+			}
+			case JournalRecord.CREDIT -> {
+				accounts.updateBalanceDeposit(accountId, amount);
+				// 거래 내역은 양쪽 잔액을 모두 아는 입금쪽에서 1건
+				histories.insert(History.builder().amount(amount)
+						.wBalance(record.getCounterBalance()).wAccountId(record.getCounterAccountId())
+						.dBalance(record.getBalanceAfter()).dAccountId(accountId).build());
+				ledger.insertEntry(entry("transfer-" + record.getTransferId(), accountId, LedgerEntry.CREDIT, amount));
+				engine.insertTransfer(new EngineTransfer(record.getTransferId(), EngineTransfer.CREDIT,
+						record.getCounterAccountId(), accountId, amount, record.getCounterBalance()));
+			}
+			default -> throw new IllegalStateException("unknown journal record " + record.getType());
+			}
+		}
+
+		private void pause(long millis) {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static LedgerEntry entry(String movementId, Integer accountId, String direction, long amount) {
+		return LedgerEntry.builder().movementId(movementId).accountId(accountId).direction(direction).amount(amount)
+				.build();
+	}
+
+	/**
+	 * 시작 : DB 잔액 적재 --> 파티션별 저널 재생 --> 입금쪽이 빠진 이체 다시 보내기 --> 스레드 시작
+	 */
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		for (Account account : engineRepository.findAllBalances()) {
+			partitionOf(account.getId()).store(account.getId(), account.getBalance());
+		}
+
+		Map<Long, JournalRecord> replayedDebits = new HashMap<>();
+		Set<Long> replayedCredits = new HashSet<>();
+		for (Partition partition : partitions) {
+			Long position = engineRepository.findSyncPosition(partition.index);
+			if (position == null) {
+				engineRepository.insertSyncPosition(partition.index);
+				position = 0L;
+			}
+			partition.journal = Journal.open(journalDirectory.resolve("partition-" + partition.index), segmentBytes,
+					forceJournal, position, record -> {
+						partitionOf(record.getAccountId()).store(record.getAccountId(), record.getBalanceAfter());
+						if (record.getType() == JournalRecord.DEBIT) {
+							replayedDebits.put(record.getTransferId(), record);
+						} else if (record.getType() == JournalRecord.CREDIT) {
+							replayedCredits.add(record.getTransferId());
+						}
+					});
+			partition.syncedSeq = position;
+			partition.journaledSeq = partition.journal.lastSeq();
+			if (partition.journaledSeq > position) {
+				log.info("engine partition {} replayed journal {}..{}", partition.index, position + 1,
+						partition.journaledSeq);
+			}
+		}
+
+		// 입금쪽 반영이 빠진 이체 (DB 에 D 만 있는 것 + 재생한 DEBIT) - 이미 반영된 C 는 제외
+		engineRepository.deleteCompletedTransfers();
+		for (EngineTransfer transfer : engineRepository.findUncreditedTransfers()) {
+			if (!replayedCredits.contains(transfer.getTransferId())) {
+				replayedDebits.remove(transfer.getTransferId());
+				resendCredit(transfer.getToAccountId(), transfer.getFromAccountId(), transfer.getAmount(),
+						transfer.getWBalance(), transfer.getTransferId());
+			}
+		}
+		for (JournalRecord debit : replayedDebits.values()) {
+			if (!replayedCredits.contains(debit.getTransferId())
+					&& engineRepository.countTransfer(debit.getTransferId(), EngineTransfer.CREDIT) == 0) {
+				resendCredit(debit.getCounterAccountId(), debit.getAccountId(), debit.getAmount(),
+						debit.getBalanceAfter(), debit.getTransferId());
+			}
+		}
+
+		running = true;
+		for (Partition partition : partitions) {
+			partition.writer = new Thread(partition::writeLoop, "engine-writer-" + partition.index);
+			partition.syncer = new Thread(partition::syncLoop, "engine-sync-" + partition.index);
+			partition.writer.setDaemon(true);
+			partition.syncer.setDaemon(true);
+			partition.writer.start();
+			partition.syncer.start();
+		}
+	}
+
+	private void resendCredit(int toAccountId, int fromAccountId, long amount, long fromBalance, long transferId) {
+		log.info("engine resends credit of transfer {} to account {}", transferId, toAccountId);
+		partitionOf(toAccountId).credits.add(Command.credit(toAccountId, fromAccountId, amount, fromBalance, transferId));
+	}
+
+	/**
+	 * 입금쪽 반영에 실패한 CREDIT 다시 보내기 (이번에 꺼낸 것만 - 또 실패하면 다음 주기에)
+	 */
+	@Scheduled(fixedDelayString = "${bank.engine.credit-retry-interval-ms:5000}")
+	public void retryFailedCredits() {
+		for (int i = failedCredits.size(); i > 0 && running; i--) {
+			Command credit = failedCredits.poll();
+			if (credit == null) {
+				return;
+			}
+			log.warn("engine retries credit of transfer {} to account {}", credit.transferId, credit.accountId);
+			partitionOf(credit.accountId).enqueueCredit(credit);
+		}
+	}
+
+	/**
+	 * 양쪽 모두 DB 에 반영된 이체 기록 정리 (재기동 시 다시 보낼 대상이 아님)
+	 */
+	@Scheduled(fixedDelayString = "${bank.engine.sync.cleanup-interval-ms:60000}")
+	public void deleteCompletedTransfers() {
+		int deleted = engineRepository.deleteCompletedTransfers();
+		if (deleted > 0) {
+			log.debug("engine deleted {} completed transfer rows", deleted);
+		}
+	}
+
+	/**
+	 * 종료 : 받은 명령을 모두 적용하고 DB 반영까지 기다린다. (반영 못 한 것은 다음 시작 때 재생)
+	 */
+	@Override
+	public void destroy() throws InterruptedException, IOException {
+		running = false;
+		for (Partition partition : partitions) {
+			LockSupport.unpark(partition.writer);
+			partition.writer.join(timeoutMillis);
+		}
+		for (Partition partition : partitions) {
+			partition.syncer.join(timeoutMillis * 10);
+			partition.journal.close();
+		}
+	}
+
+	// ---- 지표 ----
+
+	public int getPartitionCount() {
+		return partitions.length;
+	}
+
+	// 링 버퍼에서 기다리는 명령 수 (전체 파티션)
+	public int getQueuedCommands() {
+		int queued = 0;
+		for (Partition partition : partitions) {
+			queued += partition.ring.size() + partition.credits.size();
+		}
+		return queued;
+	}
+
+	// 입금쪽 반영에 실패해서 다시 보낼 CREDIT 수 (0 이 아니면 돈이 이동 중인 상태로 남아 있음)
+	public int getFailedCredits() {
+		return failedCredits.size();
+	}
+
+	// 저널에는 있지만 아직 DB 에 반영되지 않은 레코드 수
+	public long getSyncLag() {
+		long lag = 0;
+		for (Partition partition : partitions) {
+			lag += partition.journaledSeq - partition.syncedSeq;
+		}
+		return lag;
+	}
+
+}
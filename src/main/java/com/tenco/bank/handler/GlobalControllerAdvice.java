@@ -1,5 +1,7 @@
 package com.tenco.bank.handler;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -7,8 +9,11 @@ import org.springframework.web.servlet.ModelAndView;
 
 import com.tenco.bank.handler.exception.DataDeliveryException;
 import com.tenco.bank.handler.exception.RedirectException;
+import com.tenco.bank.handler.exception.TooManyRequestsException;
 import com.tenco.bank.handler.exception.UnAuthorizedException;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @ControllerAdvice  // IoC 대상 (싱글톤 패턴) --> HTML 렌더링 예외에 많이 사용
 public class GlobalControllerAdvice {
 	
@@ -44,6 +49,22 @@ public class GlobalControllerAdvice {
 		return sb.toString(); 
 	}
 	
+	/**
+	 * 처리율 제한 (RateLimitInterceptor) - 429 + Retry-After
+	 */
+	@ResponseBody
+	@ExceptionHandler(TooManyRequestsException.class)
+	public String tooManyRequestsException(TooManyRequestsException e, HttpServletResponse response) {
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+		StringBuffer sb = new StringBuffer();
+		sb.append(" <script>");
+		sb.append(" alert('"+ e.getMessage()  +"');");
+		sb.append(" window.history.back();");
+		sb.append(" </script>");
+		return sb.toString(); 
+	}
+	
 	@ResponseBody
 	@ExceptionHandler(UnAuthorizedException.class)
 	public String unAuthorizedException(UnAuthorizedException e) {
@@ -0,0 +1,104 @@
+package com.tenco.bank.handler;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.tenco.bank.handler.exception.TooManyRequestsException;
+import com.tenco.bank.repository.model.User;
+import com.tenco.bank.utils.Define;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 입출금/이체 요청 사용자별 처리율 제한 (bank.rate-limit)
+ *
+ * - 로그인 사용자 id 별 토큰 버킷 - 서비스/DB 에 닿기 전에 거절한다.
+ * - POST 만 센다. (입력 화면 GET 은 제한 없음)
+ * - /account/transfer/async, /account/transfer/bulk 도 이체 버킷을 같이 쓴다.
+ * - 로그인 전 요청은 그대로 통과 (컨트롤러에서 인증 오류)
+ * - 버킷은 요청 URI 가 아니라 매칭된 컨트롤러 경로 패턴으로 고른다.
+ *   (/account/%64eposit, /account/deposit;x=1 처럼 URI 를 바꿔도 같은 핸들러면 같은 버킷)
+ * - 노드마다 따로 센다. (노드가 N 개면 사용자당 최대 N 배)
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	public static final String WITHDRAWAL = "withdrawal";
+	public static final String DEPOSIT = "deposit";
+	public static final String TRANSFER = "transfer";
+
+	private final boolean enabled;
+	private final Map<String, TokenBucketLimiter> limiters;
+
+	public RateLimitInterceptor(@Value("${bank.rate-limit.enabled:false}") boolean enabled,
+			@Value("${bank.rate-limit.withdrawal.permits-per-second:5}") double withdrawalRate,
+			@Value("${bank.rate-limit.withdrawal.burst:10}") int withdrawalBurst,
+			@Value("${bank.rate-limit.deposit.permits-per-second:5}") double depositRate,
+			@Value("${bank.rate-limit.deposit.burst:10}") int depositBurst,
+			@Value("${bank.rate-limit.transfer.permits-per-second:5}") double transferRate,
+			@Value("${bank.rate-limit.transfer.burst:10}") int transferBurst) {
+		this.enabled = enabled;
+		this.limiters = Map.of(
+				WITHDRAWAL, new TokenBucketLimiter(withdrawalRate, withdrawalBurst),
+				DEPOSIT, new TokenBucketLimiter(depositRate, depositBurst),
+				TRANSFER, new TokenBucketLimiter(transferRate, transferBurst));
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!enabled || !"POST".equals(request.getMethod())) {
+			return true;
+		}
+		User principal = (User) request.getAttribute(Define.PRINCIPAL);
+		String endpoint = endpoint((String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		TokenBucketLimiter limiter = endpoint == null ? null : limiters.get(endpoint);
+		if (principal == null || limiter == null) {
+			return true;
+		}
+		long waitNanos = limiter.tryAcquire(principal.getId());
+		if (waitNanos > 0) {
+			// 다음 토큰까지 남은 시간 (초 단위 올림)
+			throw new TooManyRequestsException(Define.TOO_MANY_REQUESTS,
+					Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+		}
+		return true;
+	}
+
+	// 컨트롤러 경로 패턴 /account/withdrawal --> withdrawal, /account/transfer/** --> transfer
+	private static String endpoint(String pattern) {
+		if (pattern == null) {
+			return null;
+		}
+		if (pattern.equals("/account/withdrawal")) {
+			return WITHDRAWAL;
+		}
+		if (pattern.equals("/account/deposit")) {
+			return DEPOSIT;
+		}
+		if (pattern.equals("/account/transfer") || pattern.startsWith("/account/transfer/")) {
+			return TRANSFER;
+		}
+		return null;
+	}
+
+	@Scheduled(fixedDelayString = "${bank.rate-limit.eviction-interval-ms:60000}")
+	public void evictIdleBuckets() {
+		limiters.values().forEach(TokenBucketLimiter::evictIdle);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public Map<String, TokenBucketLimiter> getLimiters() {
+		return limiters;
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.tenco.bank.handler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 사용자별 토큰 버킷 (잠금 없음)
+ *
+ * - 버킷 상태는 long 하나 : 다음 토큰이 "가득 찬 상태 기준으로" 비게 되는 시각(TAT, nanoTime)
+ *   (GCRA - 토큰 수를 따로 저장하지 않고 시각 하나로 같은 동작을 한다)
+ * - 요청 : newTat = max(tat, now) + interval 이 now + burst x interval 을 넘지 않으면 CAS 로 반영하고 허용
+ *   --> 요청마다 맵 조회 한 번 + CAS 한 번, 객체 생성 없음 (버킷 최초 생성 제외)
+ * - 한 번도 안 쓰였거나 가득 찬(tat <= now) 버킷은 잃을 상태가 없으므로 evictIdle 에서 지운다.
+ */
+public class TokenBucketLimiter {
+
+	private final long intervalNanos; // 토큰 하나가 채워지는 시간
+	private final long burstNanos; // 버킷 크기만큼의 시간
+	private final LongSupplier clock;
+	private final ConcurrentHashMap<Integer, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * @param permitsPerSecond 초당 채워지는 토큰 수
+	 * @param burst 버킷 크기 (연속으로 허용되는 최대 요청 수)
+	 */
+	public TokenBucketLimiter(double permitsPerSecond, int burst) {
+		this(permitsPerSecond, burst, System::nanoTime);
+	}
+
+	TokenBucketLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+		if (permitsPerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+		}
+		this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+		this.burstNanos = intervalNanos * burst;
+		this.clock = clock;
+	}
+
+	/**
+	 * 토큰 하나 사용
+	 * @return 0 : 허용, 양수 : 거절 - 다음 토큰까지 남은 시간 (ns)
+	 */
+	public long tryAcquire(Integer key) {
+		AtomicLong bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+		}
+		long now = clock.getAsLong();
+		while (true) {
+			long tat = bucket.get();
+			long next = (tat == Long.MIN_VALUE || tat - now < 0 ? now : tat) + intervalNanos;
+			long wait = next - now - burstNanos;
+			if (wait > 0) {
+				rejected.increment();
+				return wait;
+			}
+			if (bucket.compareAndSet(tat, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * 가득 찬 버킷 삭제 - 다음 요청 때 가득 찬 새 버킷이 만들어지므로 결과가 같다.
+	 * (지우는 순간 옛 버킷에서 토큰을 쓴 요청이 있으면 그 한 건은 새 버킷에 반영되지 않는다)
+	 * @return 지운 버킷 수
+	 */
+	public int evictIdle() {
+		long now = clock.getAsLong();
+		int evicted = 0;
+		for (var entry : buckets.entrySet()) {
+			long tat = entry.getValue().get();
+			if ((tat == Long.MIN_VALUE || tat - now <= 0) && buckets.remove(entry.getKey(), entry.getValue())) {
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	public int getBucketCount() {
+		return buckets.size();
+	}
+
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+}
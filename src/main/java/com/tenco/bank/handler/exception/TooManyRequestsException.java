@@ -0,0 +1,15 @@
+package com.tenco.bank.handler.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+	private long retryAfterSeconds; // Retry-After 응답 헤더 값
+
+	public TooManyRequestsException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+}
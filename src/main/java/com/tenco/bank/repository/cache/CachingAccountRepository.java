@@ -0,0 +1,304 @@
+package com.tenco.bank.repository.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+
+/**
+ * 계좌 조회 캐시 (read-through)
+ * findByNumber, findByUserId 결과를 크기 + TTL 제한 캐시에 두고 나머지는 MyBatis 매퍼로 그대로 넘긴다.
+ * bank.account.cache.enabled=true 일 때 @Primary 로 등록되어 서비스에 주입된다.
+ *
+ * - insert / updateById / deleteById : 관련 항목을 바로 지우고 트랜잭션 종료 후 한 번 더 지운다.
+ *   (커밋 전에 다른 스레드가 이전 값을 다시 채워 넣는 경우 대비)
+ * - 잔액 변경(updateBalance*) : 소유자의 계좌 목록 항목을 지운다.
+ * - reread-balance=true : 트랜잭션 안의 findByNumber 는 캐시 적중이어도 잔액을 DB 에서 다시 읽는다.
+ *   --> 캐시된 잔액으로 출금/이체 검사를 통과하는 일이 없다. 계좌 번호 항목은 잔액 변경에도 유지된다.
+ * - reread-balance=false : 잔액 변경 시 계좌 번호 항목도 지운다. (다음 조회 때 다시 적재)
+ * - 잔액 변경은 계좌 id 만 알고 있으므로 id --> 번호, id --> 소유자 색인으로 항목을 바로 찾아 지운다.
+ *   색인은 캐시 항목과 같이 들어가고 같이 빠진다. (적재/삭제는 같은 키의 compute 안에서, 크기/TTL 만료는 evictionListener)
+ *   --> 색인 크기는 캐시 크기를 넘지 않는다.
+ * - 캐시 항목은 복사본을 주고받는다. (서비스가 setBalance 등으로 바꿔도 캐시는 그대로)
+ * - @Repository 가 아닌 @Component : 예외 변환 프록시 없이 등록 (매퍼가 이미 DataAccessException 으로 변환,
+ *   캐시 적중마다 프록시를 거치지 않게)
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "bank.account.cache.enabled", havingValue = "true")
+public class CachingAccountRepository implements AccountRepository {
+
+	private final AccountRepository delegate;
+	private final boolean rereadBalance;
+	private final Cache<String, Account> byNumber;
+	private final Cache<Integer, List<Account>> byUserId;
+	// 캐시된 항목의 색인 : 계좌 id --> 번호 (byNumber 키), 계좌 id --> 소유자 id (byUserId 키)
+	private final Map<Integer, String> numberById = new ConcurrentHashMap<>();
+	private final Map<Integer, Integer> ownerById = new ConcurrentHashMap<>();
+
+	public CachingAccountRepository(@Qualifier("accountRepository") AccountRepository delegate,
+			@Value("${bank.account.cache.maximum-size:10000}") long maximumSize,
+			@Value("${bank.account.cache.ttl-seconds:60}") long ttlSeconds,
+			@Value("${bank.account.cache.reread-balance:true}") boolean rereadBalance) {
+		this.delegate = delegate;
+		this.rereadBalance = rereadBalance;
+		this.byNumber = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.evictionListener((String number, Account account, RemovalCause cause) -> unindex(number, account))
+				.build();
+		this.byUserId = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.evictionListener((Integer userId, List<Account> accounts, RemovalCause cause) -> unindex(userId, accounts))
+				.build();
+	}
+
+	// 캐시 조회
+
+	@Override
+	public Account findByNumber(String number) {
+		Account cached = byNumber.get(number, key -> index(key, delegate.findByNumber(key)));
+		if (cached == null) {
+			return null;
+		}
+		Account account = copy(cached);
+		if (rereadBalance && TransactionSynchronizationManager.isActualTransactionActive()) {
+			account.setBalance(delegate.findBalanceById(account.getId()));
+		}
+		return account;
+	}
+
+	@Override
+	public List<Account> findByUserId(Integer principalId) {
+		List<Account> cached = byUserId.get(principalId, key -> {
+			List<Account> accounts = delegate.findByUserId(key);
+			accounts.forEach(account -> ownerById.put(account.getId(), key));
+			return accounts.stream().map(CachingAccountRepository::copy).toList();
+		});
+		return cached.stream().map(CachingAccountRepository::copy).toList();
+	}
+
+	// 변경 --> 무효화
+
+	@Override
+	public int insert(Account account) {
+		evictNumber(account.getNumber());
+		evictUserList(account.getUserId());
+		return delegate.insert(account);
+	}
+
+	@Override
+	public int updateById(Account account) {
+		// 번호나 소유자가 바뀔 수 있으므로 변경 전 값도 지운다.
+		evictAccount(delegate.findByAccountId(account.getId()));
+		evictNumber(account.getNumber());
+		evictUserList(account.getUserId());
+		return delegate.updateById(account);
+	}
+
+	@Override
+	public int deleteById(Integer id, String name) {
+		evictAccount(delegate.findByAccountId(id));
+		return delegate.deleteById(id, name);
+	}
+
+	@Override
+	public int updateBalanceWithdraw(Integer id, Long amount) {
+		int result = delegate.updateBalanceWithdraw(id, amount);
+		evictBalance(id);
+		return result;
+	}
+
+	@Override
+	public int updateBalanceDeposit(Integer id, Long amount) {
+		int result = delegate.updateBalanceDeposit(id, amount);
+		evictBalance(id);
+		return result;
+	}
+
+	@Override
+	public int updateBalanceIfVersion(Integer id, Long balance, Long version) {
+		int result = delegate.updateBalanceIfVersion(id, balance, version);
+		evictBalance(id);
+		return result;
+	}
+
+	// 캐시하지 않는 조회 (잠금, 잔액, 대량 조회)
+
+	@Override
+	public Account findByAccountId(Integer accountId) {
+		return delegate.findByAccountId(accountId);
+	}
+
+	@Override
+	public Long findBalanceById(Integer id) {
+		return delegate.findBalanceById(id);
+	}
+
+	@Override
+	public Account findByIdForUpdate(Integer id) {
+		return delegate.findByIdForUpdate(id);
+	}
+
+	@Override
+	public List<Account> findByNumberList(List<String> numbers) {
+		return delegate.findByNumberList(numbers);
+	}
+
+	@Override
+	public List<Account> findByIdListForUpdate(List<Integer> ids) {
+		return delegate.findByIdListForUpdate(ids);
+	}
+
+	// 무효화 도우미
+
+	/**
+	 * 잔액이 바뀐 계좌의 캐시 항목 무효화
+	 * 이 저장소를 거치지 않고 잔액을 바꾼 경우(대량 이체 BATCH 매퍼) 트랜잭션 안에서 직접 호출
+	 */
+	public void evictBalance(Integer id) {
+		removeById(id);
+		// 커밋 전에 다시 적재된 항목이 있으면 그 항목의 색인으로 한 번 더 지운다.
+		afterCompletion(() -> removeById(id));
+	}
+
+	private void removeById(Integer id) {
+		Integer userId = ownerById.get(id);
+		if (userId != null) {
+			removeUserList(userId);
+		}
+		if (!rereadBalance) {
+			String number = numberById.get(id);
+			if (number != null) {
+				removeNumber(number);
+			}
+		}
+	}
+
+	private void evictAccount(Account account) {
+		if (account != null) {
+			evictNumber(account.getNumber());
+			evictUserList(account.getUserId());
+		}
+	}
+
+	private void evictNumber(String number) {
+		if (number != null) {
+			removeNumber(number);
+			afterCompletion(() -> removeNumber(number));
+		}
+	}
+
+	private void evictUserList(Integer userId) {
+		if (userId != null) {
+			removeUserList(userId);
+			afterCompletion(() -> removeUserList(userId));
+		}
+	}
+
+	// 항목 삭제와 색인 정리를 같은 키의 compute 안에서 (같은 키 적재와 겹치지 않게)
+	private void removeNumber(String number) {
+		byNumber.asMap().computeIfPresent(number, (key, account) -> {
+			unindex(key, account);
+			return null;
+		});
+	}
+
+	private void removeUserList(Integer userId) {
+		byUserId.asMap().computeIfPresent(userId, (key, accounts) -> {
+			unindex(key, accounts);
+			return null;
+		});
+	}
+
+	private static void afterCompletion(Runnable eviction) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+
+	private Account index(String number, Account account) {
+		if (account != null) {
+			numberById.put(account.getId(), number);
+		}
+		return account;
+	}
+
+	private void unindex(String number, Account account) {
+		if (account != null) {
+			numberById.remove(account.getId(), number);
+		}
+	}
+
+	private void unindex(Integer userId, List<Account> accounts) {
+		if (accounts != null) {
+			accounts.forEach(account -> ownerById.remove(account.getId(), userId));
+		}
+	}
+
+	private static Account copy(Account account) {
+		return Account.builder()
+				.id(account.getId())
+				.number(account.getNumber())
+				.password(account.getPassword())
+				.balance(account.getBalance())
+				.userId(account.getUserId())
+				.createdAt(account.getCreatedAt())
+				.version(account.getVersion())
+				.build();
+	}
+
+	// 통계
+
+	public Cache<String, Account> getNumberCache() {
+		return byNumber;
+	}
+
+	public Cache<Integer, List<Account>> getUserListCache() {
+		return byUserId;
+	}
+
+	public CacheStats getNumberStats() {
+		return byNumber.stats();
+	}
+
+	public CacheStats getUserListStats() {
+		return byUserId.stats();
+	}
+
+	public long getNumberSize() {
+		return byNumber.estimatedSize();
+	}
+
+	public long getUserListSize() {
+		return byUserId.estimatedSize();
+	}
+
+	public int getIndexSize() {
+		return numberById.size() + ownerById.size();
+	}
+
+}
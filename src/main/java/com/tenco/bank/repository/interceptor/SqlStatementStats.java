@@ -0,0 +1,90 @@
+package com.tenco.bank.repository.interceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 매핑된 SQL 문장(MappedStatement) 하나의 실행 통계
+ * 실행 시간은 2의 거듭제곱 마이크로초 구간 히스토그램에 누적한다. (1us, 2us, 4us ... 약 36분)
+ * 백분위수는 해당 구간의 상한값이라 실제보다 최대 2배까지 크게 나올 수 있다.
+ */
+public class SqlStatementStats {
+
+	private static final int BUCKETS = 32;
+
+	private final String id;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+	private final LongAdder rows = new LongAdder();
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	public SqlStatementStats(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @param rowCount 조회/변경 건수 (알 수 없으면 음수 - BATCH 실행기, Cursor)
+	 */
+	public void record(long elapsedNanos, long rowCount) {
+		count.increment();
+		totalNanos.add(elapsedNanos);
+		maxNanos.accumulate(elapsedNanos);
+		if (rowCount > 0) {
+			rows.add(rowCount);
+		}
+		long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+		int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+		buckets.incrementAndGet(bucket);
+	}
+
+	// 백분위수 (밀리초, 구간 상한값)
+	public double percentileMillis(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return (1L << i) / 1000.0;
+			}
+		}
+		return (1L << (BUCKETS - 1)) / 1000.0;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getRows() {
+		return rows.sum();
+	}
+
+	public double getTotalMillis() {
+		return totalNanos.sum() / 1e6;
+	}
+
+	public double getAvgMillis() {
+		long n = count.sum();
+		return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+	}
+
+	public double getMaxMillis() {
+		return maxNanos.get() / 1e6;
+	}
+
+}
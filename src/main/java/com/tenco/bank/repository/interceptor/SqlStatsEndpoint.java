@@ -0,0 +1,61 @@
+package com.tenco.bank.repository.interceptor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 느린 SQL 상위 N 개 보고서
+ * GET    /actuator/sqlstats?limit=10&sort=total  (sort : total, avg, max, p99)
+ * DELETE /actuator/sqlstats                       (누적 통계 초기화)
+ * SQL 문과 실행 통계가 드러나므로 조회/초기화 모두 관리자만 호출할 수 있다. (ActuatorAccessFilter, bank.management.admin-user-ids)
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+	private static final int DEFAULT_LIMIT = 10;
+
+	private final SqlTimingInterceptor sqlTimingInterceptor;
+
+	public SqlStatsEndpoint(SqlTimingInterceptor sqlTimingInterceptor) {
+		this.sqlTimingInterceptor = sqlTimingInterceptor;
+	}
+
+	@ReadOperation
+	public List<Map<String, Object>> top(@Nullable Integer limit, @Nullable String sort) {
+		return sqlTimingInterceptor.top(limit == null ? DEFAULT_LIMIT : limit, sort == null ? "total" : sort)
+				.stream()
+				.map(SqlStatsEndpoint::toReport)
+				.toList();
+	}
+
+	@DeleteOperation
+	public void reset() {
+		sqlTimingInterceptor.reset();
+	}
+
+	private static Map<String, Object> toReport(SqlStatementStats stats) {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("statement", stats.getId());
+		report.put("count", stats.getCount());
+		report.put("rows", stats.getRows());
+		report.put("totalMs", round(stats.getTotalMillis()));
+		report.put("avgMs", round(stats.getAvgMillis()));
+		report.put("p50Ms", stats.percentileMillis(50));
+		report.put("p99Ms", stats.percentileMillis(99));
+		report.put("maxMs", round(stats.getMaxMillis()));
+		return report;
+	}
+
+	private static double round(double millis) {
+		return Math.round(millis * 1000) / 1000.0;
+	}
+
+}
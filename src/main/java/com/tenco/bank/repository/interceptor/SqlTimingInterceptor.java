@@ -0,0 +1,115 @@
+package com.tenco.bank.repository.interceptor;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * MyBatis SQL 실행 시간 측정 (StdOutImpl SQL 출력 대체)
+ * 매핑된 문장(id) 별로 실행 시간 히스토그램, 건수를 메모리에 누적하고
+ * 기준 시간(bank.sql.slow-threshold-ms) 이상 걸린 문장만 slow-query 로그로 남긴다. (logback 비동기 appender)
+ *
+ * - 빈으로 등록하면 mybatis-spring-boot 가 SqlSessionFactory 에 자동으로 추가한다.
+ * - BATCH 실행기의 update 는 실제 전송 전이라 큐에 넣는 시간만 잡히고 건수는 모른다.
+ * - Cursor 조회는 커서를 여는 시간만 잡힌다.
+ */
+@Component
+@Intercepts({
+		@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),
+		@Signature(type = Executor.class, method = "queryCursor",
+				args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class SqlTimingInterceptor implements Interceptor {
+
+	// logback-spring.xml 에서 이 이름으로 비동기 appender 를 연결한다.
+	private static final Logger slowLog = LoggerFactory.getLogger("com.tenco.bank.sql.slow");
+
+	private final long slowThresholdNanos;
+	private final Map<String, SqlStatementStats> statistics = new ConcurrentHashMap<>();
+
+	public SqlTimingInterceptor(@Value("${bank.sql.slow-threshold-ms:200}") long slowThresholdMillis) {
+		this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+		long begin = System.nanoTime();
+		Object result = null;
+		try {
+			result = invocation.proceed();
+			return result;
+		} finally {
+			long elapsed = System.nanoTime() - begin;
+			long rows = rowCount(result);
+			statistics.computeIfAbsent(statement.getId(), SqlStatementStats::new).record(elapsed, rows);
+			if (elapsed >= slowThresholdNanos) {
+				logSlow(statement, invocation.getArgs()[1], elapsed, rows);
+			}
+		}
+	}
+
+	private static long rowCount(Object result) {
+		if (result instanceof Collection<?> collection) {
+			return collection.size();
+		}
+		if (result instanceof Integer count) {
+			return count; // BATCH 실행기는 음수 상수를 돌려준다.
+		}
+		return -1;
+	}
+
+	private void logSlow(MappedStatement statement, Object parameter, long elapsedNanos, long rows) {
+		if (!slowLog.isWarnEnabled()) {
+			return;
+		}
+		// 파라미터 값은 남기지 않는다. (비밀번호 등)
+		String sql = statement.getBoundSql(parameter).getSql().replaceAll("\\s+", " ").trim();
+		slowLog.warn("slow sql {} {}ms rows={} : {}", statement.getId(),
+				String.format("%.1f", elapsedNanos / 1e6), rows < 0 ? "?" : rows, sql);
+	}
+
+	/**
+	 * 느린 문장 상위 N 개
+	 * @param limit 최대 건수 (음수면 0)
+	 * @param sort total(누적 시간), avg, max, p99
+	 */
+	public List<SqlStatementStats> top(int limit, String sort) {
+		Comparator<SqlStatementStats> order = switch (sort) {
+		case "avg" -> Comparator.comparingDouble(SqlStatementStats::getAvgMillis);
+		case "max" -> Comparator.comparingDouble(SqlStatementStats::getMaxMillis);
+		case "p99" -> Comparator.comparingDouble(stats -> stats.percentileMillis(99));
+		default -> Comparator.comparingDouble(SqlStatementStats::getTotalMillis);
+		};
+		return statistics.values().stream()
+				.sorted(order.reversed())
+				.limit(Math.max(0, limit))
+				.toList();
+	}
+
+	public void reset() {
+		statistics.clear();
+	}
+
+}
@@ -23,6 +23,27 @@ public interface AccountRepository {
 	public List<Account> findByUserId(@Param("userId") Integer principalId);
 	// --> account id 값으로 계좌 정보 조회 
 	public Account findByNumber(@Param("number") String id);
+	// --> 계좌 pk 로 조회
+	public Account findByAccountId(@Param("accountId") Integer accountId);
+	
+	// 잔액 변경은 SQL 한 문장으로 처리한다 (동시 요청 시 갱신 손실 방지)
+	// --> 출금 : 잔액이 충분할 때만 차감, 반환값 0 이면 잔액 부족
+	public int updateBalanceWithdraw(@Param("id") Integer id, @Param("amount") Long amount);
+	// --> 입금 : 현재 잔액에 더하기
+	public int updateBalanceDeposit(@Param("id") Integer id, @Param("amount") Long amount);
+	// --> 읽은 version 이 그대로일 때만 잔액 변경, 반환값 0 이면 충돌 (OPTIMISTIC)
+	public int updateBalanceIfVersion(@Param("id") Integer id, @Param("balance") Long balance,
+			@Param("version") Long version);
+	// --> 변경 후 잔액 조회 (같은 트랜잭션 안에서 호출)
+	public Long findBalanceById(@Param("id") Integer id);
+	// --> SELECT ... FOR UPDATE (트랜잭션 종료 시까지 행 잠금)
+	public Account findByIdForUpdate(@Param("id") Integer id);
+	
+	// 대량 이체용
+	// --> 계좌 번호 목록으로 한 번에 조회 (IN 쿼리)
+	public List<Account> findByNumberList(@Param("numbers") List<String> numbers);
+	// --> id 순서로 여러 행 잠금 (SELECT ... FOR UPDATE)
+	public List<Account> findByIdListForUpdate(@Param("ids") List<Integer> ids);
 	
 	// 코드 추가 예정
 }
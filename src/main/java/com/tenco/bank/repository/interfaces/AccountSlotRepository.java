@@ -0,0 +1,37 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.AccountSlot;
+import com.tenco.bank.repository.model.HotAccount;
+
+//AccountSlotRepository, account_slot.xml 파일을 매칭 시킨다.
+@Mapper
+public interface AccountSlotRepository {
+
+	// slot 0 ~ slots-1 을 잔액 0 으로 생성
+	public int insertSlots(@Param("accountId") Integer accountId, @Param("slotNos") List<Integer> slotNos);
+
+	public List<HotAccount> findHotAccounts();
+
+	// --> 입금 : slot 하나의 잔액 증가
+	public int updateSlotDeposit(@Param("accountId") Integer accountId, @Param("slotNo") int slotNo,
+			@Param("amount") Long amount);
+
+	// --> 출금 : slot 잔액이 충분할 때만 차감, 반환값 0 이면 부족
+	public int updateSlotWithdraw(@Param("accountId") Integer accountId, @Param("slotNo") int slotNo,
+			@Param("amount") Long amount);
+
+	public long sumBalance(@Param("accountId") Integer accountId);
+
+	// --> slot 행 전체 잠금 (slot_no 순서, 계좌 행 잠금 후에 호출)
+	public List<AccountSlot> findByAccountIdForUpdate(@Param("accountId") Integer accountId);
+
+	public int clearBalance(@Param("accountId") Integer accountId);
+
+	public int deleteByAccountId(@Param("accountId") Integer accountId);
+
+}
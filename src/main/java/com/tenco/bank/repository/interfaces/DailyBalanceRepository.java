@@ -0,0 +1,37 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.DailyBalance;
+
+//DailyBalanceRepository, daily_balance.xml 파일을 매칭 시킨다.
+@Mapper
+public interface DailyBalanceRepository {
+
+	/**
+	 * snapshotDate 하루치 스냅샷 생성 (그 날 원장 항목이 있는 계좌만, insert ... select 한 문장)
+	 * @param from 원장 항목 시작 시각 (포함, null 이면 처음부터)
+	 * @param to 원장 항목 끝 시각 (미포함, 다음 날 0시)
+	 * @param afterEntryId 이미 스냅샷에 반영된 마지막 원장 항목 ID
+	 * @return 생성한 스냅샷 수 (= 그 날 거래가 있었던 계좌 수)
+	 */
+	public int insertSnapshots(@Param("snapshotDate") Date snapshotDate, @Param("from") Timestamp from,
+			@Param("to") Timestamp to, @Param("afterEntryId") long afterEntryId);
+
+	// before 이전 날짜의 가장 최근 스냅샷
+	public DailyBalance findLatestBefore(@Param("accountId") Integer accountId, @Param("before") Date before);
+
+	// 마지막 스냅샷 일자 (없으면 null)
+	public Date findLastSnapshotDate();
+
+	// 스냅샷에 반영된 마지막 원장 항목 ID (없으면 0)
+	public long findLastEntryId();
+
+	// 원장 첫 항목 시각 (스냅샷 최초 생성 시작일)
+	public Timestamp findFirstEntryTime();
+
+}
@@ -0,0 +1,34 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.EngineTransfer;
+
+//EngineRepository, engine.xml 파일을 매칭 시킨다.
+@Mapper
+public interface EngineRepository {
+
+	// 엔진 시작 시 전체 계좌 잔액 적재 (id, balance 만)
+	public List<Account> findAllBalances();
+
+	public Long findSyncPosition(@Param("partitionNo") int partitionNo);
+
+	public int insertSyncPosition(@Param("partitionNo") int partitionNo);
+
+	public int updateSyncPosition(@Param("partitionNo") int partitionNo, @Param("position") long position);
+
+	public int insertTransfer(EngineTransfer engineTransfer);
+
+	// 출금쪽(D)만 반영되고 입금쪽(C)이 없는 이체
+	public List<EngineTransfer> findUncreditedTransfers();
+
+	public int countTransfer(@Param("transferId") long transferId, @Param("side") String side);
+
+	// 양쪽 모두 반영된 이체 기록 삭제
+	public int deleteCompletedTransfers();
+
+}
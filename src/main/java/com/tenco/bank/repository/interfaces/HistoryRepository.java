@@ -1,8 +1,11 @@
 package com.tenco.bank.repository.interfaces;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import com.tenco.bank.repository.model.History;
 
@@ -14,9 +17,25 @@ public interface HistoryRepository {
 	public int updateById(History history);
 	public int deleteById(Integer id);
 	
+	// 그룹 커밋 고아 행 정리 (HistoryAppender 기동 시) - from <= created_at < to 범위만 확인
+	public Timestamp findLatestCreatedAt();
+	public int deleteOrphans(@Param("from") Timestamp from, @Param("to") Timestamp to);
+	
 	// 거래내역 조회 
 	public History findById(Integer id);
-	public List<History> findAll();
+	
+	// 계좌별 거래내역 키셋 페이징 (전체 조회 findAll 대체)
+	// type : all, withdrawal, deposit
+	// cursorCreatedAt, cursorId 가 null 이면 첫 페이지
+	public List<History> findByAccountIdAndCursor(@Param("type") String type,
+			@Param("accountId") Integer accountId,
+			@Param("cursorCreatedAt") Timestamp cursorCreatedAt,
+			@Param("cursorId") Integer cursorId,
+			@Param("limit") int limit);
+	
+	// 계좌 전체 거래내역 내보내기 (List 로 모으지 않고 한 행씩 읽는다)
+	// 반드시 트랜잭션 안에서 사용하고 다 읽으면 close 해야 한다.
+	public Cursor<History> findAllByAccountIdForExport(@Param("accountId") Integer accountId);
 	
 	//코드 추가 예정 - 모델을 반드시  1:1 엔터티에 매핑을 시킬 필요는 없다. 
 	// 조인 쿼리, 서브쿼리 
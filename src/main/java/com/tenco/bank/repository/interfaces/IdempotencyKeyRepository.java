@@ -0,0 +1,22 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.sql.Timestamp;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.IdempotencyKey;
+
+//IdempotencyKeyRepository, idempotency.xml 파일을 매칭 시킨다.
+@Mapper
+public interface IdempotencyKeyRepository {
+
+	// 이미 있는 키면 DuplicateKeyException (먼저 처리 중인 트랜잭션이 있으면 커밋/롤백까지 대기)
+	public int insert(IdempotencyKey idempotencyKey);
+
+	public IdempotencyKey findByUserIdAndKey(@Param("userId") Integer userId, @Param("idemKey") String idemKey);
+
+	// 만료된 키를 최대 limit 건 삭제 (IdempotencyKeySweeper 가 반복 호출)
+	public int deleteExpired(@Param("now") Timestamp now, @Param("limit") int limit);
+
+}
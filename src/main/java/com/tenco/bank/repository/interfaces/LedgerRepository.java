@@ -0,0 +1,30 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.sql.Timestamp;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.BalanceCheckpoint;
+import com.tenco.bank.repository.model.LedgerEntry;
+
+//LedgerRepository, ledger.xml 파일을 매칭 시킨다.
+@Mapper
+public interface LedgerRepository {
+
+	// 생성된 id 를 LedgerEntry 에 채운다.
+	public int insertEntry(LedgerEntry entry);
+
+	public int insertCheckpoint(BalanceCheckpoint checkpoint);
+
+	// at 시점 이전(포함)의 가장 최근 체크포인트 (at 이 null 이면 가장 최근)
+	public BalanceCheckpoint findLatestCheckpoint(@Param("accountId") Integer accountId, @Param("at") Timestamp at);
+
+	// 계좌의 마지막 원장 항목 id (없으면 null)
+	public Long findLastEntryId(@Param("accountId") Integer accountId);
+
+	// afterEntryId 이후 항목의 부호 있는 합계 (at 이 null 이면 끝까지)
+	public long sumTail(@Param("accountId") Integer accountId, @Param("afterEntryId") long afterEntryId,
+			@Param("at") Timestamp at);
+
+}
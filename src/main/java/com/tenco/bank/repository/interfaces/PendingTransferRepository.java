@@ -0,0 +1,35 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.PendingTransfer;
+
+//PendingTransferRepository, pending_transfer.xml 파일을 매칭 시킨다.
+@Mapper
+public interface PendingTransferRepository {
+
+	// 생성된 id 를 PendingTransfer 에 채운다.
+	public int insert(PendingTransfer pendingTransfer);
+
+	public PendingTransfer findById(Long id);
+
+	// lane 의 처리 대기 건 (id 순서 = 접수 순서, 최대 limit 건)
+	public List<PendingTransfer> findPendingByLane(@Param("lane") int lane, @Param("limit") int limit);
+
+	// lanes 설정이 바뀐 경우 PENDING 건의 lane 재계산 (바뀐 건수)
+	public int updatePendingLanes(@Param("lanes") int lanes);
+
+	public long countPending();
+
+	// PENDING 인 경우에만 상태 변경 (0 이면 이미 처리됨 - 다른 워커/노드)
+	public int updateStatusIfPending(@Param("id") Long id, @Param("status") String status,
+			@Param("message") String message);
+
+	// 현재 상태가 current 인 경우에만 상태 변경 (엔진 모드 PROCESSING --> DONE 등)
+	public int updateStatusIfCurrent(@Param("id") Long id, @Param("current") String current,
+			@Param("status") String status, @Param("message") String message);
+
+}
@@ -0,0 +1,19 @@
+package com.tenco.bank.repository.interfaces;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.tenco.bank.repository.model.BalanceMismatch;
+
+//ReconciliationRepository, reconciliation.xml 파일을 매칭 시킨다.
+@Mapper
+public interface ReconciliationRepository {
+
+	public Integer findMaxAccountId();
+
+	// id 범위 [fromId, toId] 계좌 중 잔액과 원장 합계가 다른 계좌만 (집계는 DB 에서)
+	public List<BalanceMismatch> findMismatches(@Param("fromId") int fromId, @Param("toId") int toId);
+
+}
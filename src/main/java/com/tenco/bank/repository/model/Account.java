@@ -27,6 +27,7 @@ public class Account {
 	private Long balance;
 	private Integer userId;
 	private Timestamp createdAt;
+	private Long version; // 변경마다 1 증가 (낙관적 잠금)
 
 	// 출금 기능
 	public void withdraw(Long amount) {
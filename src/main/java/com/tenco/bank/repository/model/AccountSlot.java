@@ -0,0 +1,19 @@
+package com.tenco.bank.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// hot 계좌 잔액 slot (account_slot_tb)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class AccountSlot {
+	private Integer accountId;
+	private Integer slotNo;
+	private Long balance;
+}
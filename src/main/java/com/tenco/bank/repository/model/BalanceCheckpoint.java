@@ -0,0 +1,22 @@
+package com.tenco.bank.repository.model;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 계좌 잔액 체크포인트 (balance_checkpoint_tb) - entryId 까지 반영한 잔액
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BalanceCheckpoint {
+	private Integer accountId;
+	private Long entryId;
+	private Long balance;
+	private Timestamp createdAt;
+}
@@ -0,0 +1,20 @@
+package com.tenco.bank.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 잔액 대사 불일치 계좌 - account_tb 잔액과 원장 합계가 다름
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BalanceMismatch {
+	private Integer accountId;
+	private String number;
+	private Long balance; // account_tb.balance (+ hot 계좌 slot 합계)
+	private Long ledgerBalance; // 원장 C 합계 - D 합계 (개설 항목 포함)
+}
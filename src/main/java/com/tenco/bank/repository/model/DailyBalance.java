@@ -0,0 +1,24 @@
+package com.tenco.bank.repository.model;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 일별 잔액 스냅샷 (daily_balance_tb) - snapshotDate 마감 잔액
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class DailyBalance {
+	private Integer accountId;
+	private Date snapshotDate;
+	private Long balance;
+	private Long lastEntryId;
+	private Timestamp createdAt;
+}
@@ -0,0 +1,26 @@
+package com.tenco.bank.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 이체 엔진 - 이체 한쪽의 DB 반영 기록 (engine_transfer_tb)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class EngineTransfer {
+
+	public static final String DEBIT = "D";
+	public static final String CREDIT = "C";
+
+	private Long transferId;
+	private String side;
+	private Integer fromAccountId;
+	private Integer toAccountId;
+	private Long amount;
+	private Long wBalance;
+}
@@ -20,6 +20,7 @@ public class History {
 	private Long dBalance; 
 	private Integer wAccountId; 
 	private Integer dAccountId; 
+	private String movementId; // 원장 거래 ID (그룹 커밋으로 기록한 내역만, 고아 행 정리용)
 	private Timestamp createdAt;
 }
 
@@ -0,0 +1,18 @@
+package com.tenco.bank.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// slot 으로 나뉜 계좌와 slot 수
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class HotAccount {
+	private Integer accountId;
+	private Integer slots;
+}
@@ -0,0 +1,26 @@
+package com.tenco.bank.repository.model;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class IdempotencyKey {
+	private Integer userId;
+	private String idemKey;
+	private String operation;
+	private String requestHash;
+	private Boolean success;
+	private String message;
+	private Integer status;
+	private Timestamp createdAt;
+	private Timestamp expiresAt;
+}
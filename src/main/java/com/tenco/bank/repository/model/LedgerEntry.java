@@ -0,0 +1,33 @@
+package com.tenco.bank.repository.model;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 복식 원장 항목 (ledger_entry_tb)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class LedgerEntry {
+
+	public static final String DEBIT = "D"; // 계좌에서 나감
+	public static final String CREDIT = "C"; // 계좌로 들어옴
+
+	private Long id;
+	private String movementId;
+	private Integer accountId; // null : 외부 현금
+	private String direction;
+	private Long amount;
+	private Timestamp createdAt;
+
+	// 계좌 잔액에 반영되는 부호 있는 금액
+	public long signedAmount() {
+		return CREDIT.equals(direction) ? amount : -amount;
+	}
+}
@@ -0,0 +1,36 @@
+package com.tenco.bank.repository.model;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 비동기 이체 접수 (pending_transfer_tb)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class PendingTransfer {
+
+	public static final String PENDING = "PENDING";
+	public static final String DONE = "DONE";
+	public static final String FAILED = "FAILED";
+	public static final String PROCESSING = "PROCESSING"; // 엔진 모드 - 엔진에 보냄 (다시 보내지 않음)
+	public static final String UNKNOWN = "UNKNOWN"; // 엔진 모드 - 적용 여부를 알 수 없음 (잔액/내역으로 확인)
+
+	private Long id;
+	private Integer userId;
+	private Integer wAccountId;
+	private Integer lane; // w_account_id mod lanes (접수 시 계산)
+	private String wAccountNumber;
+	private String dAccountNumber;
+	private Long amount;
+	private String status;
+	private String message;
+	private Timestamp createdAt;
+	private Timestamp updatedAt;
+}
@@ -0,0 +1,150 @@
+package com.tenco.bank.service;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.utils.Define;
+
+/**
+ * 단일 노드용 계좌 잠금 관리자
+ * 계좌 번호를 고정 크기의 ReentrantLock 배열(stripe)에 매핑해서
+ * 같은 계좌에 대한 작업을 DB 에 가기 전에 JVM 안에서 줄 세운다.
+ *
+ * - 잠금은 현재 트랜잭션이 끝날 때(커밋/롤백) 해제된다.
+ * - 여러 계좌는 stripe 번호 오름차순으로 잠그므로 이체끼리 교착 상태가 생기지 않는다.
+ * - bank.account.striped-lock.enabled=false 이면 아무 일도 하지 않는다. (DB 잠금만 사용)
+ */
+@Component
+public class AccountLockManager {
+
+	private final boolean enabled;
+	private final long timeoutNanos;
+	private final ReentrantLock[] stripes;
+	private final int mask;
+
+	// 대기 시간 지표
+	private final LongAdder acquireCount = new LongAdder();
+	private final LongAdder contendedCount = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+
+	public AccountLockManager(@Value("${bank.account.striped-lock.enabled:false}") boolean enabled,
+			@Value("${bank.account.striped-lock.stripes:256}") int stripeCount,
+			@Value("${bank.account.striped-lock.timeout-ms:3000}") long timeoutMillis) {
+		this.enabled = enabled;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		// 2의 거듭제곱으로 맞춰서 나머지 연산 대신 비트 마스크 사용
+		int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		this.mask = size - 1;
+	}
+
+	/**
+	 * 계좌 번호에 해당하는 stripe 를 잠그고, 현재 트랜잭션 종료 시 해제한다.
+	 * 반드시 @Transactional 메서드 안에서 DB 접근 전에 호출
+	 * @param accountNumbers 잠글 계좌 번호 (이체 시 출금/입금 계좌 2개)
+	 */
+	public void lockUntilCompletion(String... accountNumbers) {
+		if (!enabled) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("lockUntilCompletion requires an active transaction");
+		}
+
+		// 중복 제거 후 stripe 번호 오름차순 --> 항상 같은 순서로 잠근다.
+		int[] indexes = Arrays.stream(accountNumbers).mapToInt(this::stripeIndex).distinct().sorted().toArray();
+		int locked = 0;
+		try {
+			for (int index : indexes) {
+				acquire(stripes[index]);
+				locked++;
+			}
+		} finally {
+			if (locked < indexes.length) {
+				// 중간에 실패하면 이미 잡은 잠금은 바로 해제
+				release(indexes, locked);
+			}
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				release(indexes, indexes.length);
+			}
+		});
+	}
+
+	private void acquire(ReentrantLock lock) {
+		acquireCount.increment();
+		if (lock.tryLock()) {
+			return;
+		}
+		// 다른 스레드가 사용 중 - 대기 시간 측정
+		contendedCount.increment();
+		long begin = System.nanoTime();
+		boolean acquired;
+		try {
+			acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		long waited = System.nanoTime() - begin;
+		totalWaitNanos.add(waited);
+		maxWaitNanos.accumulate(waited);
+		if (!acquired) {
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+
+	// 잡은 순서의 역순으로 해제
+	private void release(int[] indexes, int count) {
+		for (int i = count - 1; i >= 0; i--) {
+			stripes[indexes[i]].unlock();
+		}
+	}
+
+	private int stripeIndex(String accountNumber) {
+		int h = accountNumber.hashCode();
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	public long getAcquireCount() {
+		return acquireCount.sum();
+	}
+
+	public long getContendedCount() {
+		return contendedCount.sum();
+	}
+
+	public long getTotalWaitNanos() {
+		return totalWaitNanos.sum();
+	}
+
+	public long getMaxWaitNanos() {
+		return maxWaitNanos.get();
+	}
+
+}
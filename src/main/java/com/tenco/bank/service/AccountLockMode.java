@@ -0,0 +1,17 @@
+package com.tenco.bank.service;
+
+// 계좌 잔액 변경 시 사용할 잠금 방식 (bank.account.lock-mode)
+public enum AccountLockMode {
+
+	// 조건부 update 문 한 개로 검사 + 변경 (update 가 잡는 행 잠금만 사용)
+	NONE,
+
+	// 이체 시 두 계좌 행을 id 오름차순으로 SELECT ... FOR UPDATE 한 뒤 변경
+	// --> 잠금 획득 순서가 항상 같으므로 A->B, B->A 이체가 교착 상태에 빠지지 않는다.
+	ORDERED,
+
+	// 계좌 행을 잠그지 않고 (잔액, version) 을 읽어서 계산한 뒤 version 이 그대로일 때만 변경
+	// --> 충돌하면 OptimisticLockingFailureException, 트랜잭션 전체를 @RetryOnConflict 로 다시 실행
+	OPTIMISTIC
+
+}
@@ -3,16 +3,23 @@ package com.tenco.bank.service;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.tenco.bank.aop.RetryOnConflict;
 import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.HistoryCursor;
+import com.tenco.bank.dto.HistoryPageDTO;
 import com.tenco.bank.dto.SaveDTO;
 import com.tenco.bank.dto.TransferDTO;
 import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.engine.TransferEngine;
 import com.tenco.bank.handler.exception.DataDeliveryException;
 import com.tenco.bank.handler.exception.RedirectException;
 import com.tenco.bank.repository.interfaces.AccountRepository;
@@ -27,11 +34,34 @@ public class AccountService {
 	
 	private final AccountRepository accountRepository;
 	private final HistoryRepository historyRepository;
+	private final HistoryAppender historyAppender;
+	private final LedgerService ledgerService;
+	private final AccountLockMode lockMode;
+	private final AccountLockManager accountLockManager;
+	private final int historyPageSize;
+	private final int historyMaxPageSize;
+	private final TransferEngine transferEngine; // null : 엔진 미사용 (bank.engine.enabled=false)
+	private final HotAccountService hotAccountService; // null : hot 계좌 미사용 (bank.account.hot.enabled=false)
 	
 	@Autowired
-	public AccountService(AccountRepository accountRepository,HistoryRepository historyRepository) {
+	public AccountService(AccountRepository accountRepository,HistoryRepository historyRepository,
+			HistoryAppender historyAppender, LedgerService ledgerService,
+			@Value("${bank.account.lock-mode:NONE}") AccountLockMode lockMode,
+			AccountLockManager accountLockManager,
+			@Value("${bank.history.page-size:20}") int historyPageSize,
+			@Value("${bank.history.max-page-size:100}") int historyMaxPageSize,
+			ObjectProvider<TransferEngine> transferEngine,
+			ObjectProvider<HotAccountService> hotAccountService) {
 		this.accountRepository=accountRepository;
 		this.historyRepository=historyRepository;
+		this.historyAppender=historyAppender;
+		this.ledgerService=ledgerService;
+		this.lockMode=lockMode;
+		this.accountLockManager=accountLockManager;
+		this.historyPageSize=historyPageSize;
+		this.historyMaxPageSize=historyMaxPageSize;
+		this.transferEngine=transferEngine.getIfAvailable();
+		this.hotAccountService=hotAccountService.getIfAvailable();
 	}
 
 	
@@ -44,9 +74,10 @@ public class AccountService {
 	@Transactional
 	public void createAccount(SaveDTO dto, Integer principalId) {
 		int result=0;
+		Account account=dto.toAccount(principalId);
 		
 		try {
-			result=accountRepository.insert(dto.toAccount(principalId));
+			result=accountRepository.insert(account);
 		} catch (DataAccessException e) {
 			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.INTERNAL_SERVER_ERROR);
 		} catch (Exception e) {
@@ -57,6 +88,8 @@ public class AccountService {
 			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 		
+		// 초기 잔액을 원장에 기록 (개설 체크포인트)
+		ledgerService.open(account.getId(), account.getBalance());
 	}
 
 
@@ -72,20 +105,108 @@ public class AccountService {
 		} catch (Exception e) {
 			throw new RedirectException(Define.UNKNOWN, HttpStatus.SERVICE_UNAVAILABLE);
 		}
+		if(transferEngine != null || hotAccountService != null) {
+			accountListEntity=accountListEntity.stream().map(this::withCurrentBalance).toList();
+		}
 		return accountListEntity;
 		
 	}
 
+	/**
+	 * 단일 계좌 조회 (본인 계좌만)
+	 * @param accountId
+	 * @param principalId
+	 * @return 계좌 정보
+	 */
+	public Account readAccountByAccountId(Integer accountId, Integer principalId) {
+		Account accountEntity = accountRepository.findByAccountId(accountId);
+		if(accountEntity==null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		accountEntity.checkOwner(principalId);
+		return transferEngine == null && hotAccountService == null ? accountEntity : withCurrentBalance(accountEntity);
+	}
+	
+	/**
+	 * account_tb.balance 가 계좌 잔액 전부가 아닌 경우 실제 잔액으로 바꿔서 보여준다. (캐시된 객체를 바꾸지 않도록 복사)
+	 * - 엔진 사용 시 : DB 잔액은 저널 동기화만큼 늦을 수 있으므로 엔진 잔액
+	 * - hot 계좌 : 계좌 행 + slot 합계
+	 */
+	private Account withCurrentBalance(Account account) {
+		Long balance = null;
+		if(transferEngine != null) {
+			balance = transferEngine.balanceOf(account.getId());
+		} else if(hotAccountService.isHot(account.getId())) {
+			balance = hotAccountService.balanceOf(account.getId());
+		}
+		if(balance == null || balance.equals(account.getBalance())) {
+			return account;
+		}
+		return Account.builder()
+				.id(account.getId())
+				.number(account.getNumber())
+				.password(account.getPassword())
+				.balance(balance)
+				.userId(account.getUserId())
+				.createdAt(account.getCreatedAt())
+				.version(account.getVersion())
+				.build();
+	}
+	
+	/**
+	 * 계좌별 거래 내역 조회 (키셋 페이징)
+	 * 마지막으로 본 행의 (created_at, id) 이후만 읽으므로 history_tb 크기와 상관없이 한 페이지 비용만 든다.
+	 * @param type all, withdrawal, deposit
+	 * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+	 * @param size 페이지 크기 (null 이면 기본값, 최대값으로 제한)
+	 */
+	public HistoryPageDTO readHistoryListByAccountId(String type, Integer accountId, String cursor, Integer size,
+			Integer principalId) {
+		// 1. 조회 구분 확인
+		if(!"all".equals(type) && !"withdrawal".equals(type) && !"deposit".equals(type)) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		
+		// 2. 계좌 존재 여부 및 본인 계좌 여부 확인
+		Account accountEntity = readAccountByAccountId(accountId, principalId);
+		
+		// 3. 한 건 더 읽어서 다음 페이지 존재 여부 판단
+		int limit = (size == null || size <= 0) ? historyPageSize : Math.min(size, historyMaxPageSize);
+		HistoryCursor after = HistoryCursor.decode(cursor);
+		List<History> historyList = historyRepository.findByAccountIdAndCursor(type, accountId,
+				after == null ? null : after.getCreatedAt(),
+				after == null ? null : after.getId(),
+				limit + 1);
+		
+		String nextCursor = null;
+		if(historyList.size() > limit) {
+			historyList = historyList.subList(0, limit);
+			nextCursor = HistoryCursor.of(historyList.get(limit - 1)).encode();
+		}
+		
+		return HistoryPageDTO.builder()
+				.account(accountEntity)
+				.type(type)
+				.size(limit)
+				.historyList(historyList)
+				.nextCursor(nextCursor)
+				.build();
+	}
+	
 	// 한번에 모든 기능을 생각하는 건 힘들다.
 	// 1. 계좌 존재 여부를 확인 -- select (Account)
 	// 2. 본인 계좌 여부를 확인 -- select (1의 결과를 토대로 검증)(=객체 상태값에서 비교)
 	// 3. 계좌 비밀번호 확인 -- 객체 상태값에서 일치 여부 확인
-	// 4. 잔액 여부 확인 -- 객체 상태값에서 확인
-	// 5. 출금 처리 -- Update 쿼리 전송
+	// 4. 잔액 여부 확인 -- 객체 상태값에서 확인 (빠른 실패용, 최종 판단은 5번 쿼리)
+	// 5. 출금 처리 -- 조건부 Update 쿼리 전송 (잔액 검사 + 차감을 한 번에)
 	// 6. hitory에 거래 내역 등록 -- insert(history_tb)
 	// 7. Transaction 처리
+	@RetryOnConflict
 	@Transactional
 	public void updateAccountWithdrawal(WithdrawalDTO dto, Integer principalId) {
+		// 0. (설정 시) 같은 계좌 요청은 JVM 안에서 먼저 줄 세우기
+		accountLockManager.lockUntilCompletion(dto.getWAccountNumber());
+		
 		// 1. 계좌 존재 여부를 확인
 		Account accountEntity = accountRepository.findByNumber(dto.getWAccountNumber());
 		if(accountEntity==null) {
@@ -96,34 +217,44 @@ public class AccountService {
 		accountEntity.checkOwner(principalId);
 		// 3.
 		accountEntity.checkPassword(dto.getWAccountPassword());
+		
+		// (엔진 사용 시) 잔액 검사와 차감, 내역 기록은 엔진이 처리 (DB 는 저널에서 비동기 반영)
+		if(transferEngine != null) {
+			transferEngine.withdraw(accountEntity.getId(), dto.getAmount());
+			return;
+		}
+		
 		// 4. 
-		accountEntity.checkBalance(dto.getAmount());
+		checkBalance(accountEntity, dto.getAmount());
 		
 		// 5. 출금 처리 
-		// accountEntity 객체의 잔액을 변경하고, 업데이트 처리해야 한다.
-		accountEntity.withdraw(dto.getAmount());
-		accountRepository.updateById(accountEntity);
+		// 객체의 잔액을 바꿔서 전체 컬럼을 덮어쓰면 동시 요청 시 갱신이 손실된다.
+		// DB 에서 잔액 검사와 차감을 한 문장으로 처리한다.
+		Long balance = withdraw(accountEntity.getId(), dto.getAmount());
 		
 		// 6. history에 거래 내역 등록
 		History history=new History();
 		history.setAmount(dto.getAmount());
-		history.setWBalance(accountEntity.getBalance());
+		history.setWBalance(balance);
 		history.setDBalance(null);
 		history.setWAccountId(accountEntity.getId());
 		history.setDAccountId(null);
 		
-		int rowResultCount=historyRepository.insert(history);
-		if(rowResultCount!=1) {
-			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
-		}
-		System.out.println("history 확인 : "+history);
+		// (그룹 커밋 사용 시 커밋 직전에 다른 트랜잭션의 내역과 묶어서 기록)
+		historyAppender.append(history);
+		// 복식 원장 (D/C 한 쌍)
+		ledgerService.record(history);
 		
 		// 7. Transaction 처리
 	}
 
 	// 입금 기능 만들기
+	@RetryOnConflict
 	@Transactional
 	public void updateAccountDeposit(DepositDTO dto, Integer principalId) {
+		// 0. (설정 시) 같은 계좌 요청은 JVM 안에서 먼저 줄 세우기
+		accountLockManager.lockUntilCompletion(dto.getDAccountNumber());
+		
 		// 1. 계좌 존재 여부를 확인
 		Account accountEntity = accountRepository.findByNumber(dto.getDAccountNumber());
 		if(accountEntity==null) {
@@ -133,25 +264,22 @@ public class AccountService {
 		// 2. 본인 계좌 여부 확인
 		accountEntity.checkOwner(principalId);
 		
-		// 2. 입금 처리
-		accountEntity.deposit(dto.getAmount());
-		accountRepository.updateById(accountEntity);
+		if(transferEngine != null) {
+			transferEngine.deposit(accountEntity.getId(), dto.getAmount());
+			return;
+		}
+		
+		// 3. 입금 처리 (DB 에서 잔액 증가)
+		Long balance = deposit(accountEntity.getId(), dto.getAmount());
 		History history=History.builder()
 				.amount(dto.getAmount())
 				.wBalance(null)
-				.dBalance(accountEntity.getBalance())
+				.dBalance(balance)
 				.wAccountId(null)
 				.dAccountId(accountEntity.getId())
 				.build();
-		int rowResultcount= historyRepository.insert(history);
-
-		System.out.println("입금 전 ;"+ accountRepository.findByUserId(principalId));
-		
-		
-		System.out.println(history);
-		if(rowResultcount!=1) {
-			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
-		}
+		historyAppender.append(history);
+		ledgerService.record(history);
 	}
 	
 	// 이체 기능 만들기
@@ -159,17 +287,38 @@ public class AccountService {
 	// 2. 입금 계좌 존재 여부 확인 -select (객체 리턴 받은 상태)
 	// 3. 출금 계좌 본인 소유자 확인 -객체 상태값과 세션 id 비교
 	// 4. 출금 계좌 비밀번호 확인 -
-	// 5. 출금 계좌 잔액 여부 확인 - 객체 상태값 확인, dto와 비교
+	// (ORDERED 모드) 두 계좌 행을 id 순서로 잠금 -- select ... for update
+	// 5. 출금 계좌 잔액 여부 확인 - 객체 상태값 확인, dto와 비교 (빠른 실패용)
 	
-	// 6. 입금 계좌 객체 상태값 변경 처리(거래 금액 증가처리)
-	// 7. 입금 계좌 업데이트 처리
-	// 8. 출금 계좌 객체 상태값 변경 처리(거래 금액 감소처리)
-	// 9. 출금 계좌 업데이트 처리
-	// 10. 거래 내역 등록 처리
-	// 11. 트랜잭션 처리
+	// 6. 출금 계좌 조건부 차감 (잔액 부족 시 0 row --> 예외)
+	// 7. 입금 계좌 잔액 증가
+	// 8. 거래 내역 등록 처리
+	// 9. 트랜잭션 처리
 	
+	@RetryOnConflict
 	@Transactional
 	public void updateAccountTransfer(TransferDTO dto, Integer principalId) {
+		transfer(dto, principalId, false);
+	}
+	
+	/**
+	 * 비동기 이체 처리 전용 - AsyncTransferService 가 접수 시 비밀번호를 확인했으므로 다시 확인하지 않는다.
+	 * (비밀번호를 저장하지 않음) 같은 패키지에서만 호출할 수 있다.
+	 */
+	@RetryOnConflict
+	@Transactional
+	void updateAccountTransferVerified(TransferDTO dto, Integer principalId) {
+		transfer(dto, principalId, true);
+	}
+	
+	/**
+	 * 이체 처리
+	 * @param passwordVerified 접수 시 비밀번호를 이미 확인한 경우
+	 */
+	private void transfer(TransferDTO dto, Integer principalId, boolean passwordVerified) {
+		// 0. (설정 시) 두 계좌의 stripe 를 정해진 순서로 잠금 - 교착 없음
+		accountLockManager.lockUntilCompletion(dto.getWAccountNumber(), dto.getDAccountNumber());
+		
 		// 1. 출금 계좌 존재 여부를 확인
 		Account accountEntity = accountRepository.findByNumber(dto.getWAccountNumber());
 		if(accountEntity==null) {	
@@ -186,32 +335,128 @@ public class AccountService {
 		accountEntity.checkOwner(principalId);
 		
 		// 4. 출금 계좌 비밀번호 확인
-		accountEntity.checkPassword(dto.getPassword());
+		if(!passwordVerified) {
+			accountEntity.checkPassword(dto.getPassword());
+		}
+		
+		if(transferEngine != null) {
+			transferEngine.transfer(accountEntity.getId(), depositAccount.getId(), dto.getAmount());
+			return;
+		}
+		
+		// ORDERED 모드 - 잠금을 잡은 뒤의 최신 잔액으로 검사한다.
+		if(lockMode == AccountLockMode.ORDERED) {
+			accountEntity.setBalance(lockInIdOrder(accountEntity.getId(), depositAccount.getId()));
+		}
 		
 		// 5. 출금 계좌 잔액 여부 확인 - 객체 상태값 확인, dto와 비교
-		accountEntity.checkBalance(dto.getAmount());
+		checkBalance(accountEntity, dto.getAmount());
 		
-		// 6. 입금 계좌 객체 상태값 변경 처리(거래 금액 증가처리)
-		depositAccount.deposit(dto.getAmount());
-		accountRepository.updateById(depositAccount);
+		// 6. 출금 계좌 차감 - 실패하면 입금 계좌는 건드리지 않는다.
+		Long wBalance = withdraw(accountEntity.getId(), dto.getAmount());
 		
-		// 7. 입금 계좌 업데이트 처리
-		accountEntity.withdraw(dto.getAmount());
-		accountRepository.updateById(accountEntity);
+		// 7. 입금 계좌 잔액 증가
+		Long dBalance = deposit(depositAccount.getId(), dto.getAmount());
 		
 		// 8. 거래 내역 등록 처리
 		History history=History.builder()
 				.amount(dto.getAmount())
-				.wBalance(accountEntity.getBalance())
-				.dBalance(depositAccount.getBalance())
+				.wBalance(wBalance)
+				.dBalance(dBalance)
 				.wAccountId(accountEntity.getId())
 				.dAccountId(depositAccount.getId())
 				.build();
 		
-		int rowResultcount= historyRepository.insert(history);
-		if(rowResultcount!=1) {
-			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
+		historyAppender.append(history);
+		ledgerService.record(history);
+	}
+	
+	/**
+	 * 두 계좌 행을 id 가 작은 쪽부터 SELECT ... FOR UPDATE 로 잠근다.
+	 * 호출한 트랜잭션이 끝날 때까지 잠금이 유지된다.
+	 * @return 출금 계좌(withdrawAccountId)의 잠금 후 잔액
+	 */
+	private Long lockInIdOrder(Integer withdrawAccountId, Integer depositAccountId) {
+		Integer first = Math.min(withdrawAccountId, depositAccountId);
+		Integer second = Math.max(withdrawAccountId, depositAccountId);
+		
+		Account firstLocked = accountRepository.findByIdForUpdate(first);
+		Account secondLocked = accountRepository.findByIdForUpdate(second);
+		if(firstLocked == null || secondLocked == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		return first.equals(withdrawAccountId) ? firstLocked.getBalance() : secondLocked.getBalance();
+	}
+	
+	/**
+	 * 빠른 실패용 잔액 검사
+	 * hot 계좌는 잔액이 slot 에 나뉘어 있어 계좌 행만으로 판단할 수 없으므로 차감 쿼리에 맡긴다.
+	 */
+	private void checkBalance(Account accountEntity, Long amount) {
+		if(hotAccountService == null || !hotAccountService.isHot(accountEntity.getId())) {
+			accountEntity.checkBalance(amount);
+		}
+	}
+	
+	/**
+	 * 조건부 차감 후 변경된 잔액 반환
+	 * 잔액 검사와 차감이 한 문장이므로 동시 출금에도 마이너스 잔액이 생기지 않는다.
+	 * 반드시 트랜잭션 안에서 호출 (update 로 잡은 행 잠금이 커밋까지 유지된다)
+	 */
+	private Long withdraw(Integer accountId, Long amount) {
+		if(hotAccountService != null && hotAccountService.isHot(accountId)) {
+			return hotAccountService.withdraw(accountId, amount);
+		}
+		if(lockMode == AccountLockMode.OPTIMISTIC) {
+			Account current = readVersioned(accountId);
+			current.checkBalance(amount);
+			return updateIfVersion(current, current.getBalance() - amount);
+		}
+		int rowResultCount = accountRepository.updateBalanceWithdraw(accountId, amount);
+		if(rowResultCount != 1) {
+			throw new DataDeliveryException(Define.LACK_Of_BALANCE, HttpStatus.BAD_REQUEST);
+		}
+		return accountRepository.findBalanceById(accountId);
+	}
+	
+	/**
+	 * 잔액 증가 후 변경된 잔액 반환
+	 */
+	private Long deposit(Integer accountId, Long amount) {
+		if(hotAccountService != null && hotAccountService.isHot(accountId)) {
+			return hotAccountService.deposit(accountId, amount);
+		}
+		if(lockMode == AccountLockMode.OPTIMISTIC) {
+			Account current = readVersioned(accountId);
+			return updateIfVersion(current, current.getBalance() + amount);
+		}
+		int rowResultCount = accountRepository.updateBalanceDeposit(accountId, amount);
+		if(rowResultCount != 1) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		return accountRepository.findBalanceById(accountId);
+	}
+	
+	/**
+	 * OPTIMISTIC 모드 - 잠그지 않고 현재 (잔액, version) 읽기 (캐시를 거치지 않는 조회)
+	 */
+	private Account readVersioned(Integer accountId) {
+		Account current = accountRepository.findByAccountId(accountId);
+		if(current == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		return current;
+	}
+	
+	/**
+	 * OPTIMISTIC 모드 - 읽은 뒤 다른 변경이 없었을 때만 반영
+	 * 충돌하면 예외로 트랜잭션 전체를 롤백하고 @RetryOnConflict 가 처음부터 다시 실행한다.
+	 */
+	private Long updateIfVersion(Account current, Long balance) {
+		if(accountRepository.updateBalanceIfVersion(current.getId(), balance, current.getVersion()) != 1) {
+			throw new OptimisticLockingFailureException("account " + current.getId() + " changed since version " + current.getVersion());
 		}
+		return balance;
 	}
 	
 }
@@ -0,0 +1,293 @@
+package com.tenco.bank.service;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.engine.TransferEngine;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.interfaces.PendingTransferRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.PendingTransfer;
+import com.tenco.bank.utils.Define;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 비동기 이체 - 접수(202) 후 워커가 처리, 클라이언트는 상태 조회
+ *
+ * - 접수 : 계좌/소유자/비밀번호 확인 후 pending_transfer_tb 에 PENDING 으로 저장하고 바로 응답한다.
+ * - 처리 : lane 스레드 lanes 개. 출금 계좌 id 로 lane 이 정해지므로 같은 출금 계좌의 이체는
+ *   한 스레드가 접수 순서대로 처리한다. (요청 스레드 수와 무관하게 DB 작업 동시성이 lanes 로 묶임)
+ * - 테이블이 곧 큐다. 접수 시 lane 을 깨우고, 놓친 신호나 재기동 후 남은 건은 poll-interval 마다 다시 읽는다.
+ * - DB 모드 : PENDING --> DONE 변경을 이체와 같은 트랜잭션에서 한다. (조건부 update 가 처리권 - 두 번 처리되지 않음)
+ *   이체가 롤백되면 상태도 PENDING 으로 남는다.
+ *   업무 오류(잔액 부족 등)는 FAILED + 메세지, 그 밖의 오류는 PENDING 으로 두고 다음 poll 에 다시 시도한다.
+ * - 엔진 모드 (bank.engine.enabled=true) : 엔진은 DB 트랜잭션 밖에서 이체를 적용하므로 롤백으로 되돌릴 수 없다.
+ *   그래서 처리권 (PENDING --> PROCESSING) 을 먼저 커밋하고 엔진에 보낸다. 그 뒤로는 다시 보내지 않는다.
+ *   --> 성공 DONE, 업무 오류 FAILED, 응답 시간 초과(RESULT_UNKNOWN) 나 예상 못 한 오류는 UNKNOWN (잔액/내역으로 확인)
+ *   --> 엔진이 받지 않은 명령 (대기열 가득 참 등 - 적용되지 않음) 만 PENDING 으로 되돌려 다시 시도한다.
+ *   --> 결과 기록 전에 종료되면 PROCESSING 으로 남는다. (UNKNOWN 과 같이 확인 대상)
+ * - 노드가 여럿이면 중복 처리는 없지만 같은 출금 계좌의 처리 순서는 노드 사이에서 보장되지 않는다.
+ */
+@Slf4j
+@Service
+public class AsyncTransferService implements InitializingBean, DisposableBean {
+
+	private final AccountRepository accountRepository;
+	private final PendingTransferRepository pendingTransferRepository;
+	private final AccountService accountService;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean engineEnabled;
+	private final int batchSize;
+	private final long pollIntervalMillis;
+	private final long maxPending;
+	private final Lane[] lanes;
+	private volatile boolean running;
+
+	public AsyncTransferService(AccountRepository accountRepository,
+			PendingTransferRepository pendingTransferRepository, AccountService accountService,
+			PlatformTransactionManager transactionManager, ObjectProvider<TransferEngine> transferEngine,
+			@Value("${bank.transfer.async.lanes:4}") int lanes,
+			@Value("${bank.transfer.async.batch-size:100}") int batchSize,
+			@Value("${bank.transfer.async.poll-interval-ms:1000}") long pollIntervalMillis,
+			@Value("${bank.transfer.async.max-pending:10000}") long maxPending) {
+		this.accountRepository = accountRepository;
+		this.pendingTransferRepository = pendingTransferRepository;
+		this.accountService = accountService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.engineEnabled = transferEngine.getIfAvailable() != null;
+		this.batchSize = batchSize;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.maxPending = maxPending;
+		this.lanes = new Lane[lanes];
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = new Lane(i);
+		}
+	}
+
+	/**
+	 * 이체 접수 (금액, 계좌 번호 입력 검사는 컨트롤러에서)
+	 * @return 저장된 접수 건 (id, PENDING)
+	 */
+	public PendingTransfer submit(TransferDTO dto, Integer principalId) {
+		if (pendingTransferRepository.countPending() >= maxPending) {
+			throw new DataDeliveryException(Define.TRANSFER_QUEUE_FULL, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		Account source = accountRepository.findByNumber(dto.getWAccountNumber());
+		if (source == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		source.checkOwner(principalId);
+		source.checkPassword(dto.getPassword());
+		if (accountRepository.findByNumber(dto.getDAccountNumber()) == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+
+		PendingTransfer pending = PendingTransfer.builder()
+				.userId(principalId)
+				.wAccountId(source.getId())
+				.lane(laneOf(source.getId()))
+				.wAccountNumber(dto.getWAccountNumber())
+				.dAccountNumber(dto.getDAccountNumber())
+				.amount(dto.getAmount())
+				.status(PendingTransfer.PENDING)
+				.build();
+		if (pendingTransferRepository.insert(pending) != 1) {
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		lanes[laneOf(source.getId())].wake();
+		return pending;
+	}
+
+	/**
+	 * 접수 건 상태 조회 (본인 접수 건만)
+	 */
+	public PendingTransfer readTransfer(Long id, Integer principalId) {
+		PendingTransfer pending = pendingTransferRepository.findById(id);
+		if (pending == null || !pending.getUserId().equals(principalId)) {
+			throw new DataDeliveryException(Define.NOT_EXIST_TRANSFER, HttpStatus.NOT_FOUND);
+		}
+		return pending;
+	}
+
+	private int laneOf(Integer accountId) {
+		return Math.floorMod(accountId, lanes.length);
+	}
+
+	/**
+	 * @return true : 처리 완료(DONE/FAILED/UNKNOWN 또는 이미 처리됨), false : 일시 오류 (PENDING 유지)
+	 */
+	private boolean process(PendingTransfer pending) {
+		TransferDTO dto = new TransferDTO(pending.getAmount(), pending.getWAccountNumber(),
+				pending.getDAccountNumber(), null);
+		if (engineEnabled) {
+			return processWithEngine(pending, dto);
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				// 처리권 - 이체가 롤백되면 같이 롤백
+				if (pendingTransferRepository.updateStatusIfPending(pending.getId(), PendingTransfer.DONE, null) == 0) {
+					return;
+				}
+				accountService.updateAccountTransferVerified(dto, pending.getUserId());
+			});
+			return true;
+		} catch (DataDeliveryException e) {
+			if (e.getStatus().is4xxClientError()) {
+				pendingTransferRepository.updateStatusIfPending(pending.getId(), PendingTransfer.FAILED, e.getMessage());
+				return true;
+			}
+			log.warn("async transfer {} will be retried: {}", pending.getId(), e.getMessage());
+			return false;
+		} catch (RuntimeException e) {
+			log.warn("async transfer {} will be retried", pending.getId(), e);
+			return false;
+		}
+	}
+
+	// 엔진 모드 - 처리권을 먼저 커밋하고 한 번만 보낸다.
+	private boolean processWithEngine(PendingTransfer pending, TransferDTO dto) {
+		if (pendingTransferRepository.updateStatusIfCurrent(pending.getId(), PendingTransfer.PENDING,
+				PendingTransfer.PROCESSING, null) == 0) {
+			return true;
+		}
+		try {
+			accountService.updateAccountTransferVerified(dto, pending.getUserId());
+			finish(pending, PendingTransfer.DONE, null);
+		} catch (DataDeliveryException e) {
+			if (e.getStatus().is4xxClientError()) {
+				finish(pending, PendingTransfer.FAILED, e.getMessage());
+			} else if (Define.RESULT_UNKNOWN.equals(e.getMessage())) {
+				log.error("async transfer {} may or may not have been applied", pending.getId());
+				finish(pending, PendingTransfer.UNKNOWN, e.getMessage());
+			} else {
+				// 엔진이 받지 않은 명령 - 적용되지 않았으므로 다시 시도
+				log.warn("async transfer {} will be retried: {}", pending.getId(), e.getMessage());
+				pendingTransferRepository.updateStatusIfCurrent(pending.getId(), PendingTransfer.PROCESSING,
+						PendingTransfer.PENDING, null);
+				return false;
+			}
+		} catch (RuntimeException e) {
+			log.error("async transfer {} may or may not have been applied", pending.getId(), e);
+			finish(pending, PendingTransfer.UNKNOWN, Define.RESULT_UNKNOWN);
+		}
+		return true;
+	}
+
+	// PROCESSING --> 결과 (실패하면 PROCESSING 으로 남고 다시 보내지 않는다)
+	private void finish(PendingTransfer pending, String status, String message) {
+		try {
+			pendingTransferRepository.updateStatusIfCurrent(pending.getId(), PendingTransfer.PROCESSING, status, message);
+		} catch (RuntimeException e) {
+			log.error("async transfer {} finished as {} but the status was not saved", pending.getId(), status, e);
+		}
+	}
+
+	// 출금 계좌 id mod lanes 가 같은 접수 건을 순서대로 처리하는 스레드
+	private final class Lane implements Runnable {
+		private final int index;
+		private final Semaphore signal = new Semaphore(0);
+		private Thread thread;
+
+		Lane(int index) {
+			this.index = index;
+		}
+
+		void wake() {
+			if (signal.availablePermits() == 0) {
+				signal.release();
+			}
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				try {
+					if (!drain()) {
+						signal.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+						signal.drainPermits();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} catch (RuntimeException e) {
+					// 대기 건 조회 실패 (DB 연결 등) - 다음 poll 에 다시 시도
+					log.warn("async transfer lane {} failed to read pending transfers", index, e);
+					sleepQuietly();
+				}
+			}
+		}
+
+		/**
+		 * @return true : 한 batch 를 모두 처리함 (바로 다음 batch), false : 대기
+		 */
+		private boolean drain() {
+			List<PendingTransfer> batch = pendingTransferRepository.findPendingByLane(index, batchSize);
+			for (PendingTransfer pending : batch) {
+				if (!running) {
+					return false;
+				}
+				if (!process(pending)) {
+					// 뒤의 건을 먼저 처리하지 않도록 이 lane 은 잠시 쉰다. (출금 계좌별 순서 유지)
+					return false;
+				}
+			}
+			return batch.size() == batchSize;
+		}
+
+		private void sleepQuietly() {
+			try {
+				Thread.sleep(pollIntervalMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		// 이전 실행과 lanes 가 다르면 남은 PENDING 건을 지금 lane 으로 옮긴다. (모든 노드가 같은 lanes 를 써야 한다)
+		int moved = pendingTransferRepository.updatePendingLanes(lanes.length);
+		if (moved > 0) {
+			log.info("moved {} pending transfers to {} lanes", moved, lanes.length);
+		}
+		running = true;
+		for (Lane lane : lanes) {
+			lane.thread = new Thread(lane, "transfer-lane-" + lane.index);
+			lane.thread.setDaemon(true);
+			lane.thread.start();
+		}
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		for (Lane lane : lanes) {
+			lane.signal.release();
+		}
+		for (Lane lane : lanes) {
+			lane.thread.join(pollIntervalMillis * 2);
+		}
+	}
+
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	public long getPendingCount() {
+		return pendingTransferRepository.countPending();
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.tenco.bank.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tenco.bank.repository.interfaces.DailyBalanceRepository;
+import com.tenco.bank.repository.interfaces.LedgerRepository;
+import com.tenco.bank.repository.model.DailyBalance;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일별 잔액 스냅샷 + 시점 잔액 조회
+ *
+ * - 매일 새벽 전날까지의 스냅샷을 만든다. 마지막 스냅샷 이후 원장 항목이 있는 계좌만 기록한다.
+ *   (하루치 원장 항목 범위 + 이미 반영한 원장 ID 이후만 읽음 - 전체 내역을 다시 읽지 않음)
+ * - 빠진 날짜가 있으면 (첫 실행, 서버 중지 등) 하루씩 채운다.
+ * - 시점 잔액 = 그 날 이전의 최근 스냅샷 + 스냅샷 이후 ~ 시점까지의 원장 항목 (보통 같은 날 항목만)
+ * - 자정 직전에 시작해서 자정 이후 커밋된 거래는 다음 날 스냅샷 기준으로 잡히지 않을 수 있어서
+ *   작업은 자정 후 여유를 두고 실행한다. (bank.snapshot.cron)
+ */
+@Slf4j
+@Service
+public class BalanceSnapshotService {
+
+	private final DailyBalanceRepository dailyBalanceRepository;
+	private final LedgerRepository ledgerRepository;
+
+	public BalanceSnapshotService(DailyBalanceRepository dailyBalanceRepository, LedgerRepository ledgerRepository) {
+		this.dailyBalanceRepository = dailyBalanceRepository;
+		this.ledgerRepository = ledgerRepository;
+	}
+
+	@Scheduled(cron = "${bank.snapshot.cron:0 10 0 * * *}")
+	public void snapshotYesterday() {
+		int created = snapshotThrough(LocalDate.now().minusDays(1));
+		log.info("created {} daily balance snapshots", created);
+	}
+
+	/**
+	 * lastDate 까지 스냅샷 생성 (하루씩, 문장마다 자동 커밋)
+	 * @return 생성한 스냅샷 수
+	 */
+	public int snapshotThrough(LocalDate lastDate) {
+		Date lastDone = dailyBalanceRepository.findLastSnapshotDate();
+		LocalDate day;
+		if (lastDone != null) {
+			day = lastDone.toLocalDate().plusDays(1);
+		} else {
+			Timestamp firstEntry = dailyBalanceRepository.findFirstEntryTime();
+			if (firstEntry == null) {
+				return 0;
+			}
+			day = firstEntry.toLocalDateTime().toLocalDate();
+		}
+
+		int created = 0;
+		boolean first = lastDone == null;
+		for (; !day.isAfter(lastDate); day = day.plusDays(1)) {
+			// 첫 스냅샷은 그 날 이전 항목까지 모두 포함
+			Timestamp from = first ? null : Timestamp.valueOf(day.atStartOfDay());
+			first = false;
+			Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+			try {
+				created += dailyBalanceRepository.insertSnapshots(Date.valueOf(day), from, to,
+						dailyBalanceRepository.findLastEntryId());
+			} catch (DuplicateKeyException e) {
+				// 다른 노드가 같은 날짜를 먼저 처리함
+				log.info("daily balance snapshot for {} already created", day);
+				break;
+			}
+		}
+		return created;
+	}
+
+	/**
+	 * at 시점의 계좌 잔액
+	 */
+	public long balanceAt(Integer accountId, LocalDateTime at) {
+		DailyBalance snapshot = dailyBalanceRepository.findLatestBefore(accountId, Date.valueOf(at.toLocalDate()));
+		long base = snapshot == null ? 0L : snapshot.getBalance();
+		long afterEntryId = snapshot == null ? 0L : snapshot.getLastEntryId();
+		return base + ledgerRepository.sumTail(accountId, afterEntryId, Timestamp.valueOf(at));
+	}
+
+}
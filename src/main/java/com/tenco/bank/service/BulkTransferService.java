@@ -0,0 +1,286 @@
+package com.tenco.bank.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenco.bank.dto.BulkTransferDTO;
+import com.tenco.bank.dto.BulkTransferItemDTO;
+import com.tenco.bank.dto.BulkTransferResultDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.cache.CachingAccountRepository;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.interfaces.HistoryRepository;
+import com.tenco.bank.repository.interfaces.LedgerRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.History;
+import com.tenco.bank.repository.model.LedgerEntry;
+import com.tenco.bank.utils.Define;
+
+/**
+ * 대량 이체 (급여 이체) 서비스
+ * 출금 계좌 1개에서 여러 입금 계좌로 이체한다.
+ *
+ * 1. 출금 계좌 확인 (소유자, 비밀번호)
+ * 2. 입금 계좌 전체를 IN 쿼리로 한 번에 조회 후 건별 검증
+ * 3. chunk 단위 트랜잭션 - 관련 계좌 행을 id 순서로 잠그고
+ *    입금 update, 출금 update(합계 1회), history insert, 원장 insert 를 BATCH 실행기로 묶어서 전송
+ * 4. 건별 결과 반환 (한 chunk 가 실패하면 그 chunk 만 실패 처리)
+ *
+ * - hot 계좌(HotAccountService)는 잔액 일부가 slot 행에 있어 계좌 행만 잠그고 계산하는 chunk 처리와 맞지 않으므로 받지 않는다.
+ *   출금 계좌가 hot 이면 요청 전체, 입금 계좌가 hot 이면 그 건만 실패
+ */
+@Service
+public class BulkTransferService {
+
+	private static final int IN_QUERY_SIZE = 1000;
+
+	private final AccountRepository accountRepository;
+	private final AccountLockManager accountLockManager;
+	private final LedgerService ledgerService;
+	private final SqlSessionTemplate batchSqlSession;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+	private final int maxItems;
+	private final boolean engineEnabled;
+	private final HotAccountService hotAccountService; // null : hot 계좌 미사용
+
+	@Autowired
+	public BulkTransferService(AccountRepository accountRepository, AccountLockManager accountLockManager,
+			LedgerService ledgerService, SqlSessionFactory sqlSessionFactory, PlatformTransactionManager transactionManager,
+			@Value("${bank.transfer.bulk.chunk-size:500}") int chunkSize,
+			@Value("${bank.transfer.bulk.max-items:10000}") int maxItems,
+			@Value("${bank.engine.enabled:false}") boolean engineEnabled,
+			ObjectProvider<HotAccountService> hotAccountService) {
+		this.accountRepository = accountRepository;
+		this.accountLockManager = accountLockManager;
+		this.ledgerService = ledgerService;
+		// 같은 SQL 을 연속으로 호출하면 JDBC batch 하나로 모아서 보낸다. (flushStatements 시 전송)
+		this.batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = chunkSize;
+		this.maxItems = maxItems;
+		this.engineEnabled = engineEnabled;
+		this.hotAccountService = hotAccountService.getIfAvailable();
+	}
+
+	/**
+	 * 업로드 파일(CSV) 파싱 - 한 줄에 "입금계좌번호,금액"
+	 * 형식이 틀린 줄은 금액 없이 담아서 건별 결과에서 실패로 보고한다.
+	 */
+	public List<BulkTransferItemDTO> parseCsv(InputStream in) throws IOException {
+		List<BulkTransferItemDTO> items = new ArrayList<>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+			String[] columns = line.split(",");
+			Long amount = null;
+			if (columns.length == 2) {
+				try {
+					amount = Long.valueOf(columns[1].trim());
+				} catch (NumberFormatException e) {
+					amount = null;
+				}
+			}
+			items.add(new BulkTransferItemDTO(columns[0].trim(), amount));
+		}
+		return items;
+	}
+
+	public List<BulkTransferResultDTO> transferAll(BulkTransferDTO dto, Integer principalId) {
+		// 이체 엔진 사용 시 잔액은 엔진이 가지고 있으므로 DB 를 직접 바꾸는 대량 이체는 받지 않는다.
+		if (engineEnabled) {
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		List<BulkTransferItemDTO> items = dto.getItems();
+		if (items == null || items.isEmpty() || items.size() > maxItems) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+
+		// 1. 출금 계좌 확인
+		Account source = accountRepository.findByNumber(dto.getWAccountNumber());
+		if (source == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		source.checkOwner(principalId);
+		source.checkPassword(dto.getPassword());
+		if (isHot(source)) {
+			throw new DataDeliveryException(Define.HOT_ACCOUNT_NOT_SUPPORTED, HttpStatus.BAD_REQUEST);
+		}
+
+		// 2. 입금 계좌 일괄 조회 후 건별 검증
+		Map<String, Account> destinations = findDestinations(items);
+		BulkTransferResultDTO[] results = new BulkTransferResultDTO[items.size()];
+		List<Integer> valid = new ArrayList<>();
+		for (int i = 0; i < items.size(); i++) {
+			BulkTransferItemDTO item = items.get(i);
+			Account destination = destinations.get(item.getAccountNumber());
+			if (item.getAmount() == null || item.getAmount() <= 0) {
+				results[i] = BulkTransferResultDTO.fail(i, item, Define.ENTER_YOUR_BALANCE);
+			} else if (destination == null) {
+				results[i] = BulkTransferResultDTO.fail(i, item, Define.NOT_EXIST_ACCOUNT);
+			} else if (destination.getId().equals(source.getId())) {
+				results[i] = BulkTransferResultDTO.fail(i, item, Define.INVALID_INPUT);
+			} else if (isHot(destination)) {
+				results[i] = BulkTransferResultDTO.fail(i, item, Define.HOT_ACCOUNT_NOT_SUPPORTED);
+			} else {
+				valid.add(i);
+			}
+		}
+
+		// 3. chunk 단위 트랜잭션
+		for (int from = 0; from < valid.size(); from += chunkSize) {
+			List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+			try {
+				List<BulkTransferResultDTO> chunkResults = transactionTemplate
+						.execute(status -> applyChunk(source, chunk, items, destinations));
+				for (BulkTransferResultDTO result : chunkResults) {
+					results[result.getIndex()] = result;
+				}
+			} catch (DataAccessException | DataDeliveryException e) {
+				// chunk 전체 롤백
+				for (Integer index : chunk) {
+					results[index] = BulkTransferResultDTO.fail(index, items.get(index), Define.FAILED_PROCESSING);
+				}
+			}
+		}
+		return List.of(results);
+	}
+
+	private boolean isHot(Account account) {
+		return hotAccountService != null && hotAccountService.isHot(account.getId());
+	}
+
+	// 입금 계좌 번호 목록 --> IN 쿼리 (IN_QUERY_SIZE 개씩)
+	private Map<String, Account> findDestinations(List<BulkTransferItemDTO> items) {
+		List<String> numbers = items.stream()
+				.map(BulkTransferItemDTO::getAccountNumber)
+				.filter(number -> number != null && !number.isEmpty())
+				.distinct()
+				.toList();
+		Map<String, Account> destinations = new HashMap<>();
+		for (int from = 0; from < numbers.size(); from += IN_QUERY_SIZE) {
+			List<String> part = numbers.subList(from, Math.min(from + IN_QUERY_SIZE, numbers.size()));
+			for (Account account : accountRepository.findByNumberList(part)) {
+				destinations.put(account.getNumber(), account);
+			}
+		}
+		return destinations;
+	}
+
+	/**
+	 * chunk 하나를 처리한다. (transactionTemplate 안에서 호출)
+	 * 잠금을 잡은 잔액으로 건별 잔액을 계산하므로 history 의 잔액도 정확하다.
+	 * 문장 순서 : 입금 update N건 --> 출금 update 1건 --> history insert N건 --> 원장 insert 2N건 (같은 문장끼리 batch)
+	 * 원장 체크포인트는 남기지 않는다. (이후 단건 거래에서 찍힘 - 그 전까지 잔액 계산이 tail 을 조금 더 읽음)
+	 */
+	private List<BulkTransferResultDTO> applyChunk(Account source, List<Integer> chunk, List<BulkTransferItemDTO> items,
+			Map<String, Account> destinations) {
+		AccountRepository accounts = batchSqlSession.getMapper(AccountRepository.class);
+		HistoryRepository histories = batchSqlSession.getMapper(HistoryRepository.class);
+		LedgerRepository ledger = batchSqlSession.getMapper(LedgerRepository.class);
+
+		// 1. 출금 계좌 + 입금 계좌 행을 id 순서로 잠금 (stripe 잠금을 켠 경우 그것부터)
+		TreeSet<Integer> ids = new TreeSet<>();
+		List<String> numbers = new ArrayList<>();
+		ids.add(source.getId());
+		numbers.add(source.getNumber());
+		for (Integer index : chunk) {
+			ids.add(destinations.get(items.get(index).getAccountNumber()).getId());
+			numbers.add(items.get(index).getAccountNumber());
+		}
+		accountLockManager.lockUntilCompletion(numbers.toArray(new String[0]));
+		Map<Integer, Long> balances = new HashMap<>();
+		for (Account locked : accounts.findByIdListForUpdate(new ArrayList<>(ids))) {
+			balances.put(locked.getId(), locked.getBalance());
+		}
+		if (!balances.containsKey(source.getId())) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+
+		// 2. 건별 잔액 계산 + 입금 update (batch)
+		List<BulkTransferResultDTO> chunkResults = new ArrayList<>();
+		List<History> historyList = new ArrayList<>();
+		long sourceBalance = balances.get(source.getId());
+		long debitTotal = 0;
+		for (Integer index : chunk) {
+			BulkTransferItemDTO item = items.get(index);
+			Integer destinationId = destinations.get(item.getAccountNumber()).getId();
+			long amount = item.getAmount();
+			if (amount > sourceBalance) {
+				chunkResults.add(BulkTransferResultDTO.fail(index, item, Define.LACK_Of_BALANCE));
+				continue;
+			}
+			sourceBalance -= amount;
+			debitTotal += amount;
+			long destinationBalance = balances.merge(destinationId, amount, Long::sum);
+			accounts.updateBalanceDeposit(destinationId, amount);
+			historyList.add(History.builder()
+					.amount(amount)
+					.wBalance(sourceBalance)
+					.dBalance(destinationBalance)
+					.wAccountId(source.getId())
+					.dAccountId(destinationId)
+					.build());
+			chunkResults.add(BulkTransferResultDTO.success(index, item));
+		}
+		if (historyList.isEmpty()) {
+			return chunkResults;
+		}
+
+		// 3. 출금 update 는 합계로 1번
+		accounts.updateBalanceWithdraw(source.getId(), debitTotal);
+
+		// 4. 거래 내역 insert (batch)
+		for (History history : historyList) {
+			histories.insert(history);
+		}
+		
+		// 5. 복식 원장 insert (batch)
+		for (History history : historyList) {
+			for (LedgerEntry entry : ledgerService.toEntries(history)) {
+				ledger.insertEntry(entry);
+			}
+		}
+
+		// 6. 전송 후 건수 확인 - 0 건이 있으면 chunk 롤백
+		for (BatchResult batchResult : batchSqlSession.flushStatements()) {
+			for (int updateCount : batchResult.getUpdateCounts()) {
+				if (updateCount == 0) {
+					throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
+				}
+			}
+		}
+
+		// 7. BATCH 매퍼는 계좌 캐시를 거치지 않으므로 직접 무효화
+		if (accountRepository instanceof CachingAccountRepository cache) {
+			ids.forEach(cache::evictBalance);
+		}
+		return chunkResults;
+	}
+
+}
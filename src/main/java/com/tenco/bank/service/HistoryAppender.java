@@ -0,0 +1,335 @@
+package com.tenco.bank.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.HistoryRepository;
+import com.tenco.bank.repository.model.History;
+import com.tenco.bank.utils.Define;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 거래 내역(history_tb) 기록기 - 그룹 커밋
+ * 동시에 커밋하려는 여러 트랜잭션의 History 를 전용 스레드가 모아서
+ * JDBC batch 한 번 + 커밋 한 번으로 기록한다.
+ *
+ * - 업무 트랜잭션은 커밋 직전(beforeCommit)에 자기 내역이 커밋될 때까지 기다린다.
+ *   --> 내역이 DB 에 커밋된 뒤에야 업무 트랜잭션이 커밋되고 응답이 나간다.
+ * - 기다리는 동안에도 업무 트랜잭션은 계좌 행 잠금을 잡고 있다. 같은 계좌 거래는 행 잠금으로 줄을 서므로
+ *   서로 묶일 수 없고, 기록 스레드 왕복만큼 잠금 시간이 늘어난다. 그래서 같은 시각에 커밋 중인 다른
+ *   트랜잭션이 없으면 묶을 상대가 없는 것으로 보고 업무 트랜잭션 안에서 바로 insert 한다.
+ *   --> 그룹 커밋은 서로 다른 계좌의 거래가 동시에 커밋할 때만 일어난다.
+ * - 내역 기록이 실패하거나 시간 초과면 업무 트랜잭션이 롤백된다.
+ * - 내역 기록 후 업무 트랜잭션이 롤백되면 해당 내역을 삭제해서 보정한다.
+ *   (보정 전 잠깐 동안은 롤백된 거래의 내역이 조회될 수 있다)
+ * - 묶어서 기록한 내역은 업무 트랜잭션과 다른 커넥션에서 먼저 커밋된다. 내역 커밋 후 업무 트랜잭션 커밋 전에
+ *   프로세스가 죽으면 보정이 실행되지 않아 실제로는 없는 거래의 내역(고아 행)이 남는다.
+ *   --> 내역에 원장 거래 ID (movement_id) 를 같이 기록하고 (LedgerService 가 같은 값으로 원장 기록),
+ *       기동 시 마지막 내역 시각부터 orphan-lookback-minutes 이전까지 원장 항목이 없는 내역을 삭제한다.
+ *       다른 노드가 커밋 중인 거래를 지우지 않도록 timeout-ms 보다 최근 내역은 건드리지 않는다.
+ * - 기록 스레드는 커넥션 1개를 계속 점유한다. 대기 중인 업무 트랜잭션들이
+ *   풀을 다 쓰고 있어도 기록 스레드가 커넥션을 기다리지 않게 하기 위함.
+ * - bank.history.group-commit.enabled=false 이면 호출한 트랜잭션 안에서 바로 insert 한다.
+ */
+@Slf4j
+@Component
+public class HistoryAppender implements InitializingBean, DisposableBean {
+
+	private final HistoryRepository historyRepository;
+	private final DataSource dataSource;
+	private final Configuration configuration;
+	private final boolean enabled;
+	private final int maxBatchSize;
+	private final long timeoutMillis;
+	private final long orphanLookbackMillis;
+
+	private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+	private final AtomicInteger committing = new AtomicInteger(); // beforeCommit 을 실행 중인 업무 트랜잭션 수
+	private volatile boolean running;
+	private Thread flusher;
+	private Connection connection; // 기록 스레드 전용
+
+	// 그룹 커밋 지표
+	private final LongAdder flushCount = new LongAdder();
+	private final LongAdder flushedRows = new LongAdder();
+	private final LongAdder compensatedRows = new LongAdder();
+	private final LongAdder inlineRows = new LongAdder();
+
+	public HistoryAppender(HistoryRepository historyRepository, DataSource dataSource,
+			SqlSessionFactory sqlSessionFactory,
+			@Value("${bank.history.group-commit.enabled:false}") boolean enabled,
+			@Value("${bank.history.group-commit.max-batch-size:256}") int maxBatchSize,
+			@Value("${bank.history.group-commit.timeout-ms:3000}") long timeoutMillis,
+			@Value("${bank.history.group-commit.orphan-lookback-minutes:60}") long orphanLookbackMinutes) {
+		this.historyRepository = historyRepository;
+		this.dataSource = dataSource;
+		this.configuration = sqlSessionFactory.getConfiguration();
+		this.enabled = enabled;
+		this.maxBatchSize = maxBatchSize;
+		this.timeoutMillis = timeoutMillis;
+		this.orphanLookbackMillis = TimeUnit.MINUTES.toMillis(orphanLookbackMinutes);
+	}
+
+	/**
+	 * 거래 내역 한 건 기록
+	 * 반드시 @Transactional 메서드 안에서 호출
+	 */
+	public void append(History history) {
+		if (!enabled) {
+			insertInline(history);
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("append requires an active transaction");
+		}
+		// 원장과 같은 거래 ID - 업무 트랜잭션이 커밋되지 않으면 원장 항목이 없으므로 고아 행으로 골라낼 수 있다.
+		if (history.getMovementId() == null) {
+			history.setMovementId(UUID.randomUUID().toString());
+		}
+		TransactionSynchronizationManager.registerSynchronization(new PendingHistory(history));
+	}
+
+	// 현재 트랜잭션 커넥션으로 insert (롤백되면 같이 롤백)
+	private void insertInline(History history) {
+		int rowResultCount = historyRepository.insert(history);
+		if (rowResultCount != 1) {
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	// 업무 트랜잭션 하나의 내역 - 커밋 직전에 기록 요청 (묶을 상대가 없으면 바로 insert), 롤백되면 보정 요청
+	private final class PendingHistory implements TransactionSynchronization {
+		private final Request insert;
+		private boolean queued;
+
+		PendingHistory(History history) {
+			this.insert = new Request(history, false);
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			// 반환 전에 줄이므로 같은 계좌의 다음 거래 (행 잠금 대기 중) 는 항상 0 을 보고 바로 insert 한다.
+			boolean alone = committing.getAndIncrement() == 0;
+			try {
+				if (alone) {
+					insertInline(insert.history);
+					inlineRows.increment();
+					return;
+				}
+				queued = true;
+				queue.add(insert);
+				insert.done.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.SERVICE_UNAVAILABLE);
+			} catch (ExecutionException | TimeoutException e) {
+				throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.SERVICE_UNAVAILABLE);
+			} finally {
+				committing.decrementAndGet();
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			// 바로 insert 한 내역은 업무 트랜잭션과 같이 롤백된다.
+			if (queued && status != STATUS_COMMITTED) {
+				// 시간 초과로 포기한 뒤에 기록된 경우도 여기서 삭제된다.
+				insert.done.thenRun(() -> queue.add(new Request(insert.history, true)));
+			}
+		}
+	}
+
+	private static final class Request {
+		final History history;
+		final boolean delete;
+		final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		Request(History history, boolean delete) {
+			this.history = history;
+			this.delete = delete;
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() throws SQLException {
+		if (!enabled) {
+			return;
+		}
+		deleteOrphans();
+		// 업무 트랜잭션이 풀을 다 쓰고 기록을 기다리는 상황에서 기록 스레드가 커넥션을 못 받는 일이 없도록 미리 받아 둔다.
+		openConnection();
+		running = true;
+		flusher = new Thread(this::flushLoop, "history-appender");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		if (flusher == null) {
+			return;
+		}
+		running = false;
+		flusher.join(timeoutMillis);
+		closeConnection();
+	}
+
+	// 이전 실행에서 업무 트랜잭션보다 먼저 커밋되고 남은 내역 삭제
+	int deleteOrphans() {
+		Timestamp latest = historyRepository.findLatestCreatedAt();
+		if (latest == null) {
+			return 0;
+		}
+		Timestamp from = new Timestamp(latest.getTime() - orphanLookbackMillis);
+		Timestamp to = new Timestamp(System.currentTimeMillis() - timeoutMillis);
+		int deleted = historyRepository.deleteOrphans(from, to);
+		if (deleted > 0) {
+			log.warn("deleted {} orphan history rows written before {}", deleted, to);
+		}
+		return deleted;
+	}
+
+	// 요청 하나를 기다렸다가, 그 사이 쌓인 요청을 최대 maxBatchSize 개까지 한 번에 기록
+	private void flushLoop() {
+		List<Request> batch = new ArrayList<>(maxBatchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, maxBatchSize - 1);
+				write(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<Request> batch) {
+		try {
+			SqlSession session = openSession();
+			HistoryRepository mapper = session.getMapper(HistoryRepository.class);
+			int deleted = 0;
+			for (Request request : batch) {
+				if (request.delete) {
+					mapper.deleteById(request.history.getId());
+					deleted++;
+				} else {
+					mapper.insert(request.history);
+				}
+			}
+			session.flushStatements();
+			session.commit(true);
+			// session.close() 는 전용 커넥션까지 닫으므로 호출하지 않는다. (statement 는 flush 시 닫힘)
+			flushCount.increment();
+			flushedRows.add(batch.size() - deleted);
+			compensatedRows.add(deleted);
+			batch.forEach(request -> request.done.complete(null));
+		} catch (RuntimeException | SQLException e) {
+			log.error("history group commit failed ({} rows)", batch.size(), e);
+			// 롤백 후 계속 사용 - 커넥션이 끊어진 경우만 버리고 다음 기록 때 새로 받는다.
+			if (!rollbackConnection()) {
+				closeConnection();
+			}
+			batch.forEach(request -> request.done.completeExceptionally(e));
+		}
+	}
+
+	private SqlSession openSession() throws SQLException {
+		if (connection == null) {
+			openConnection();
+		}
+		JdbcTransaction transaction = new JdbcTransaction(connection);
+		return new DefaultSqlSession(configuration, configuration.newExecutor(transaction, ExecutorType.BATCH), false);
+	}
+
+	private void openConnection() throws SQLException {
+		connection = dataSource.getConnection();
+		connection.setAutoCommit(false);
+	}
+
+	private boolean rollbackConnection() {
+		if (connection == null) {
+			return false;
+		}
+		try {
+			connection.rollback();
+			return connection.isValid(1);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void closeConnection() {
+		if (connection == null) {
+			return;
+		}
+		try {
+			connection.rollback();
+			connection.close();
+		} catch (SQLException e) {
+			log.warn("failed to close history appender connection", e);
+		}
+		connection = null;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	public long getFlushCount() {
+		return flushCount.sum();
+	}
+
+	public long getFlushedRows() {
+		return flushedRows.sum();
+	}
+
+	public long getCompensatedRows() {
+		return compensatedRows.sum();
+	}
+
+	public long getInlineRows() {
+		return inlineRows.sum();
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.tenco.bank.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.HistoryRepository;
+import com.tenco.bank.repository.model.History;
+import com.tenco.bank.utils.Define;
+
+/**
+ * 감사용 거래내역 내보내기 (CSV, NDJSON)
+ * MyBatis Cursor 로 한 행씩 읽어서 바로 출력 스트림에 쓰므로
+ * 내역 건수와 상관없이 힙 사용량이 일정하다.
+ * DB 에서 정렬하지 않으므로 출금 내역 다음 입금 내역 순서로 나간다. (history.xml findAllByAccountIdForExport)
+ */
+@Service
+public class HistoryExportService {
+
+	public static final String CSV = "csv";
+	public static final String NDJSON = "ndjson";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final HistoryRepository historyRepository;
+
+	@Autowired
+	public HistoryExportService(HistoryRepository historyRepository) {
+		this.historyRepository = historyRepository;
+	}
+
+	/**
+	 * 계좌의 전체 거래내역을 out 으로 내보낸다. (소유자 확인은 호출 전에 할 것)
+	 * Cursor 는 트랜잭션(커넥션)이 열려 있는 동안만 읽을 수 있다.
+	 * @param format csv, ndjson
+	 * @return 내보낸 행 수
+	 */
+	@Transactional(readOnly = true)
+	public long exportHistory(Integer accountId, String format, OutputStream out) throws IOException {
+		if (!CSV.equals(format) && !NDJSON.equals(format)) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		boolean csv = CSV.equals(format);
+
+		// 출력 스트림은 호출한 쪽(서블릿 응답) 소유이므로 flush 만 한다.
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+		StringBuilder line = new StringBuilder(160);
+		long count = 0;
+
+		if (csv) {
+			writer.write("id,created_at,amount,w_account_id,w_balance,d_account_id,d_balance\n");
+		}
+		try (Cursor<History> cursor = historyRepository.findAllByAccountIdForExport(accountId)) {
+			for (History history : cursor) {
+				line.setLength(0);
+				if (csv) {
+					appendCsv(line, history);
+				} else {
+					appendJson(line, history);
+				}
+				writer.append(line);
+				count++;
+			}
+		}
+		writer.flush();
+		return count;
+	}
+
+	private void appendCsv(StringBuilder line, History history) {
+		line.append(history.getId()).append(',')
+			.append(history.getCreatedAt()).append(',')
+			.append(history.getAmount()).append(',');
+		appendNullable(line, history.getWAccountId(), "").append(',');
+		appendNullable(line, history.getWBalance(), "").append(',');
+		appendNullable(line, history.getDAccountId(), "").append(',');
+		appendNullable(line, history.getDBalance(), "").append('\n');
+	}
+
+	private void appendJson(StringBuilder line, History history) {
+		line.append("{\"id\":").append(history.getId())
+			.append(",\"createdAt\":\"").append(history.getCreatedAt()).append('"')
+			.append(",\"amount\":").append(history.getAmount())
+			.append(",\"wAccountId\":");
+		appendNullable(line, history.getWAccountId(), "null").append(",\"wBalance\":");
+		appendNullable(line, history.getWBalance(), "null").append(",\"dAccountId\":");
+		appendNullable(line, history.getDAccountId(), "null").append(",\"dBalance\":");
+		appendNullable(line, history.getDBalance(), "null").append("}\n");
+	}
+
+	private StringBuilder appendNullable(StringBuilder line, Number value, String nullValue) {
+		return value == null ? line.append(nullValue) : line.append(value);
+	}
+
+}
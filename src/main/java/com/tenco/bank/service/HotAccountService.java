@@ -0,0 +1,219 @@
+package com.tenco.bank.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.interfaces.AccountSlotRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.AccountSlot;
+import com.tenco.bank.repository.model.HotAccount;
+import com.tenco.bank.utils.Define;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * hot 계좌 - 입금이 몰리는 계좌의 잔액을 slot 행 여러 개에 나눠 보관 (bank.account.hot.enabled=true)
+ *
+ * - 계좌 잔액 = account_tb.balance + account_slot_tb 합계
+ * - 입금 : 임의의 slot 하나만 증가 --> 동시 입금이 서로 다른 행을 잠근다.
+ * - 출금 : account_tb 행 --> slot 들(임의 시작 위치) 순서로 한 행에서 조건부 차감,
+ *   어느 한 행도 충분하지 않으면 계좌 행과 slot 전체를 잠그고 모은 뒤 차감한다.
+ * - 정리(compaction) : 주기적으로 slot 잔액을 account_tb.balance 로 옮긴다. (출금이 첫 행에서 끝나도록)
+ *   모든 행을 잠근 이 시점의 잔액으로 원장 체크포인트를 남긴다. (거래마다 찍는 체크포인트는 hot 계좌 제외)
+ * - 잠금 순서는 항상 계좌 행 --> slot 행 (slot_no 순서) 이다.
+ * - 출금/입금 후 잔액(거래 내역에 기록)은 같은 트랜잭션에서 다시 읽은 합계라서
+ *   동시에 진행 중인 다른 입금의 반영 여부에 따라 내역 순서와 정확히 맞지 않을 수 있다.
+ * - 이체 엔진(bank.engine)과 같이 쓸 수 없다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "bank.account.hot.enabled", havingValue = "true")
+public class HotAccountService implements InitializingBean {
+
+	private final AccountRepository accountRepository;
+	private final AccountSlotRepository accountSlotRepository;
+	private final LedgerService ledgerService;
+	private final TransactionTemplate transactionTemplate;
+	private final int defaultSlots;
+	private final List<String> hotNumbers;
+	// 계좌 id --> slot 수 (정리 주기마다 DB 에서 다시 읽음 - 다른 노드에서 바꾼 것 반영)
+	private final Map<Integer, Integer> hotAccounts = new ConcurrentHashMap<>();
+
+	public HotAccountService(AccountRepository accountRepository, AccountSlotRepository accountSlotRepository,
+			LedgerService ledgerService, PlatformTransactionManager transactionManager,
+			@Value("${bank.account.hot.slots:8}") int defaultSlots,
+			@Value("${bank.account.hot.numbers:}") List<String> hotNumbers,
+			@Value("${bank.engine.enabled:false}") boolean engineEnabled) {
+		if (engineEnabled) {
+			throw new IllegalStateException("bank.account.hot and bank.engine can not be enabled together");
+		}
+		this.accountRepository = accountRepository;
+		this.accountSlotRepository = accountSlotRepository;
+		this.ledgerService = ledgerService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.defaultSlots = defaultSlots;
+		this.hotNumbers = hotNumbers;
+	}
+
+	// 설정(bank.account.hot.numbers)의 계좌를 hot 계좌로 전환
+	@Override
+	public void afterPropertiesSet() {
+		refresh();
+		for (String number : hotNumbers) {
+			Account account = accountRepository.findByNumber(number.trim());
+			if (account == null) {
+				log.warn("hot account {} does not exist", number);
+			} else if (!isHot(account.getId())) {
+				enable(account.getId(), defaultSlots);
+			}
+		}
+	}
+
+	public boolean isHot(Integer accountId) {
+		return hotAccounts.containsKey(accountId);
+	}
+
+	/**
+	 * hot 계좌로 전환 - 잔액 0 인 slot 을 만든다. (기존 잔액은 account_tb 에 그대로)
+	 */
+	public void enable(Integer accountId, int slots) {
+		if (slots < 1) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			if (accountRepository.findByIdForUpdate(accountId) == null) {
+				throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+			}
+			if (accountSlotRepository.findByAccountIdForUpdate(accountId).isEmpty()) {
+				accountSlotRepository.insertSlots(accountId, IntStream.range(0, slots).boxed().toList());
+			}
+		});
+		refresh();
+	}
+
+	/**
+	 * 일반 계좌로 되돌림 - slot 잔액을 계좌 행으로 옮기고 slot 삭제
+	 */
+	public void disable(Integer accountId) {
+		transactionTemplate.executeWithoutResult(status -> {
+			compactLocked(accountId);
+			accountSlotRepository.deleteByAccountId(accountId);
+		});
+		hotAccounts.remove(accountId);
+	}
+
+	/**
+	 * 입금 (호출한 트랜잭션 안에서)
+	 * @return 입금 후 계좌 잔액
+	 */
+	public Long deposit(Integer accountId, Long amount) {
+		int slot = ThreadLocalRandom.current().nextInt(slotCount(accountId));
+		if (accountSlotRepository.updateSlotDeposit(accountId, slot, amount) != 1) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		return balanceOf(accountId);
+	}
+
+	/**
+	 * 출금 (호출한 트랜잭션 안에서)
+	 * @return 출금 후 계좌 잔액
+	 */
+	public Long withdraw(Integer accountId, Long amount) {
+		// 1. 계좌 행 (정리 후에는 대부분 여기서 끝난다)
+		if (accountRepository.updateBalanceWithdraw(accountId, amount) == 1) {
+			return balanceOf(accountId);
+		}
+		// 2. slot 하나에서 - 출금끼리 같은 slot 에 몰리지 않게 임의 위치부터
+		int slots = slotCount(accountId);
+		int start = ThreadLocalRandom.current().nextInt(slots);
+		for (int i = 0; i < slots; i++) {
+			if (accountSlotRepository.updateSlotWithdraw(accountId, (start + i) % slots, amount) == 1) {
+				return balanceOf(accountId);
+			}
+		}
+		// 3. 여러 행에 나뉘어 있는 경우 - 모두 잠그고 계좌 행으로 모은 뒤 차감
+		compactLocked(accountId);
+		if (accountRepository.updateBalanceWithdraw(accountId, amount) != 1) {
+			throw new DataDeliveryException(Define.LACK_Of_BALANCE, HttpStatus.BAD_REQUEST);
+		}
+		return balanceOf(accountId);
+	}
+
+	// 계좌 행 + slot 합계
+	public Long balanceOf(Integer accountId) {
+		Long balance = accountRepository.findBalanceById(accountId);
+		if (balance == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		return balance + accountSlotRepository.sumBalance(accountId);
+	}
+
+	/**
+	 * 정리 - hot 계좌마다 slot 잔액을 계좌 행으로 옮긴다. (계좌별 짧은 트랜잭션)
+	 */
+	@Scheduled(fixedDelayString = "${bank.account.hot.compaction-interval-ms:5000}")
+	public void compact() {
+		refresh();
+		for (Integer accountId : hotAccounts.keySet()) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> compactLocked(accountId));
+			} catch (RuntimeException e) {
+				log.warn("hot account {} compaction failed", accountId, e);
+			}
+		}
+	}
+
+	// 계좌 행 --> slot 행 순서로 잠그고 slot 합계를 계좌 행으로 옮긴다. (트랜잭션 안에서 호출)
+	// 잔액을 바꾸는 행을 모두 잠근 상태이므로 이때의 잔액은 마지막 원장 항목까지 정확히 반영한 값이다.
+	private void compactLocked(Integer accountId) {
+		Account locked = accountRepository.findByIdForUpdate(accountId);
+		if (locked == null) {
+			throw new DataDeliveryException(Define.NOT_EXIST_ACCOUNT, HttpStatus.BAD_REQUEST);
+		}
+		long moved = 0;
+		for (AccountSlot slot : accountSlotRepository.findByAccountIdForUpdate(accountId)) {
+			moved += slot.getBalance();
+		}
+		if (moved != 0) {
+			accountSlotRepository.clearBalance(accountId);
+			accountRepository.updateBalanceDeposit(accountId, moved);
+			ledgerService.checkpoint(accountId, locked.getBalance() + moved);
+		}
+	}
+
+	private int slotCount(Integer accountId) {
+		Integer slots = hotAccounts.get(accountId);
+		if (slots == null) {
+			throw new IllegalStateException("account " + accountId + " is not a hot account");
+		}
+		return slots;
+	}
+
+	private void refresh() {
+		Map<Integer, Integer> current = new ConcurrentHashMap<>();
+		for (HotAccount hotAccount : accountSlotRepository.findHotAccounts()) {
+			current.put(hotAccount.getAccountId(), hotAccount.getSlots());
+		}
+		hotAccounts.keySet().retainAll(current.keySet());
+		hotAccounts.putAll(current);
+	}
+
+	public int getHotAccountCount() {
+		return hotAccounts.size();
+	}
+
+}
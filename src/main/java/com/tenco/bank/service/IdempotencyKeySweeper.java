@@ -0,0 +1,54 @@
+package com.tenco.bank.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tenco.bank.repository.interfaces.IdempotencyKeyRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 만료된 멱등 키 정리
+ * 한 번에 batch-size 건씩 지우고 (건마다 짧은 자동 커밋) 남은 게 없을 때까지 반복한다.
+ * 한 번의 큰 delete 로 테이블을 오래 잠그지 않기 위함.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeySweeper {
+
+	private final IdempotencyKeyRepository idempotencyKeyRepository;
+	private final int batchSize;
+
+	public IdempotencyKeySweeper(IdempotencyKeyRepository idempotencyKeyRepository,
+			@Value("${bank.idempotency.sweeper.batch-size:1000}") int batchSize) {
+		this.idempotencyKeyRepository = idempotencyKeyRepository;
+		this.batchSize = batchSize;
+	}
+
+	@Scheduled(fixedDelayString = "${bank.idempotency.sweeper.interval-ms:60000}",
+			initialDelayString = "${bank.idempotency.sweeper.interval-ms:60000}")
+	public void sweep() {
+		int deleted = sweepExpired(Timestamp.from(Instant.now()));
+		if (deleted > 0) {
+			log.info("deleted {} expired idempotency keys", deleted);
+		}
+	}
+
+	/**
+	 * @return 삭제한 키 수
+	 */
+	public int sweepExpired(Timestamp now) {
+		int total = 0;
+		int deleted;
+		do {
+			deleted = idempotencyKeyRepository.deleteExpired(now, batchSize);
+			total += deleted;
+		} while (deleted == batchSize);
+		return total;
+	}
+
+}
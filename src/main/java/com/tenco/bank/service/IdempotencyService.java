@@ -0,0 +1,184 @@
+package com.tenco.bank.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tenco.bank.aop.RetryOnConflict;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.IdempotencyKeyRepository;
+import com.tenco.bank.repository.model.IdempotencyKey;
+import com.tenco.bank.utils.Define;
+
+/**
+ * 멱등 키 처리 (입금/출금/이체 재전송 방지)
+ *
+ * 1. 최근 키는 메모리 캐시에서 바로 저장된 결과를 돌려준다. (AccountService 호출 없음)
+ * 2. 처음 보는 키는 키 행 insert 와 실제 작업을 한 트랜잭션으로 실행한다.
+ *    --> 작업이 커밋되면 키도 같이 커밋되고, 롤백되면 키도 남지 않는다.
+ *    --> 같은 키로 동시에 들어온 요청은 키 행 잠금에서 기다렸다가 중복으로 판정된다.
+ *    --> 키 행 insert 의 잠금 대기 시간 초과만 처리 중(409)으로 본다. 작업(AccountService) 안의
+ *        교착 상태, 잠금 시간 초과는 키가 없는 요청과 같이 그대로 전달한다.
+ * 3. 업무 오류(4xx - 잔액 부족 등)는 실패 결과로 저장해서 같은 키 재시도에 같은 오류를 돌려준다.
+ *    일시적인 오류(5xx)는 저장하지 않는다. (같은 키로 다시 시도 가능)
+ *    단, 결과 불명(RESULT_UNKNOWN - 이체 엔진 응답 시간 초과)은 작업이 나중에 적용될 수 있으므로 저장한다.
+ *    --> 같은 키 재시도는 다시 실행되지 않고 같은 503 을 받는다. (결과는 잔액/거래 내역으로 확인)
+ * 4. 같은 키로 내용이 다른 요청이 오면 거절한다. (request_hash 비교)
+ */
+@Service
+public class IdempotencyService {
+
+	private final IdempotencyKeyRepository idempotencyKeyRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	private final Cache<String, IdempotencyKey> recentKeys;
+
+	public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+			PlatformTransactionManager transactionManager,
+			@Value("${bank.idempotency.ttl-hours:24}") long ttlHours,
+			@Value("${bank.idempotency.cache.maximum-size:100000}") long cacheSize,
+			@Value("${bank.idempotency.cache.ttl-minutes:10}") long cacheTtlMinutes) {
+		this.idempotencyKeyRepository = idempotencyKeyRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.ttl = Duration.ofHours(ttlHours);
+		this.recentKeys = Caffeine.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(Duration.ofMinutes(Math.min(cacheTtlMinutes, ttl.toMinutes())))
+				.build();
+	}
+
+	/**
+	 * @param userId 로그인 사용자 id (키는 사용자별로 구분)
+	 * @param key 클라이언트 멱등 키 (null 이면 멱등 처리 없이 바로 실행)
+	 * @param operation withdrawal, deposit, transfer
+	 * @param request 요청 내용 (같은 키 다른 요청 판별용, 비밀번호 제외)
+	 * @param action 실제 작업 (AccountService 호출)
+	 */
+	@RetryOnConflict
+	public void execute(Integer userId, String key, String operation, Object request, Runnable action) {
+		if (key == null || key.isBlank()) {
+			action.run();
+			return;
+		}
+		if (key.length() > 100) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+		}
+		String requestHash = hash(operation + "|" + request);
+
+		// 1. 최근 키 - 메모리에서 바로 응답
+		IdempotencyKey recent = recentKeys.getIfPresent(cacheKey(userId, key));
+		if (recent != null) {
+			replay(recent, requestHash);
+			return;
+		}
+
+		IdempotencyKey record = IdempotencyKey.builder()
+				.userId(userId)
+				.idemKey(key)
+				.operation(operation)
+				.requestHash(requestHash)
+				.expiresAt(Timestamp.from(Instant.now().plus(ttl)))
+				.build();
+		try {
+			// 2. 키 + 작업을 한 트랜잭션으로
+			record.setSuccess(true);
+			transactionTemplate.executeWithoutResult(status -> {
+				insertKey(record);
+				action.run();
+			});
+			recentKeys.put(cacheKey(userId, key), record);
+		} catch (DuplicateKeyException e) {
+			// 이미 처리된 키
+			replay(load(userId, key), requestHash);
+		} catch (KeyInProgressException e) {
+			// 같은 키의 첫 요청이 아직 처리 중 (키 행 잠금 대기 시간 초과) - 결과로 저장하지 않는다.
+			throw new DataDeliveryException(Define.DUPLICATE_REQUEST_IN_PROGRESS, HttpStatus.CONFLICT);
+		} catch (DataDeliveryException e) {
+			// 3. 업무 오류, 결과 불명은 결과로 저장
+			if (e.getStatus().is4xxClientError() || Define.RESULT_UNKNOWN.equals(e.getMessage())) {
+				record.setSuccess(false);
+				record.setMessage(e.getMessage());
+				record.setStatus(e.getStatus().value());
+				saveFailure(record);
+			}
+			throw e;
+		}
+	}
+
+	// 키 행 insert - 이 문장의 잠금 대기 실패만 처리 중으로 구분한다.
+	private void insertKey(IdempotencyKey record) {
+		try {
+			idempotencyKeyRepository.insert(record);
+		} catch (PessimisticLockingFailureException e) {
+			throw new KeyInProgressException(e);
+		}
+	}
+
+	private static final class KeyInProgressException extends RuntimeException {
+		KeyInProgressException(Throwable cause) {
+			super(cause);
+		}
+	}
+
+	private void saveFailure(IdempotencyKey record) {
+		try {
+			idempotencyKeyRepository.insert(record);
+			recentKeys.put(cacheKey(record.getUserId(), record.getIdemKey()), record);
+		} catch (DuplicateKeyException e) {
+			// 그 사이 같은 키의 다른 요청이 먼저 결과를 저장함
+		}
+	}
+
+	private IdempotencyKey load(Integer userId, String key) {
+		IdempotencyKey stored = idempotencyKeyRepository.findByUserIdAndKey(userId, key);
+		if (stored == null) {
+			// 중복 판정 직후 만료 삭제된 경우 - 드묾
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		recentKeys.put(cacheKey(userId, key), stored);
+		return stored;
+	}
+
+	// 저장된 결과 재현 - 성공이면 그냥 반환, 실패면 같은 예외
+	private void replay(IdempotencyKey stored, String requestHash) {
+		if (!Objects.equals(stored.getRequestHash(), requestHash)) {
+			throw new DataDeliveryException(Define.INVALID_INPUT, HttpStatus.UNPROCESSABLE_ENTITY);
+		}
+		if (!Boolean.TRUE.equals(stored.getSuccess())) {
+			throw new DataDeliveryException(stored.getMessage(), HttpStatus.valueOf(stored.getStatus()));
+		}
+	}
+
+	private static String cacheKey(Integer userId, String key) {
+		return userId + ":" + key;
+	}
+
+	private static String hash(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public long getCachedKeyCount() {
+		return recentKeys.estimatedSize();
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.tenco.bank.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.LedgerRepository;
+import com.tenco.bank.repository.model.BalanceCheckpoint;
+import com.tenco.bank.repository.model.History;
+import com.tenco.bank.repository.model.LedgerEntry;
+import com.tenco.bank.utils.Define;
+
+/**
+ * 복식 원장 기록 + 체크포인트 기반 잔액 계산
+ *
+ * - 거래(History) 1건마다 D 1행, C 1행을 기록한다. (ATM 입출금의 반대편은 외부 현금 - account_id null)
+ * - 계좌별로 원장 항목이 checkpoint-interval 개 쌓이면 그 시점 잔액을 체크포인트로 남긴다.
+ *   --> 잔액 = 최근 체크포인트 + 이후 항목 합계 (최대 interval 개 정도만 읽음)
+ * - 체크포인트 잔액은 계좌 행 잠금을 잡은 트랜잭션이 방금 계산한 잔액(History 의 w/d balance)이다.
+ * - hot 계좌는 입금이 계좌 행을 잠그지 않아 내역의 잔액이 원장 순서와 맞지 않을 수 있으므로 여기서 찍지 않고,
+ *   계좌 행과 slot 을 모두 잠근 정리(compaction) 시점에 정확한 잔액으로 찍는다. (checkpoint)
+ * - 항목 수 카운터는 노드 메모리에만 있다. 재기동하거나 노드가 여럿이면 체크포인트가
+ *   조금 늦게 찍힐 뿐 잔액 계산 결과는 같다.
+ */
+@Service
+public class LedgerService {
+
+	private final LedgerRepository ledgerRepository;
+	private final ObjectProvider<HotAccountService> hotAccountService;
+	private final int checkpointInterval;
+	private final ConcurrentMap<Integer, AtomicInteger> entriesSinceCheckpoint = new ConcurrentHashMap<>();
+
+	public LedgerService(LedgerRepository ledgerRepository, ObjectProvider<HotAccountService> hotAccountService,
+			@Value("${bank.ledger.checkpoint-interval:100}") int checkpointInterval) {
+		this.ledgerRepository = ledgerRepository;
+		this.hotAccountService = hotAccountService;
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * 거래 내역 1건의 원장 항목 (D, C 순서) - 내역에 거래 ID 가 있으면 그 값을 쓴다. (HistoryAppender)
+	 * 대량 이체처럼 BATCH 매퍼로 직접 기록하는 곳에서도 사용
+	 */
+	public List<LedgerEntry> toEntries(History history) {
+		String movementId = history.getMovementId() != null ? history.getMovementId() : UUID.randomUUID().toString();
+		List<LedgerEntry> entries = new ArrayList<>(2);
+		entries.add(LedgerEntry.builder()
+				.movementId(movementId)
+				.accountId(history.getWAccountId())
+				.direction(LedgerEntry.DEBIT)
+				.amount(history.getAmount())
+				.build());
+		entries.add(LedgerEntry.builder()
+				.movementId(movementId)
+				.accountId(history.getDAccountId())
+				.direction(LedgerEntry.CREDIT)
+				.amount(history.getAmount())
+				.build());
+		return entries;
+	}
+
+	/**
+	 * 거래 내역 1건을 원장에 기록 (계좌 잔액을 바꾼 트랜잭션 안에서 호출)
+	 */
+	public void record(History history) {
+		List<LedgerEntry> entries = toEntries(history);
+		for (LedgerEntry entry : entries) {
+			insert(entry);
+		}
+		checkpointIfDue(entries.get(0), history.getWBalance());
+		checkpointIfDue(entries.get(1), history.getDBalance());
+	}
+
+	/**
+	 * 계좌 개설 - 초기 잔액을 외부 현금에서 입금한 것으로 기록하고 체크포인트를 남긴다.
+	 */
+	public void open(Integer accountId, Long balance) {
+		if (balance == null || balance == 0) {
+			return;
+		}
+		History opening = History.builder().amount(balance).dAccountId(accountId).dBalance(balance).build();
+		List<LedgerEntry> entries = toEntries(opening);
+		for (LedgerEntry entry : entries) {
+			insert(entry);
+		}
+		saveCheckpoint(accountId, entries.get(1).getId(), balance);
+	}
+
+	/**
+	 * 계좌의 마지막 원장 항목까지 반영한 잔액으로 체크포인트를 남긴다.
+	 * 그 계좌의 잔액을 바꾸는 모든 행을 잠근 트랜잭션 안에서만 호출 (커밋 안 된 다른 항목이 없어야 정확하다)
+	 */
+	public void checkpoint(Integer accountId, long balance) {
+		Long lastEntryId = ledgerRepository.findLastEntryId(accountId);
+		if (lastEntryId == null) {
+			return;
+		}
+		entriesSinceCheckpoint.remove(accountId);
+		saveCheckpoint(accountId, lastEntryId, balance);
+	}
+
+	/**
+	 * 현재 잔액 (원장 기준)
+	 */
+	@Transactional(readOnly = true)
+	public long balanceOf(Integer accountId) {
+		return balanceAt(accountId, null);
+	}
+
+	/**
+	 * at 시점의 잔액 (원장 기준, at 이 null 이면 현재)
+	 * 체크포인트가 없으면 처음부터 합산한다.
+	 */
+	@Transactional(readOnly = true)
+	public long balanceAt(Integer accountId, Timestamp at) {
+		BalanceCheckpoint checkpoint = ledgerRepository.findLatestCheckpoint(accountId, at);
+		long base = checkpoint == null ? 0L : checkpoint.getBalance();
+		long afterEntryId = checkpoint == null ? 0L : checkpoint.getEntryId();
+		return base + ledgerRepository.sumTail(accountId, afterEntryId, at);
+	}
+
+	private void insert(LedgerEntry entry) {
+		if (ledgerRepository.insertEntry(entry) != 1) {
+			throw new DataDeliveryException(Define.FAILED_PROCESSING, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	private void checkpointIfDue(LedgerEntry entry, Long balance) {
+		if (entry.getAccountId() == null || balance == null) {
+			return;
+		}
+		HotAccountService hot = hotAccountService.getIfAvailable();
+		if (hot != null && hot.isHot(entry.getAccountId())) {
+			return;
+		}
+		AtomicInteger count = entriesSinceCheckpoint.computeIfAbsent(entry.getAccountId(), id -> new AtomicInteger());
+		if (count.incrementAndGet() < checkpointInterval) {
+			return;
+		}
+		count.set(0);
+		saveCheckpoint(entry.getAccountId(), entry.getId(), balance);
+	}
+
+	private void saveCheckpoint(Integer accountId, Long entryId, Long balance) {
+		ledgerRepository.insertCheckpoint(BalanceCheckpoint.builder()
+				.accountId(accountId)
+				.entryId(entryId)
+				.balance(balance)
+				.build());
+	}
+
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.tenco.bank.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tenco.bank.dto.ReconciliationReportDTO;
+import com.tenco.bank.repository.interfaces.ReconciliationRepository;
+import com.tenco.bank.repository.model.BalanceMismatch;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 잔액 대사 (야간 작업)
+ * account_tb.balance = 원장 C 합계 - D 합계 (개설 항목 포함) 인지 전 계좌를 검사한다.
+ *
+ * - 계좌 id 를 range-size 크기의 범위로 나눠 fork/join 으로 병렬 검사한다.
+ * - 범위마다 집계 쿼리 한 번 - 합산과 비교는 DB 가 하고 불일치 계좌만 돌려받는다.
+ *   (History/LedgerEntry 객체를 읽어 오지 않음)
+ * - 검사 중에 진행된 거래 때문에 생긴 일시적인 불일치를 거르기 위해 불일치 계좌는 한 번 더 확인한다.
+ * - 범위 검사는 쿼리를 기다리는 동안 스레드를 잡고 있으므로 parallelism 은 커넥션 풀 크기 이하로 둔다.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+	private final ReconciliationRepository reconciliationRepository;
+	private final int rangeSize;
+	private final int parallelism;
+
+	public ReconciliationService(ReconciliationRepository reconciliationRepository,
+			@Value("${bank.reconcile.range-size:10000}") int rangeSize,
+			@Value("${bank.reconcile.parallelism:0}") int parallelism) {
+		this.reconciliationRepository = reconciliationRepository;
+		this.rangeSize = rangeSize;
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	@Scheduled(cron = "${bank.reconcile.cron:0 30 1 * * *}")
+	public void reconcileNightly() {
+		ReconciliationReportDTO report = reconcile();
+		for (BalanceMismatch mismatch : report.getMismatches()) {
+			log.warn("balance mismatch account={} number={} balance={} ledger={}", mismatch.getAccountId(),
+					mismatch.getNumber(), mismatch.getBalance(), mismatch.getLedgerBalance());
+		}
+		log.info("reconciled accounts 1..{} in {} ranges ({}ms), {} mismatches", report.getMaxAccountId(),
+				report.getRanges(), report.getElapsedMillis(), report.getMismatches().size());
+	}
+
+	public ReconciliationReportDTO reconcile() {
+		return reconcile(parallelism);
+	}
+
+	/**
+	 * @param parallelism 동시에 검사할 범위 수
+	 */
+	public ReconciliationReportDTO reconcile(int parallelism) {
+		long started = System.nanoTime();
+		Integer maxAccountId = reconciliationRepository.findMaxAccountId();
+		if (maxAccountId == null) {
+			return new ReconciliationReportDTO(0, 0, parallelism, 0, List.of());
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		List<BalanceMismatch> candidates;
+		try {
+			candidates = pool.invoke(new RangeTask(1, maxAccountId));
+		} finally {
+			pool.shutdown();
+		}
+
+		// 다시 확인해도 다른 계좌만 보고
+		List<BalanceMismatch> mismatches = new ArrayList<>();
+		for (BalanceMismatch candidate : candidates) {
+			Integer id = candidate.getAccountId();
+			mismatches.addAll(reconciliationRepository.findMismatches(id, id));
+		}
+
+		int ranges = (maxAccountId + rangeSize - 1) / rangeSize;
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+		return new ReconciliationReportDTO(maxAccountId, ranges, parallelism, elapsedMillis, mismatches);
+	}
+
+	// [fromId, toId] 를 rangeSize 이하가 될 때까지 반으로 나눠서 검사
+	private final class RangeTask extends RecursiveTask<List<BalanceMismatch>> {
+		private final int fromId;
+		private final int toId;
+
+		RangeTask(int fromId, int toId) {
+			this.fromId = fromId;
+			this.toId = toId;
+		}
+
+		@Override
+		protected List<BalanceMismatch> compute() {
+			if (toId - fromId + 1 <= rangeSize) {
+				return reconciliationRepository.findMismatches(fromId, toId);
+			}
+			// 범위 경계를 rangeSize 배수에 맞춰서 나눈다. (범위 수가 parallelism 과 무관하게 일정)
+			int ranges = (toId - fromId + rangeSize) / rangeSize;
+			int middle = fromId + (ranges / 2) * rangeSize - 1;
+			RangeTask left = new RangeTask(fromId, middle);
+			left.fork();
+			List<BalanceMismatch> result = new ArrayList<>(new RangeTask(middle + 1, toId).compute());
+			result.addAll(0, left.join());
+			return result;
+		}
+	}
+
+}
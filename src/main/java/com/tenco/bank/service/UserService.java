@@ -12,6 +12,7 @@ import com.tenco.bank.handler.exception.DataDeliveryException;
 import com.tenco.bank.handler.exception.RedirectException;
 import com.tenco.bank.repository.interfaces.UserRepository;
 import com.tenco.bank.repository.model.User;
+import com.tenco.bank.utils.Define;
 
 @Service // IoC 대상( 싱글톤으로 관리) 
 public class UserService {
@@ -57,7 +58,7 @@ public class UserService {
 		}
 		
 		if(userEntity == null) {
-			throw new DataDeliveryException("아이디 혹은 비밀번호가 틀렸습니다.", HttpStatus.BAD_REQUEST);
+			throw new DataDeliveryException(Define.FAIL_TO_SIGN_IN, HttpStatus.BAD_REQUEST);
 		}
 		
 		return userEntity;
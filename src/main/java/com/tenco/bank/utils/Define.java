@@ -16,6 +16,10 @@ public class Define {
 	public static final String FAIL_ACCOUNT_PASSWORD = "계좌 비밀번호가 틀렸습니다.";
 	public static final String LACK_Of_BALANCE = "출금 잔액이 부족 합니다.";
 	public static final String NOT_ACCOUNT_OWNER = "계좌 소유자가 아닙니다.";
+	public static final String NOT_EXIST_TRANSFER = "접수된 이체가 없습니다.";
+	public static final String TRANSFER_QUEUE_FULL = "이체 요청이 많아 접수할 수 없습니다. 잠시 후 다시 시도해 주세요.";
+	public static final String CONCURRENT_UPDATE_CONFLICT = "같은 계좌의 다른 거래와 충돌했습니다. 잠시 후 다시 시도해 주세요.";
+	public static final String HOT_ACCOUNT_NOT_SUPPORTED = "입금이 몰리는 계좌(hot 계좌)는 대량 이체에 사용할 수 없습니다.";
 	
 
 	//  User
@@ -27,6 +31,7 @@ public class Define {
 	public static final String ENTER_YOUR_BALANCE = "금액을 입력해 주세요.";
 	public static final String D_BALANCE_VALUE ="입금 금액이 0원 이하 일 수 없습니다.";
 	public static final String W_BALANCE_VALUE ="출금 금액이 0원 이하 일 수 없습니다.";
+	public static final String FAIL_TO_SIGN_IN = "아이디 혹은 비밀번호가 틀렸습니다.";
 	
 	// etc 
 	public static final String FAIL_TO_CREATE_USER = "회원가입 실패.";
@@ -34,5 +39,8 @@ public class Define {
 	public static final String INVALID_INPUT = "잘못된 입력입니다.";
 	public static final String UNKNOWN = "알 수 없는 동작입니다";
 	public static final String FAILED_PROCESSING = "정상 처리 되지 않았습니다.";
+	public static final String TOO_MANY_REQUESTS = "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.";
+	public static final String DUPLICATE_REQUEST_IN_PROGRESS = "같은 요청을 처리 중입니다. 잠시 후 다시 확인해 주세요.";
+	public static final String RESULT_UNKNOWN = "처리 결과를 확인하지 못했습니다. 거래 내역을 확인해 주세요.";
 }	
 
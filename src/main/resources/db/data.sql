@@ -32,4 +32,20 @@ insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id,
 -- 3. ATM 기기에서 입금 
 -- 1111 계좌로 500원만 입금하는 히스토리를 만들어 보세요 
 insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id, created_at)
-			values(500, null, 1300, null, 1, now());
\ No newline at end of file
+			values(500, null, 1300, null, 1, now());
+
+-- 원장 개설 항목 (초기 잔액 = 외부 현금 D + 계좌 C) 과 개설 시점 체크포인트
+-- 3333 계좌는 초기 잔액 0 이라 항목 없음 (체크포인트가 없으면 잔액 = 원장 합계)
+insert into ledger_entry_tb(movement_id, account_id, direction, amount, created_at)
+			values('open-1', null, 'D', 1300, now());
+insert into ledger_entry_tb(movement_id, account_id, direction, amount, created_at)
+			values('open-1', 1, 'C', 1300, now());
+insert into ledger_entry_tb(movement_id, account_id, direction, amount, created_at)
+			values('open-2', null, 'D', 1100, now());
+insert into ledger_entry_tb(movement_id, account_id, direction, amount, created_at)
+			values('open-2', 2, 'C', 1100, now());
+
+insert into balance_checkpoint_tb(account_id, entry_id, balance, created_at)
+			values(1, 2, 1300, now());
+insert into balance_checkpoint_tb(account_id, entry_id, balance, created_at)
+			values(2, 4, 1100, now());
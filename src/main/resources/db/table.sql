@@ -13,7 +13,8 @@ create table account_tb(
     password varchar(30) not null, 
     balance bigint not null comment '계좌잔액', 
     created_at timestamp not null default now(), 
-	user_id int 
+	user_id int,
+	version bigint not null default 0 comment '변경마다 1 증가 (낙관적 잠금)'
 );
 
 create table history_tb(
@@ -23,6 +24,129 @@ create table history_tb(
     d_account_id int comment '입금 계좌 ID',
     w_balance bigint comment '출금 요청 후 계좌 잔액',
     d_balance bigint comment '입금 요청 후 계좌 잔액', 
+    movement_id varchar(36) comment '원장 거래 ID (ledger_entry_tb.movement_id - 그룹 커밋 고아 행 정리용)',
     created_at timestamp not null default now() 
 );
 
+-- 인덱스 (매퍼 쿼리 기준)
+-- account.xml findByUserId : 계좌 목록 조회 
+create index idx_account_user_id on account_tb(user_id);
+
+-- history.xml findByAccountIdAndCursor : 계좌별 거래내역 키셋 페이징 (created_at desc, id desc)
+create index idx_history_w_account on history_tb(w_account_id, created_at, id);
+create index idx_history_d_account on history_tb(d_account_id, created_at, id);
+-- history.xml findLatestCreatedAt, deleteOrphans : 재기동 시 마지막 기록 시각 전후 내역만 확인
+create index idx_history_created_at on history_tb(created_at);
+
+-- 멱등 키 (입금/출금/이체 재전송 중복 처리 방지)
+-- 같은 사용자가 같은 키로 다시 보내면 저장된 결과를 돌려준다.
+create table idempotency_key_tb(
+	user_id int not null comment '요청 사용자 ID',
+	idem_key varchar(100) not null comment '클라이언트가 보낸 멱등 키',
+	operation varchar(20) not null comment 'withdrawal, deposit, transfer',
+	request_hash varchar(64) not null comment '요청 내용 해시 (같은 키로 다른 요청 방지)',
+	success boolean not null comment '처리 결과',
+	message varchar(200) comment '실패 메세지 (Define)',
+	status int comment '실패 HTTP 상태 코드',
+	created_at timestamp not null default now(),
+	expires_at timestamp not null comment '만료 시각 (IdempotencyKeySweeper 가 삭제)',
+	primary key(user_id, idem_key)
+);
+
+-- idempotency.xml deleteExpired : 만료 키 일괄 삭제
+create index idx_idempotency_expires_at on idempotency_key_tb(expires_at);
+
+-- 복식 원장 (거래 1건 = 차변(D) 1행 + 대변(C) 1행, movement_id 로 묶음)
+-- D : 계좌에서 나가는 금액 (잔액 감소), C : 계좌로 들어오는 금액 (잔액 증가)
+-- account_id 가 null 이면 은행 밖 현금 (ATM 입금의 D, ATM 출금의 C)
+-- 거래 하나의 D 합계 = C 합계 이므로 원장 전체의 부호 합은 항상 0 이다.
+create table ledger_entry_tb(
+	id bigint auto_increment primary key comment '원장 항목 ID (계좌별로 기록 순서)',
+	movement_id varchar(36) not null comment '거래 ID (D/C 한 쌍)',
+	account_id int comment '계좌 ID (null : 외부 현금)',
+	direction char(1) not null comment 'D: 출금, C: 입금',
+	amount bigint not null comment '금액',
+	created_at timestamp not null default now()
+);
+
+-- 잔액 체크포인트 : entry_id 까지 반영한 계좌 잔액
+-- 잔액 = 가장 최근 체크포인트 + 이후 원장 항목 합계 (체크포인트 간격만큼만 읽음)
+create table balance_checkpoint_tb(
+	account_id int not null comment '계좌 ID',
+	entry_id bigint not null comment '이 원장 항목까지 반영',
+	balance bigint not null comment '체크포인트 시점 잔액',
+	created_at timestamp not null default now(),
+	primary key(account_id, entry_id)
+);
+
+-- ledger.xml sumTail : 계좌별 체크포인트 이후 항목 (id 범위)
+create index idx_ledger_account on ledger_entry_tb(account_id, id);
+-- history.xml deleteOrphans : 내역이 가리키는 원장 거래가 있는지 확인
+create index idx_ledger_movement on ledger_entry_tb(movement_id);
+-- ledger.xml findLatestCheckpoint : 시점 기준 최근 체크포인트
+create index idx_checkpoint_account_time on balance_checkpoint_tb(account_id, created_at);
+
+-- 일별 잔액 스냅샷 : snapshot_date 가 끝난 시점(다음 날 0시 직전)의 잔액
+-- 그 날 원장 항목이 있었던 계좌만 기록한다. (없으면 이전 스냅샷이 그대로 유효)
+-- 시점 잔액 = 시점 이전 날짜의 최근 스냅샷 + last_entry_id 이후 원장 항목 (대부분 같은 날 항목)
+create table daily_balance_tb(
+	account_id int not null comment '계좌 ID',
+	snapshot_date date not null comment '기준 일자',
+	balance bigint not null comment '기준 일자 마감 잔액',
+	last_entry_id bigint not null comment '반영한 마지막 원장 항목 ID',
+	created_at timestamp not null default now(),
+	primary key(account_id, snapshot_date)
+);
+
+-- daily_balance.xml insertSnapshots : 하루치 원장 항목 범위 조회
+create index idx_ledger_created_at on ledger_entry_tb(created_at);
+
+-- 비동기 이체 접수 (POST /account/transfer/async)
+-- 비밀번호는 접수 시 확인하고 저장하지 않는다.
+-- PENDING --> DONE (이체와 같은 트랜잭션에서 변경) / FAILED (업무 오류)
+-- 엔진 모드 : PENDING --> PROCESSING (엔진에 보내기 전에 커밋) --> DONE / FAILED / UNKNOWN (적용 여부 불명)
+create table pending_transfer_tb(
+	id bigint auto_increment primary key comment '접수 ID (처리 순서)',
+	user_id int not null comment '요청 사용자 ID',
+	w_account_id int not null comment '출금 계좌 ID (처리 lane 결정)',
+	lane int not null comment '처리 lane (w_account_id mod lanes - 기동 시 lanes 가 바뀌면 PENDING 건을 다시 계산)',
+	w_account_number varchar(30) not null comment '출금 계좌',
+	d_account_number varchar(30) not null comment '입금 계좌',
+	amount bigint not null comment '이체 금액',
+	status varchar(10) not null comment 'PENDING, DONE, FAILED, PROCESSING, UNKNOWN',
+	message varchar(200) comment '실패 메세지 (Define)',
+	created_at timestamp not null default now(),
+	updated_at timestamp
+);
+
+-- pending_transfer.xml countPending
+create index idx_pending_transfer_status on pending_transfer_tb(status, id);
+-- pending_transfer.xml findPendingByLane : lane 의 PENDING 건을 id 순서로 (mod 계산 조건은 인덱스를 못 탄다)
+create index idx_pending_transfer_lane on pending_transfer_tb(status, lane, id);
+
+-- 이체 엔진 (bank.engine.enabled=true) : 파티션별 저널 중 DB 에 반영된 마지막 순번
+create table engine_sync_tb(
+	partition_no int primary key comment '엔진 파티션 번호',
+	position bigint not null comment 'DB 반영 완료한 마지막 저널 순번'
+);
+
+-- 이체 엔진 : 이체 양쪽의 DB 반영 기록 (side D : 출금쪽, C : 입금쪽 - 서로 다른 파티션에서 반영될 수 있음)
+-- D 만 있고 C 가 없는 이체는 재기동 시 입금쪽을 다시 보낸다.
+create table engine_transfer_tb(
+	transfer_id bigint not null comment '이체 ID (출금 파티션 번호 + 저널 순번)',
+	side char(1) not null comment 'D: 출금 반영, C: 입금 반영',
+	from_account_id int not null,
+	to_account_id int not null,
+	amount bigint not null,
+	w_balance bigint comment '출금 후 출금 계좌 잔액',
+	primary key(transfer_id, side)
+);
+
+-- hot 계좌 (bank.account.hot) : 잔액 일부를 slot 행에 나눠서 보관 (표시 잔액 = account_tb.balance + slot 합계)
+-- 입금은 임의의 slot 하나만 갱신하므로 같은 계좌 입금끼리 한 행을 두고 기다리지 않는다.
+create table account_slot_tb(
+	account_id int not null,
+	slot_no int not null,
+	balance bigint not null default 0,
+	primary key(account_id, slot_no)
+);
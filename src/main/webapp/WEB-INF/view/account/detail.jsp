@@ -0,0 +1,86 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+
+<!-- header.jsp  -->
+<%@ include file="/WEB-INF/view/layout/header.jsp"%>
+
+<!-- start of content.jsp(xxx.jsp)   -->
+<div class="col-sm-8">
+	<h2>계좌 상세 보기(인증)</h2>
+	<h5>Bank App에 오신걸 환영합니다</h5>
+
+	<div class="bg-light p-md-5">
+		<div>계좌 번호 : ${historyPage.account.number}</div>
+		<div>잔액 : ${historyPage.account.balance}</div>
+	</div>
+	<br>
+
+	<%-- 조회 구분 : 전체, 입금, 출금 --%>
+	<div>
+		<a href="/account/detail/${historyPage.account.id}?type=all" class="btn btn-outline-primary">전체</a>
+		<a href="/account/detail/${historyPage.account.id}?type=deposit" class="btn btn-outline-primary">입금</a>
+		<a href="/account/detail/${historyPage.account.id}?type=withdrawal" class="btn btn-outline-primary">출금</a>
+		<a href="/account/detail/${historyPage.account.id}/export?format=csv" class="btn btn-outline-secondary">CSV 내보내기</a>
+		<a href="/account/detail/${historyPage.account.id}/export?format=ndjson" class="btn btn-outline-secondary">NDJSON 내보내기</a>
+	</div>
+	<br>
+
+	<c:choose>
+		<c:when test="${not empty historyPage.historyList}">
+			<table class="table">
+				<thead>
+					<tr>
+						<th>날짜</th>
+						<th>구분</th>
+						<th>금액</th>
+						<th>거래 후 잔액</th>
+					</tr>
+				</thead>
+				<tbody>
+					<%-- getWBalance() 의 EL 프로퍼티 이름은 WBalance (두번째 글자가 대문자) --%>
+					<c:forEach var="history" items="${historyPage.historyList}">
+						<tr>
+							<td>${history.createdAt}</td>
+							<c:choose>
+								<c:when test="${history.WAccountId == historyPage.account.id}">
+									<td>${history.DAccountId == null ? '출금' : '이체 출금'}</td>
+									<td>${history.amount}</td>
+									<td>${history.WBalance}</td>
+								</c:when>
+								<c:otherwise>
+									<td>${history.WAccountId == null ? '입금' : '이체 입금'}</td>
+									<td>${history.amount}</td>
+									<td>${history.DBalance}</td>
+								</c:otherwise>
+							</c:choose>
+						</tr>
+					</c:forEach>
+				</tbody>
+			</table>
+
+			<%-- 다음 페이지 : 마지막 행의 커서를 넘긴다. --%>
+			<c:if test="${historyPage.hasNext}">
+				<c:url var="nextUrl" value="/account/detail/${historyPage.account.id}">
+					<c:param name="type" value="${historyPage.type}" />
+					<c:param name="cursor" value="${historyPage.nextCursor}" />
+					<c:param name="size" value="${historyPage.size}" />
+				</c:url>
+				<div class="text-right">
+					<a href="${nextUrl}" class="btn btn-primary">다음</a>
+				</div>
+			</c:if>
+		</c:when>
+
+		<c:otherwise>
+			<div class="jumbotron display-4">
+				<h5>거래 내역이 없습니다.</h5>
+			</div>
+		</c:otherwise>
+	</c:choose>
+
+</div>
+<%-- end of col-sm-8  --%>
+</div>
+</div>
+
+<%-- footer.jsp  --%>
+<%@ include file="/WEB-INF/view/layout/footer.jsp"%>
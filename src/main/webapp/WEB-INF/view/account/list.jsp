@@ -21,7 +21,7 @@
 				<tbody>
 					<c:forEach var="account" items="${accountList}">
 						<tr>
-							<td>${account.number}</td>
+							<td><a href="/account/detail/${account.id}">${account.number}</a></td>
 							<td>${account.balance}</td>
 						</tr>
 					</c:forEach>
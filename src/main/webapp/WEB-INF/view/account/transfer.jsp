@@ -12,6 +12,7 @@
 		insert into account_tb(number, password, balance, user_id, created_at)
 	 -->
 	<form action="/account/transfer" method="post">
+        <input type="hidden" name="idempotencyKey" value="${idempotencyKey}">
          <div class="form-group">
             <label for="amount">이체 금액:</label> 
             <input type="number" class="form-control" placeholder="Enter amount" id="amount" name="amount" value="1000">
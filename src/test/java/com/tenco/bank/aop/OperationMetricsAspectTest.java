@@ -0,0 +1,84 @@
+package com.tenco.bank.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.SignInDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class OperationMetricsAspectTest {
+
+	private static final Integer PRINCIPAL_ID = 1;
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void successIsTimedWithAmount() {
+		String number = createAccount(0L);
+		long before = count("deposit", "success", "none");
+		long amounts = meterRegistry.find("bank.operation.amount").tag("operation", "deposit").summaries().stream()
+				.mapToLong(s -> s.count()).sum();
+
+		accountService.updateAccountDeposit(new DepositDTO(500L, number), PRINCIPAL_ID);
+
+		assertEquals(before + 1, count("deposit", "success", "none"));
+		assertEquals(amounts + 1, meterRegistry.get("bank.operation.amount").tag("operation", "deposit").summary().count());
+	}
+
+	@Test
+	void failureIsTaggedWithDefineConstant() {
+		String number = createAccount(0L);
+		long before = count("withdrawal", "failure", "LACK_Of_BALANCE");
+
+		assertThrows(DataDeliveryException.class, () -> accountService
+				.updateAccountWithdrawal(new WithdrawalDTO(100L, number, PASSWORD), PRINCIPAL_ID));
+
+		assertEquals(before + 1, count("withdrawal", "failure", "LACK_Of_BALANCE"));
+	}
+
+	@Test
+	void failedSignInIsTagged() {
+		long before = count("readUser", "failure", "FAIL_TO_SIGN_IN");
+
+		assertThrows(DataDeliveryException.class, () -> userService.readUser(new SignInDTO("nobody", "wrong")));
+
+		assertEquals(before + 1, count("readUser", "failure", "FAIL_TO_SIGN_IN"));
+	}
+
+	private long count(String operation, String outcome, String error) {
+		return meterRegistry.find("bank.operation")
+				.tags("operation", operation, "outcome", outcome, "error", error)
+				.timers().stream()
+				.mapToLong(timer -> timer.count())
+				.sum();
+	}
+
+	private String createAccount(Long balance) {
+		String number = "m-" + UUID.randomUUID().toString().substring(0, 12);
+		accountService.createAccount(new SaveDTO(number, PASSWORD, balance), PRINCIPAL_ID);
+		return number;
+	}
+
+}
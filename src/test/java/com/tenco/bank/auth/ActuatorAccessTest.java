@@ -0,0 +1,74 @@
+package com.tenco.bank.auth;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+// actuator 는 공개 endpoint 만 로그인 없이 열리고, 나머지는 관리자(bank.management.admin-user-ids)만 호출 가능
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:actuator_access;MODE=MySQL",
+		"bank.management.admin-user-ids=1" })
+@AutoConfigureMockMvc
+class ActuatorAccessTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void publicEndpointsAreOpen() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+	}
+
+	@Test
+	void otherEndpointsRequireAdmin() throws Exception {
+		mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/metrics").session(signIn("둘리"))).andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/metrics").session(signIn("길동"))).andExpect(status().isOk());
+	}
+
+	@Test
+	void alteredPathsAreChecked() throws Exception {
+		// 스프링 MVC 는 아래 주소를 모두 /actuator/metrics 로 연결한다. (URI 로 넘겨서 MockMvc 가 다시 인코딩하지 않게 함)
+		mockMvc.perform(get(URI.create("http://localhost/%61ctuator/metrics"))).andExpect(status().isUnauthorized());
+		mockMvc.perform(get(URI.create("http://localhost/actuator;x=1/metrics"))).andExpect(status().isUnauthorized());
+		mockMvc.perform(get(URI.create("http://localhost//actuator/metrics"))).andExpect(status().isUnauthorized());
+		mockMvc.perform(get(URI.create("http://localhost/actuator/health/../metrics"))).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void sqlStatsResetRequiresAdmin() throws Exception {
+		mockMvc.perform(get("/actuator/sqlstats")).andExpect(status().isUnauthorized());
+		mockMvc.perform(delete("/actuator/sqlstats")).andExpect(status().isUnauthorized());
+		mockMvc.perform(delete("/actuator/sqlstats").session(signIn("둘리"))).andExpect(status().isForbidden());
+		mockMvc.perform(delete("/actuator/sqlstats").session(signIn("길동"))).andExpect(status().is2xxSuccessful());
+		mockMvc.perform(get(URI.create("http://localhost/%61ctuator/sqlstats"))).andExpect(status().isUnauthorized());
+		mockMvc.perform(delete(URI.create("http://localhost/%61ctuator/sqlstats"))).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void negativeSqlStatsLimitReturnsEmptyReport() throws Exception {
+		mockMvc.perform(get("/actuator/sqlstats").param("limit", "-1").session(signIn("길동")))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"));
+	}
+
+	// data.sql 사용자 ('길동' id 1, '둘리' id 2)
+	private MockHttpSession signIn(String username) throws Exception {
+		return (MockHttpSession) mockMvc.perform(post("/user/sign-in").param("username", username).param("password", "1234"))
+				.andExpect(status().is3xxRedirection())
+				.andReturn().getRequest().getSession(false);
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.tenco.bank.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class AuthTokenServiceTest {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final AuthTokenService service = new AuthTokenService("secret", Duration.ofMinutes(60),
+			Clock.fixed(NOW, ZoneOffset.UTC));
+
+	@Test
+	void issuedTokenVerifies() {
+		assertEquals(7, service.verify(service.issue(7)));
+	}
+
+	@Test
+	void tamperedUserIdIsRejected() {
+		String token = service.issue(7);
+		assertNull(service.verify("8" + token.substring(1)));
+	}
+
+	@Test
+	void tokenFromOtherKeyIsRejected() {
+		AuthTokenService other = new AuthTokenService("other", Duration.ofMinutes(60), Clock.fixed(NOW, ZoneOffset.UTC));
+		assertNull(service.verify(other.issue(7)));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String token = service.issue(7);
+		AuthTokenService later = new AuthTokenService("secret", Duration.ofMinutes(60),
+				Clock.fixed(NOW.plus(Duration.ofMinutes(61)), ZoneOffset.UTC));
+		assertNull(later.verify(token));
+	}
+
+	@Test
+	void tokenModeRequiresLongSecret() {
+		assertThrows(IllegalStateException.class, () -> AuthTokenService.checkSecret(AuthMode.TOKEN, null));
+		assertThrows(IllegalStateException.class, () -> AuthTokenService.checkSecret(AuthMode.TOKEN, "secret"));
+		assertEquals("0123456789abcdef0123456789abcdef",
+				AuthTokenService.checkSecret(AuthMode.TOKEN, "0123456789abcdef0123456789abcdef"));
+		// SESSION 모드는 토큰을 발급하지 않는다.
+		assertNull(AuthTokenService.checkSecret(AuthMode.SESSION, null));
+	}
+
+	@Test
+	void malformedTokenIsRejected() {
+		assertNull(service.verify(null));
+		assertNull(service.verify(""));
+		assertNull(service.verify("abc"));
+		assertNull(service.verify("7.x.y"));
+	}
+
+}
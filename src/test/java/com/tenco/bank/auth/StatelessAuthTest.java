@@ -0,0 +1,59 @@
+package com.tenco.bank.auth;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.tenco.bank.utils.Define;
+
+import jakarta.servlet.http.Cookie;
+
+// TOKEN 모드 - 로그인 후 세션 없이 토큰 쿠키만으로 계좌 목록에 접근
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:stateless_auth;MODE=MySQL",
+		"bank.auth.mode=TOKEN",
+		"bank.auth.token.secret=stateless-auth-test-secret-32-bytes",
+		"bank.auth.token.secure-cookie=true" })
+@AutoConfigureMockMvc
+class StatelessAuthTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void signInIssuesTokenWithoutSession() throws Exception {
+		MvcResult signIn = mockMvc.perform(post("/user/sign-in").param("username", "길동").param("password", "1234"))
+				.andExpect(status().is3xxRedirection())
+				.andReturn();
+		Cookie token = signIn.getResponse().getCookie(PrincipalManager.TOKEN_COOKIE);
+		assertNotNull(token);
+		assertTrue(token.getSecure());
+		assertNull(signIn.getRequest().getSession(false));
+
+		MvcResult list = mockMvc.perform(get("/account/list").cookie(token))
+				.andExpect(status().isOk())
+				.andExpect(view().name("account/list"))
+				.andReturn();
+		assertNull(list.getRequest().getSession(false));
+	}
+
+	@Test
+	void forgedTokenIsNotAuthenticated() throws Exception {
+		mockMvc.perform(get("/account/list").cookie(new Cookie(PrincipalManager.TOKEN_COOKIE, "1.9999999999.forged")))
+				.andExpect(content().string(containsString(Define.NOT_AN_AUTHENTICATED_USER)));
+	}
+
+}
@@ -0,0 +1,196 @@
+package com.tenco.bank.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.service.AccountService;
+
+/**
+ * /account/list, /account/transfer 부하 테스트 - 플랫폼 스레드(톰캣 스레드 풀) vs 가상 스레드
+ * 요청 처리 스레드 수보다 많은 클라이언트가 동시에 요청하고 처리량, p50/p99 지연을 출력한다.
+ * 실행 : ./gradlew loadTest (일반 test 작업에서는 제외)
+ */
+@Tag("load")
+abstract class AccountLoadTest {
+
+	private static final int CLIENTS = 400;
+	private static final int REQUESTS_PER_CLIENT = 25;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+	private static final String USERNAME = "길동";
+	private static final String PASSWORD = "1234";
+
+	@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+			"spring.datasource.url=jdbc:h2:mem:load_platform;MODE=MySQL",
+			"spring.threads.virtual.enabled=false" })
+	static class PlatformThreads extends AccountLoadTest {
+	}
+
+	@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+			"spring.datasource.url=jdbc:h2:mem:load_virtual;MODE=MySQL",
+			"spring.threads.virtual.enabled=true" })
+	static class VirtualThreads extends AccountLoadTest {
+	}
+
+	@LocalServerPort
+	private int port;
+
+	@Value("${spring.threads.virtual.enabled}")
+	private boolean virtualThreads;
+
+	@Autowired
+	private AccountService accountService;
+
+	private HttpClient client;
+
+	@BeforeEach
+	void signIn() throws Exception {
+		client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.cookieHandler(new CookieManager())
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(Duration.ofSeconds(10))
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		HttpResponse<String> response = post("/user/sign-in", Map.of("username", USERNAME, "password", PASSWORD));
+		assertEquals(302, response.statusCode(), "sign-in failed");
+	}
+
+	@Test
+	void accountList() throws Exception {
+		Result result = run(clientIndex -> get("/account/list"));
+		result.print("GET /account/list");
+		assertEquals(0, result.errors, "failed requests");
+	}
+
+	@Test
+	void transfer() throws Exception {
+		// 클라이언트마다 전용 계좌 2개 - 방향을 번갈아 바꿔서 잔액이 떨어지지 않게 한다.
+		String[][] accounts = new String[CLIENTS][2];
+		for (String[] pair : accounts) {
+			pair[0] = createAccount();
+			pair[1] = createAccount();
+		}
+		Result result = run(clientIndex -> {
+			String[] pair = accounts[clientIndex];
+			String from = pair[0];
+			pair[0] = pair[1];
+			pair[1] = from;
+			return post("/account/transfer", Map.of("amount", "1", "wAccountNumber", from,
+					"dAccountNumber", pair[0], "password", PASSWORD));
+		});
+		result.print("POST /account/transfer");
+		assertEquals(0, result.errors, "failed requests");
+	}
+
+	private String createAccount() {
+		String number = "l-" + UUID.randomUUID().toString().substring(0, 12);
+		accountService.createAccount(new SaveDTO(number, PASSWORD, 1_000_000L), PRINCIPAL_ID);
+		return number;
+	}
+
+	@FunctionalInterface
+	private interface Call {
+		HttpResponse<String> send(int clientIndex) throws Exception;
+	}
+
+	// CLIENTS 개의 클라이언트가 동시에 출발해서 각각 REQUESTS_PER_CLIENT 번 요청
+	// 성공 기준 : GET 200, POST 302 (실패 시 DataDeliveryException 은 200 + alert 스크립트로 응답된다)
+	private Result run(Call call) throws InterruptedException {
+		long[][] latencies = new long[CLIENTS][REQUESTS_PER_CLIENT];
+		AtomicLong errors = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		long begin;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < CLIENTS; c++) {
+				int clientIndex = c;
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+						long t0 = System.nanoTime();
+						try {
+							HttpResponse<String> response = call.send(clientIndex);
+							int expected = "GET".equals(response.request().method()) ? 200 : 302;
+							if (response.statusCode() != expected) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies[clientIndex][i] = System.nanoTime() - t0;
+					}
+				});
+			}
+			begin = System.nanoTime();
+			start.countDown();
+		}
+		long elapsed = System.nanoTime() - begin;
+		long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+		return new Result(virtualThreads, all, elapsed, errors.get());
+	}
+
+	private record Result(boolean virtualThreads, long[] sortedLatencies, long elapsedNanos, long errors) {
+
+		void print(String endpoint) {
+			IntFunction<Double> percentileMillis = p -> sortedLatencies[
+					Math.min(sortedLatencies.length - 1, (int) Math.ceil(sortedLatencies.length * p / 100.0) - 1)] / 1e6;
+			System.out.printf("[%s] %s requests=%d clients=%d throughput=%.0f req/s p50=%.2fms p99=%.2fms errors=%d%n",
+					virtualThreads ? "virtual" : "platform", endpoint, sortedLatencies.length, CLIENTS,
+					sortedLatencies.length / (elapsedNanos / 1e9),
+					percentileMillis.apply(50), percentileMillis.apply(99), errors);
+		}
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri(path)).GET().timeout(Duration.ofSeconds(60)).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(String path, Map<String, String> form) throws Exception {
+		String body = form.entrySet().stream()
+				.map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+				.collect(Collectors.joining("&"));
+		HttpRequest request = HttpRequest.newBuilder(uri(path))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.timeout(Duration.ofSeconds(60))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+}
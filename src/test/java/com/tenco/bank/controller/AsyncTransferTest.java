@@ -0,0 +1,106 @@
+package com.tenco.bank.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenco.bank.dto.AsyncTransferDTO;
+import com.tenco.bank.repository.model.PendingTransfer;
+import com.tenco.bank.utils.Define;
+
+// 비동기 이체 - 202 접수 후 상태 조회로 결과 확인 (성공 건, 잔액 부족 건)
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:async_transfer;MODE=MySQL",
+		"bank.transfer.async.poll-interval-ms=100" })
+@AutoConfigureMockMvc
+class AsyncTransferTest {
+
+	private static final int TRANSFERS = 20;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MockHttpSession session;
+
+	@BeforeEach
+	void signIn() throws Exception {
+		MvcResult signIn = mockMvc.perform(post("/user/sign-in").param("username", "길동").param("password", "1234"))
+				.andExpect(status().is3xxRedirection())
+				.andReturn();
+		session = (MockHttpSession) signIn.getRequest().getSession(false);
+	}
+
+	@Test
+	void acceptedTransfersAreProcessedInOrder() throws Exception {
+		long before = balance("1111");
+		List<String> locations = new ArrayList<>();
+		for (int i = 0; i < TRANSFERS; i++) {
+			locations.add(submit(10L));
+		}
+		String failed = submit(100_000_000L);
+
+		for (String location : locations) {
+			assertEquals(PendingTransfer.DONE, await(location).getStatus());
+		}
+		AsyncTransferDTO failedResult = await(failed);
+		assertEquals(PendingTransfer.FAILED, failedResult.getStatus());
+		assertEquals(Define.LACK_Of_BALANCE, failedResult.getMessage());
+		assertEquals(before - TRANSFERS * 10L, balance("1111"));
+	}
+
+	private String submit(long amount) throws Exception {
+		MvcResult result = mockMvc.perform(post("/account/transfer/async").session(session)
+				.param("amount", String.valueOf(amount))
+				.param("wAccountNumber", "1111")
+				.param("dAccountNumber", "2222")
+				.param("password", "1234"))
+				.andExpect(status().isAccepted())
+				.andReturn();
+		return result.getResponse().getHeader(HttpHeaders.LOCATION);
+	}
+
+	// PENDING 이 아닐 때까지 상태 조회 (최대 10초)
+	private AsyncTransferDTO await(String location) throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		AsyncTransferDTO transfer;
+		do {
+			String body = mockMvc.perform(get(location).session(session))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+			transfer = objectMapper.readValue(body, AsyncTransferDTO.class);
+			if (!PendingTransfer.PENDING.equals(transfer.getStatus())) {
+				return transfer;
+			}
+			Thread.sleep(20);
+		} while (System.currentTimeMillis() < deadline);
+		return transfer;
+	}
+
+	private long balance(String number) {
+		return jdbcTemplate.queryForObject("select balance from account_tb where number = ?", Long.class, number);
+	}
+
+}
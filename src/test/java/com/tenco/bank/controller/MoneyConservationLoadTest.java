@@ -0,0 +1,274 @@
+package com.tenco.bank.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.ReconciliationService;
+import com.tenco.bank.utils.Define;
+
+/**
+ * 돈 보존 부하 테스트 - 실제 HTTP 엔드포인트(AccountController)로 입금/출금/이체를 무작위로 동시에 보낸 뒤
+ * - 전체 잔액 합계 = 초기 합계 + 입금 합계 - 출금 합계 (이체는 합계를 바꾸지 않는다)
+ * - 계좌마다 account_tb.balance = 초기 잔액 + 거래내역의 입금 - 출금
+ * - 원장 대사 불일치 없음
+ * 을 확인하고 처리량, 지연 백분위, Define 메세지별 오류 건수를 출력한다.
+ *
+ * 실행 : ./gradlew loadTest --tests '*MoneyConservationLoadTest' -Pload.users=2000 -Pload.clients=200 -Pload.operations=50000
+ * (users : 사용자 = 계좌 수, clients : 동시 요청 수, operations : 전체 요청 수)
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:money_load;MODE=MySQL",
+		"spring.datasource.hikari.maximum-pool-size=20" })
+class MoneyConservationLoadTest {
+
+	private static final int USERS = Integer.getInteger("load.users", 2000);
+	private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+	private static final int OPERATIONS = Integer.getInteger("load.operations", 50_000);
+	private static final long INITIAL_BALANCE = 100_000L;
+	private static final long MAX_AMOUNT = 1_000L;
+	private static final String PASSWORD = "1234";
+	private static final Pattern ALERT = Pattern.compile("alert\\('(.*?)'\\)");
+
+	// Define 메세지 --> 상수 이름 (오류 분류용)
+	private static final Map<String, String> DEFINE_NAMES = defineNames();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private ReconciliationService reconciliationService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// 쿠키 저장소 없이 사용자별 로그인 쿠키를 직접 붙인다. (사용자 수만큼 클라이언트를 만들지 않음)
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(10))
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+
+	private record LoadUser(String username, String accountNumber, String cookie) {
+	}
+
+	@Test
+	void randomMoneyMovementsConserveMoney() throws Exception {
+		List<LoadUser> users = createUsers();
+		long initialTotal = totalBalance();
+		long historyBefore = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from history_tb", Long.class);
+
+		long[] latencies = new long[OPERATIONS];
+		AtomicInteger next = new AtomicInteger();
+		LongAdder succeeded = new LongAdder();
+		AtomicLong deposited = new AtomicLong();
+		AtomicLong withdrawn = new AtomicLong();
+		Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+		LongAdder unknownOutcomes = new LongAdder(); // 응답을 못 받은 요청 (반영 여부 모름)
+
+		long begin = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < CLIENTS; c++) {
+				executor.execute(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = next.getAndIncrement(); i < OPERATIONS; i = next.getAndIncrement()) {
+						LoadUser user = users.get(random.nextInt(users.size()));
+						long amount = 1 + random.nextLong(MAX_AMOUNT);
+						int kind = random.nextInt(10);
+						long t0 = System.nanoTime();
+						try {
+							HttpResponse<String> response;
+							if (kind < 4) {
+								LoadUser to = users.get(random.nextInt(users.size()));
+								response = post(user, "/account/transfer", Map.of("amount", String.valueOf(amount),
+										"wAccountNumber", user.accountNumber(), "dAccountNumber", to.accountNumber(),
+										"password", PASSWORD));
+							} else if (kind < 7) {
+								response = post(user, "/account/deposit", Map.of("amount", String.valueOf(amount),
+										"dAccountNumber", user.accountNumber()));
+							} else {
+								response = post(user, "/account/withdrawal", Map.of("amount", String.valueOf(amount),
+										"wAccountNumber", user.accountNumber(), "wAccountPassword", PASSWORD));
+							}
+							String error = classify(response);
+							if (error == null) {
+								succeeded.increment();
+								if (kind >= 4 && kind < 7) {
+									deposited.addAndGet(amount);
+								} else if (kind >= 7) {
+									withdrawn.addAndGet(amount);
+								}
+							} else {
+								errors.computeIfAbsent(error, k -> new LongAdder()).increment();
+							}
+						} catch (Exception e) {
+							unknownOutcomes.increment();
+							errors.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+						}
+						latencies[i] = System.nanoTime() - t0;
+					}
+				});
+			}
+		}
+		long elapsed = System.nanoTime() - begin;
+		print(latencies, elapsed, succeeded.sum(), errors);
+
+		// 1. 전체 합계 - DB 거래내역 기준 (응답 유실과 무관)
+		long historyDeposits = jdbcTemplate.queryForObject("select coalesce(sum(amount), 0) from history_tb "
+				+ "where id > ? and w_account_id is null", Long.class, historyBefore);
+		long historyWithdrawals = jdbcTemplate.queryForObject("select coalesce(sum(amount), 0) from history_tb "
+				+ "where id > ? and d_account_id is null", Long.class, historyBefore);
+		assertEquals(initialTotal + historyDeposits - historyWithdrawals, totalBalance(), "money was created or lost");
+		// 응답을 모두 받았으면 클라이언트가 본 성공 건과도 같아야 한다.
+		if (unknownOutcomes.sum() == 0) {
+			assertEquals(deposited.get(), historyDeposits, "acknowledged deposits differ from history");
+			assertEquals(withdrawn.get(), historyWithdrawals, "acknowledged withdrawals differ from history");
+		}
+
+		// 2. 계좌별 잔액 = 초기 잔액 + 거래내역
+		List<Map<String, Object>> mismatches = jdbcTemplate.queryForList("select * from (select a.number, a.balance, "
+				+ "? + coalesce((select sum(h.amount) from history_tb h where h.d_account_id = a.id), 0) "
+				+ "- coalesce((select sum(h.amount) from history_tb h where h.w_account_id = a.id), 0) as history_balance "
+				+ "from account_tb a where a.number like 'ld-%') t where t.balance <> t.history_balance", INITIAL_BALANCE);
+		assertTrue(mismatches.isEmpty(), () -> "balance differs from history: " + mismatches);
+
+		// 3. 원장 대사
+		assertEquals(List.of(), reconciliationService.reconcile().getMismatches());
+	}
+
+	// 사용자/계좌 생성 후 HTTP 로그인 (계좌는 원장 개설 기록을 위해 서비스로 생성)
+	private List<LoadUser> createUsers() throws Exception {
+		jdbcTemplate.update("insert into user_tb(username, password, fullname) "
+				+ "select concat('load-', x), ?, 'load' from system_range(1, ?)", PASSWORD, USERS);
+		List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+				"select id, username from user_tb where username like 'load-%' order by id");
+		List<LoadUser> users = new ArrayList<>(rows.size());
+		for (Map<String, Object> row : rows) {
+			String username = (String) row.get("USERNAME");
+			String number = "ld-" + username.substring("load-".length());
+			accountService.createAccount(new SaveDTO(number, PASSWORD, INITIAL_BALANCE), (Integer) row.get("ID"));
+			users.add(new LoadUser(username, number, signIn(username)));
+		}
+		return users;
+	}
+
+	private String signIn(String username) throws Exception {
+		HttpResponse<String> response = send(null, "/user/sign-in", Map.of("username", username, "password", PASSWORD));
+		assertEquals(302, response.statusCode(), "sign-in failed for " + username);
+		String cookie = response.headers().allValues("Set-Cookie").stream()
+				.map(header -> header.split(";", 2)[0])
+				.collect(Collectors.joining("; "));
+		assertTrue(!cookie.isEmpty(), "no session cookie for " + username);
+		return cookie;
+	}
+
+	private long totalBalance() {
+		return jdbcTemplate.queryForObject(
+				"select coalesce(sum(balance), 0) from account_tb where number like 'ld-%'", Long.class);
+	}
+
+	/**
+	 * @return null : 성공 (302), 그 외 : 오류 분류
+	 * 업무 오류(DataDeliveryException)는 200 + alert 스크립트로 응답되므로 메세지를 Define 상수 이름으로 바꾼다.
+	 */
+	private static String classify(HttpResponse<String> response) {
+		if (response.statusCode() == 302) {
+			return null;
+		}
+		Matcher matcher = ALERT.matcher(response.body());
+		if (matcher.find()) {
+			return DEFINE_NAMES.getOrDefault(matcher.group(1), "UNDEFINED(" + matcher.group(1) + ")");
+		}
+		return "HTTP " + response.statusCode();
+	}
+
+	private static void print(long[] latencies, long elapsedNanos, long succeeded, Map<String, LongAdder> errors) {
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		System.out.printf("money load: users=%d clients=%d requests=%d ok=%d throughput=%.0f req/s%n",
+				USERS, CLIENTS, sorted.length, succeeded, sorted.length / (elapsedNanos / 1e9));
+		System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+				percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+				sorted[sorted.length - 1] / 1e6);
+		errors.entrySet().stream()
+				.sorted(Map.Entry.<String, LongAdder>comparingByValue((a, b) -> Long.compare(b.sum(), a.sum())))
+				.forEach(e -> System.out.printf("error %-30s %d%n", e.getKey(), e.getValue().sum()));
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		int index = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(sorted.length * p / 100.0) - 1));
+		return sorted[index] / 1e6;
+	}
+
+	private HttpResponse<String> post(LoadUser user, String path, Map<String, String> form) throws Exception {
+		return send(user.cookie(), path, form);
+	}
+
+	private HttpResponse<String> send(String cookie, String path, Map<String, String> form) throws Exception {
+		String body = form.entrySet().stream()
+				.map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+				.collect(Collectors.joining("&"));
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.timeout(Duration.ofSeconds(60));
+		if (cookie != null) {
+			request.header("Cookie", cookie);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static Map<String, String> defineNames() {
+		Map<String, String> names = new HashMap<>();
+		for (Field field : Define.class.getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+				try {
+					names.putIfAbsent((String) field.get(null), field.getName());
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		return names;
+	}
+
+}
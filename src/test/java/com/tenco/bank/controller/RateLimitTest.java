@@ -0,0 +1,70 @@
+package com.tenco.bank.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+// 입금 버킷 2 개를 다 쓰면 같은 사용자의 다음 입금은 서비스 호출 없이 429, 다른 사용자는 영향 없음
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rate_limit;MODE=MySQL",
+		"bank.rate-limit.enabled=true",
+		"bank.rate-limit.deposit.permits-per-second=0.1",
+		"bank.rate-limit.deposit.burst=2" })
+@AutoConfigureMockMvc
+class RateLimitTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void depositsOverBurstAreRejected() throws Exception {
+		MockHttpSession gildong = signIn("길동");
+		deposit(gildong, "1111").andExpect(status().is3xxRedirection());
+		deposit(gildong, "1111").andExpect(status().is3xxRedirection());
+		deposit(gildong, "1111")
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+
+		MockHttpSession dooly = signIn("둘리");
+		deposit(dooly, "2222").andExpect(status().is3xxRedirection());
+	}
+
+	// URI 를 바꿔도 같은 입금 핸들러면 같은 버킷을 쓴다. (버킷을 못 찾아 통과하거나 500 이 나면 안 됨)
+	@Test
+	void alteredDepositPathsShareTheDepositBucket() throws Exception {
+		MockHttpSession mai = signIn("마이");
+		deposit(mai, "3333", "/account/%64eposit").andExpect(status().is3xxRedirection());
+		deposit(mai, "3333", "/account/deposit;x=1").andExpect(status().is3xxRedirection());
+		deposit(mai, "3333", "/account/%64eposit").andExpect(status().isTooManyRequests());
+		deposit(mai, "3333", "/account/deposit;x=1").andExpect(status().isTooManyRequests());
+	}
+
+	private ResultActions deposit(MockHttpSession session, String number) throws Exception {
+		return deposit(session, number, "/account/deposit");
+	}
+
+	private ResultActions deposit(MockHttpSession session, String number, String path) throws Exception {
+		// 문자열 템플릿은 % 를 다시 인코딩하므로 URI 로 넘긴다.
+		return mockMvc.perform(post(URI.create("http://localhost" + path)).session(session)
+				.param("amount", "1")
+				.param("dAccountNumber", number));
+	}
+
+	private MockHttpSession signIn(String username) throws Exception {
+		return (MockHttpSession) mockMvc.perform(post("/user/sign-in").param("username", username).param("password", "1234"))
+				.andExpect(status().is3xxRedirection())
+				.andReturn().getRequest().getSession(false);
+	}
+
+}
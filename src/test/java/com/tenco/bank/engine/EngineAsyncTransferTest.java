@@ -0,0 +1,103 @@
+package com.tenco.bank.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.interfaces.PendingTransferRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.PendingTransfer;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.AsyncTransferService;
+import com.tenco.bank.utils.Define;
+
+// 엔진 모드 비동기 이체 - 응답 시간 초과(RESULT_UNKNOWN) 건은 UNKNOWN 으로 두고 다시 보내지 않는지 확인
+// timeout-ms=0 : 엔진이 적용하기 전에 항상 응답 대기를 포기한다. (명령은 그대로 적용됨)
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:engine_async_transfer;MODE=MySQL",
+		"bank.engine.enabled=true",
+		"bank.engine.partitions=2",
+		"bank.engine.timeout-ms=0",
+		"bank.engine.journal.dir=build/engine-test/${random.uuid}",
+		"bank.transfer.async.poll-interval-ms=50" })
+class EngineAsyncTransferTest {
+
+	private static final int TRANSFERS = 10;
+	private static final long AMOUNT = 10L;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+
+	@Autowired
+	private AsyncTransferService asyncTransferService;
+
+	@Autowired
+	private PendingTransferRepository pendingTransferRepository;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private TransferEngine transferEngine;
+
+	@Test
+	void unknownResultIsNotResubmitted() throws Exception {
+		accountService.createAccount(new SaveDTO("ea-a", "1234", 1000L), PRINCIPAL_ID);
+		accountService.createAccount(new SaveDTO("ea-b", "1234", 1000L), PRINCIPAL_ID);
+		Account a = accountRepository.findByNumber("ea-a");
+		Account b = accountRepository.findByNumber("ea-b");
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < TRANSFERS; i++) {
+			ids.add(asyncTransferService.submit(new TransferDTO(AMOUNT, "ea-a", "ea-b", "1234"), PRINCIPAL_ID).getId());
+		}
+		List<PendingTransfer> results = awaitProcessed(ids);
+
+		int unknown = 0;
+		for (PendingTransfer pending : results) {
+			assertTrue(PendingTransfer.DONE.equals(pending.getStatus()) || PendingTransfer.UNKNOWN.equals(pending.getStatus()),
+					pending.getStatus());
+			if (PendingTransfer.UNKNOWN.equals(pending.getStatus())) {
+				assertEquals(Define.RESULT_UNKNOWN, pending.getMessage());
+				unknown++;
+			}
+		}
+		assertTrue(unknown > 0, "timeout-ms=0 must leave unknown results");
+		// 결과를 모르는 건도 엔진에는 한 번씩만 적용된다.
+		Thread.sleep(500);
+		assertEquals(1000L - TRANSFERS * AMOUNT, transferEngine.balanceOf(a.getId()));
+		assertEquals(1000L + TRANSFERS * AMOUNT, transferEngine.balanceOf(b.getId()));
+	}
+
+	// 모든 접수 건이 PENDING/PROCESSING 을 벗어날 때까지 대기
+	private List<PendingTransfer> awaitProcessed(List<Long> ids) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			List<PendingTransfer> results = new ArrayList<>();
+			for (Long id : ids) {
+				PendingTransfer pending = pendingTransferRepository.findById(id);
+				if (PendingTransfer.PENDING.equals(pending.getStatus())
+						|| PendingTransfer.PROCESSING.equals(pending.getStatus())) {
+					break;
+				}
+				results.add(pending);
+			}
+			if (results.size() == ids.size()) {
+				return results;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("async transfers were not processed within 10s");
+	}
+
+}
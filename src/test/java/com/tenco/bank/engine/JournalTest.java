@@ -0,0 +1,72 @@
+package com.tenco.bank.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// 세그먼트 4 건짜리 저널로 재시작 재생, 세그먼트 교체와 삭제 확인
+class JournalTest {
+
+	private static final long SEGMENT_BYTES = 4L * Journal.RECORD_SIZE;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysRecordsAfterSyncedPosition() throws Exception {
+		try (Journal journal = Journal.open(directory, SEGMENT_BYTES, false, 0, record -> {
+		})) {
+			for (int i = 1; i <= 10; i++) {
+				journal.append(new JournalRecord(JournalRecord.DEPOSIT, 7, 0, i, i * 100L, 0, 0));
+			}
+			journal.flush();
+			assertEquals(10, journal.lastSeq());
+			assertEquals(3, journal.segmentCount());
+		}
+
+		List<JournalRecord> replayed = new ArrayList<>();
+		try (Journal journal = Journal.open(directory, SEGMENT_BYTES, false, 5, replayed::add)) {
+			assertEquals(List.of(6L, 7L, 8L, 9L, 10L), replayed.stream().map(JournalRecord::getSeq).toList());
+			assertEquals(1000L, replayed.get(4).getBalanceAfter());
+			assertEquals(11, journal.nextSeq());
+			assertEquals(7, journal.read(7).getAmount());
+		}
+	}
+
+	@Test
+	void deletesSyncedSegmentsButKeepsActiveOne() throws Exception {
+		try (Journal journal = Journal.open(directory, SEGMENT_BYTES, false, 0, record -> {
+		})) {
+			for (int i = 1; i <= 10; i++) {
+				journal.append(new JournalRecord(JournalRecord.WITHDRAW, 3, 0, 1, 0, 0, 0));
+			}
+			journal.deleteThrough(8); // 1..4, 5..8 삭제, 9..10 (현재) 유지
+			assertEquals(1, journal.segmentCount());
+			assertEquals(9, journal.read(9).getSeq());
+
+			journal.deleteThrough(10); // 현재 세그먼트는 지우지 않는다.
+			assertEquals(1, journal.segmentCount());
+		}
+	}
+
+	@Test
+	void startsAfterSyncedPositionWhenJournalIsBehind() throws Exception {
+		try (Journal journal = Journal.open(directory, SEGMENT_BYTES, false, 0, record -> {
+		})) {
+			journal.append(new JournalRecord(JournalRecord.DEPOSIT, 1, 0, 1, 1, 0, 0));
+		}
+
+		List<JournalRecord> replayed = new ArrayList<>();
+		try (Journal journal = Journal.open(directory, SEGMENT_BYTES, false, 20, replayed::add)) {
+			assertTrue(replayed.isEmpty());
+			assertEquals(21, journal.append(new JournalRecord(JournalRecord.DEPOSIT, 1, 0, 1, 2, 0, 0)));
+		}
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.tenco.bank.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.interfaces.EngineRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.repository.model.EngineTransfer;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.LedgerService;
+
+// 엔진 재기동 : DB 에 반영되지 않은 저널 끝부분과 입금쪽(CREDIT)이 빠진 이체를 복구하는지 확인
+// 엔진은 테스트에서 직접 만들고 멈춘다. (파티션 2 개, 계좌가 서로 다른 파티션)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:engine_recovery;MODE=MySQL")
+class TransferEngineRecoveryTest {
+
+	private static final int PARTITIONS = 2;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+
+	@Autowired
+	private EngineRepository engineRepository;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private SqlSessionFactory sqlSessionFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void restartReplaysUnsyncedTailAndCreditsOnce() throws Exception {
+		Account a = createAccount("r-a", 1000L);
+		Account b = createAccount("r-b", 1000L);
+		assertTrue(partition(a.getId()) != partition(b.getId()), "accounts must be in different partitions");
+		Path directory = Path.of("build/engine-test", UUID.randomUUID().toString());
+
+		// 종료 직전 상태 : 저널에만 있는 출금, 입금, 이체 DEBIT (입금 파티션에는 CREDIT 없음)
+		long transferId;
+		try (Journal journal = openJournal(directory, a.getId())) {
+			journal.append(new JournalRecord(JournalRecord.WITHDRAW, a.getId(), 0, 100L, 900L, 0, 0));
+			transferId = ((long) partition(a.getId()) << 48) | journal.nextSeq();
+			journal.append(new JournalRecord(JournalRecord.DEBIT, a.getId(), b.getId(), 300L, 600L, 0, transferId));
+		}
+		try (Journal journal = openJournal(directory, b.getId())) {
+			journal.append(new JournalRecord(JournalRecord.DEPOSIT, b.getId(), 0, 50L, 1050L, 0, 0));
+		}
+
+		TransferEngine engine = start(directory);
+		awaitSynced(engine, a, b);
+		assertBalances(engine, a, 600L, b, 1350L);
+		assertEquals(1L, creditCount(transferId));
+		engine.destroy();
+
+		// 한 번 더 재기동해도 입금쪽은 다시 반영되지 않는다.
+		engine = start(directory);
+		awaitSynced(engine, a, b);
+		assertBalances(engine, a, 600L, b, 1350L);
+		assertEquals(1L, creditCount(transferId));
+		engine.destroy();
+	}
+
+	@Test
+	void restartResendsCreditOfSyncedDebit() throws Exception {
+		Account a = createAccount("r-c", 1000L);
+		Account b = createAccount("r-d", 1000L);
+		assertTrue(partition(a.getId()) != partition(b.getId()), "accounts must be in different partitions");
+		Path directory = Path.of("build/engine-test", UUID.randomUUID().toString());
+
+		// DEBIT 은 DB 에 반영되고 저널은 지워진 뒤, CREDIT 반영 전에 종료된 상태
+		long transferId = ((long) partition(a.getId()) << 48) | 999_999L;
+		jdbcTemplate.update("update account_tb set balance = balance - 200 where id = ?", a.getId());
+		jdbcTemplate.update("insert into ledger_entry_tb(movement_id, account_id, direction, amount) values(?, ?, 'D', 200)",
+				"transfer-" + transferId, a.getId());
+		engineRepository.insertTransfer(new EngineTransfer(transferId, EngineTransfer.DEBIT, a.getId(), b.getId(), 200L, 800L));
+
+		TransferEngine engine = start(directory);
+		awaitSynced(engine, a, b);
+		assertBalances(engine, a, 800L, b, 1200L);
+		assertEquals(1L, creditCount(transferId));
+		engine.destroy();
+
+		engine = start(directory);
+		awaitSynced(engine, a, b);
+		assertBalances(engine, a, 800L, b, 1200L);
+		assertEquals(1L, creditCount(transferId));
+		engine.destroy();
+	}
+
+	private Account createAccount(String number, Long balance) {
+		accountService.createAccount(new SaveDTO(number, "1234", balance), PRINCIPAL_ID);
+		return accountRepository.findByNumber(number);
+	}
+
+	private static int partition(int accountId) {
+		return Math.floorMod(accountId, PARTITIONS);
+	}
+
+	// 엔진과 같은 위치의 파티션 저널 - DB 반영 순번 다음부터 쓴다.
+	private Journal openJournal(Path directory, int accountId) throws Exception {
+		int partition = partition(accountId);
+		Long position = engineRepository.findSyncPosition(partition);
+		return Journal.open(directory.resolve("partition-" + partition), 1024 * 1024, false,
+				position == null ? 0 : position, record -> {
+				});
+	}
+
+	private TransferEngine start(Path directory) throws Exception {
+		TransferEngine engine = new TransferEngine(engineRepository, accountRepository, sqlSessionFactory,
+				transactionManager, PARTITIONS, 1024, directory.toString(), 1, false, 100, 10, 3000);
+		engine.afterPropertiesSet();
+		return engine;
+	}
+
+	private void assertBalances(TransferEngine engine, Account a, long balanceA, Account b, long balanceB) {
+		assertEquals(balanceA, engine.balanceOf(a.getId()));
+		assertEquals(balanceB, engine.balanceOf(b.getId()));
+		assertEquals(balanceA, accountRepository.findBalanceById(a.getId()));
+		assertEquals(balanceB, accountRepository.findBalanceById(b.getId()));
+		assertEquals(balanceA, ledgerService.balanceOf(a.getId()));
+		assertEquals(balanceB, ledgerService.balanceOf(b.getId()));
+	}
+
+	// 입금쪽 반영 횟수 (원장 C 항목)
+	private Long creditCount(long transferId) {
+		return jdbcTemplate.queryForObject(
+				"select count(*) from ledger_entry_tb where movement_id = ? and direction = 'C'", Long.class,
+				"transfer-" + transferId);
+	}
+
+	// 엔진 대기열과 저널이 모두 DB 에 반영될 때까지 대기
+	private void awaitSynced(TransferEngine engine, Account... accounts) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			boolean synced = engine.getQueuedCommands() == 0 && engine.getSyncLag() == 0;
+			for (Account account : accounts) {
+				synced &= engine.balanceOf(account.getId()).equals(accountRepository.findBalanceById(account.getId()));
+			}
+			if (synced) {
+				return;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("engine did not sync within 10s (lag " + engine.getSyncLag() + ")");
+	}
+
+}
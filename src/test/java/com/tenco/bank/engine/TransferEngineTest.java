@@ -0,0 +1,149 @@
+package com.tenco.bank.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.service.AccountService;
+import com.tenco.bank.service.LedgerService;
+import com.tenco.bank.utils.Define;
+
+// 엔진 모드에서 동시 이체/입출금 후 저널이 DB 에 빠짐없이 반영되는지 확인 (파티션 2 개, 계좌가 서로 다른 파티션)
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:engine_test;MODE=MySQL",
+		"bank.engine.enabled=true",
+		"bank.engine.partitions=2",
+		"bank.engine.journal.dir=build/engine-test/${random.uuid}",
+		"bank.engine.journal.segment-size-mb=1",
+		"bank.engine.sync.batch-size=100" })
+class TransferEngineTest {
+
+	private static final int THREADS = 8;
+	private static final int OPERATIONS = 50;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private TransferEngine transferEngine;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentOperationsAreSyncedToDatabase() throws Exception {
+		accountService.createAccount(new SaveDTO("e-a", PASSWORD, 1000L), PRINCIPAL_ID);
+		accountService.createAccount(new SaveDTO("e-b", PASSWORD, 1000L), PRINCIPAL_ID);
+		Account a = accountRepository.findByNumber("e-a");
+		Account b = accountRepository.findByNumber("e-b");
+		assertTrue(a.getId() % 2 != b.getId() % 2, "accounts must be in different partitions");
+
+		AtomicLong withdrawn = new AtomicLong();
+		AtomicLong deposited = new AtomicLong();
+		AtomicLong transfers = new AtomicLong();
+		ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			executor.execute(() -> {
+				try {
+					for (int i = 0; i < OPERATIONS; i++) {
+						switch ((thread + i) % 4) {
+						case 0 -> accountService.updateAccountTransfer(new TransferDTO(3L, "e-a", "e-b", PASSWORD), PRINCIPAL_ID);
+						case 1 -> accountService.updateAccountTransfer(new TransferDTO(2L, "e-b", "e-a", PASSWORD), PRINCIPAL_ID);
+						case 2 -> {
+							accountService.updateAccountWithdrawal(new WithdrawalDTO(1L, "e-a", PASSWORD), PRINCIPAL_ID);
+							withdrawn.addAndGet(1);
+						}
+						default -> {
+							accountService.updateAccountDeposit(new DepositDTO(1L, "e-b"), PRINCIPAL_ID);
+							deposited.addAndGet(1);
+						}
+						}
+						if ((thread + i) % 4 < 2) {
+							transfers.incrementAndGet();
+						}
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+
+		awaitSynced(a, b);
+		long balanceA = transferEngine.balanceOf(a.getId());
+		long balanceB = transferEngine.balanceOf(b.getId());
+		assertEquals(2000L - withdrawn.get() + deposited.get(), balanceA + balanceB);
+		assertEquals(balanceA, accountRepository.findBalanceById(a.getId()));
+		assertEquals(balanceB, accountRepository.findBalanceById(b.getId()));
+		assertEquals(balanceA, ledgerService.balanceOf(a.getId()));
+		assertEquals(balanceB, ledgerService.balanceOf(b.getId()));
+		assertEquals(transfers.get(), jdbcTemplate.queryForObject(
+				"select count(*) from history_tb where w_account_id in (?, ?) and d_account_id in (?, ?)", Long.class,
+				a.getId(), b.getId(), a.getId(), b.getId()));
+	}
+
+	@Test
+	void overdrawIsRejectedWithoutChangingBalance() {
+		accountService.createAccount(new SaveDTO("e-c", PASSWORD, 10L), PRINCIPAL_ID);
+		Account c = accountRepository.findByNumber("e-c");
+
+		DataDeliveryException e = assertThrows(DataDeliveryException.class, () -> accountService
+				.updateAccountTransfer(new TransferDTO(11L, "e-c", "1111", PASSWORD), PRINCIPAL_ID));
+		assertEquals(Define.LACK_Of_BALANCE, e.getMessage());
+
+		accountService.updateAccountWithdrawal(new WithdrawalDTO(4L, "e-c", PASSWORD), PRINCIPAL_ID);
+		// 조회는 DB 반영 전에도 엔진 잔액을 보여준다.
+		assertEquals(6L, accountService.readAccountByAccountId(c.getId(), PRINCIPAL_ID).getBalance());
+	}
+
+	// 엔진 대기열과 저널이 모두 DB 에 반영될 때까지 대기
+	private void awaitSynced(Account... accounts) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			boolean synced = transferEngine.getQueuedCommands() == 0 && transferEngine.getSyncLag() == 0;
+			for (Account account : accounts) {
+				synced &= transferEngine.balanceOf(account.getId()).equals(accountRepository.findBalanceById(account.getId()));
+			}
+			if (synced) {
+				return;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("engine did not sync within 10s (lag " + transferEngine.getSyncLag() + ")");
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.tenco.bank.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+	// 초당 2 개, 버킷 3 개
+	private final TokenBucketLimiter limiter = new TokenBucketLimiter(2, 3, now::get);
+
+	@Test
+	void burstThenRefillAtRate() {
+		assertEquals(0, limiter.tryAcquire(1));
+		assertEquals(0, limiter.tryAcquire(1));
+		assertEquals(0, limiter.tryAcquire(1));
+		long wait = limiter.tryAcquire(1);
+		assertEquals(SECOND / 2, wait);
+
+		now.addAndGet(SECOND / 2);
+		assertEquals(0, limiter.tryAcquire(1));
+		assertTrue(limiter.tryAcquire(1) > 0);
+		assertEquals(2, limiter.getRejectedCount());
+	}
+
+	@Test
+	void bucketsArePerKey() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire(1));
+		}
+		assertTrue(limiter.tryAcquire(1) > 0);
+		assertEquals(0, limiter.tryAcquire(2));
+	}
+
+	@Test
+	void idleTimeDoesNotAccumulateBeyondBurst() {
+		limiter.tryAcquire(1);
+		now.addAndGet(60 * SECOND);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire(1));
+		}
+		assertTrue(limiter.tryAcquire(1) > 0);
+	}
+
+	@Test
+	void evictsOnlyFullBuckets() {
+		limiter.tryAcquire(1);
+		limiter.tryAcquire(2);
+		limiter.tryAcquire(2);
+		now.addAndGet(SECOND / 2); // 1 은 가득 참, 2 는 아직 한 개 덜 참
+
+		assertEquals(1, limiter.evictIdle());
+		assertEquals(1, limiter.getBucketCount());
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.tenco.bank.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 매퍼 쿼리 실행 계획 회귀 테스트
+ * 매퍼 xml 의 SQL 을 H2 EXPLAIN 으로 확인해서 자주 쓰는 쿼리가 테이블 풀 스캔(tableScan)이면 실패한다.
+ * 인덱스 선택이 행 수에 영향을 받지 않도록 별도 DB 에 데이터를 채운 뒤 ANALYZE 한다.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:plan_test;MODE=MySQL")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MapperQueryPlanTest {
+
+	private static final String ACCOUNT = "com.tenco.bank.repository.interfaces.AccountRepository.";
+	private static final String HISTORY = "com.tenco.bank.repository.interfaces.HistoryRepository.";
+	private static final String USER = "com.tenco.bank.repository.interfaces.UserRepository.";
+	private static final String LEDGER = "com.tenco.bank.repository.interfaces.LedgerRepository.";
+	private static final String DAILY_BALANCE = "com.tenco.bank.repository.interfaces.DailyBalanceRepository.";
+	private static final String PENDING_TRANSFER = "com.tenco.bank.repository.interfaces.PendingTransferRepository.";
+	private static final String IDEMPOTENCY = "com.tenco.bank.repository.interfaces.IdempotencyKeyRepository.";
+
+	@Autowired
+	private SqlSessionFactory sqlSessionFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update("insert into account_tb(number, password, balance, user_id) "
+				+ "select concat('plan-', x), '1234', 1000, mod(x, 100) + 10 from system_range(1, 2000)");
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id) "
+				+ "select 1, 1000, 1000, mod(x, 2000) + 1, mod(x + 1, 2000) + 1 from system_range(1, 20000)");
+		jdbcTemplate.update("insert into ledger_entry_tb(movement_id, account_id, direction, amount) "
+				+ "select concat('plan-', x), mod(x, 2000) + 1, case when mod(x, 2) = 0 then 'C' else 'D' end, 1 "
+				+ "from system_range(1, 20000)");
+		jdbcTemplate.update("insert into balance_checkpoint_tb(account_id, entry_id, balance) "
+				+ "select mod(x, 2000) + 1, x, 1000 from system_range(1, 20000)");
+		jdbcTemplate.update("insert into daily_balance_tb(account_id, snapshot_date, balance, last_entry_id) "
+				+ "select mod(x, 2000) + 1, dateadd(day, -(x / 2000) - 1, current_date), 1000, x from system_range(1, 20000)");
+		jdbcTemplate.update("insert into pending_transfer_tb(user_id, w_account_id, lane, w_account_number, "
+				+ "d_account_number, amount, status) select 1, mod(x, 2000) + 1, mod(mod(x, 2000) + 1, 4), 'plan-1', 'plan-2', 1, "
+				+ "case when mod(x, 10) = 0 then 'PENDING' else 'DONE' end from system_range(1, 20000)");
+		jdbcTemplate.update("insert into idempotency_key_tb(user_id, idem_key, operation, request_hash, success, expires_at) "
+				+ "select mod(x, 100) + 10, concat('plan-', x), 'deposit', 'h', true, dateadd(hour, 1, now()) "
+				+ "from system_range(1, 20000)");
+		jdbcTemplate.execute("analyze");
+	}
+
+	static Stream<Arguments> statements() {
+		Timestamp cursor = new Timestamp(System.currentTimeMillis());
+		Date today = Date.valueOf(LocalDate.now());
+		return Stream.of(
+				Arguments.of(ACCOUNT + "findByUserId", Map.of("userId", 1)),
+				Arguments.of(ACCOUNT + "findByNumber", Map.of("number", "1111")),
+				Arguments.of(ACCOUNT + "findByAccountId", Map.of("accountId", 1)),
+				Arguments.of(ACCOUNT + "findByIdForUpdate", Map.of("id", 1)),
+				Arguments.of(ACCOUNT + "findBalanceById", Map.of("id", 1)),
+				Arguments.of(ACCOUNT + "updateBalanceWithdraw", Map.of("id", 1, "amount", 1L)),
+				Arguments.of(ACCOUNT + "updateBalanceDeposit", Map.of("id", 1, "amount", 1L)),
+				Arguments.of(HISTORY + "findById", Map.of("id", 1)),
+				Arguments.of(HISTORY + "findByAccountIdAndCursor", historyPage("all", null, null)),
+				Arguments.of(HISTORY + "findByAccountIdAndCursor", historyPage("all", cursor, 100)),
+				Arguments.of(HISTORY + "findByAccountIdAndCursor", historyPage("withdrawal", null, null)),
+				Arguments.of(HISTORY + "findByAccountIdAndCursor", historyPage("withdrawal", cursor, 100)),
+				Arguments.of(HISTORY + "findByAccountIdAndCursor", historyPage("deposit", null, null)),
+				Arguments.of(HISTORY + "findByAccountIdAndCursor", historyPage("deposit", cursor, 100)),
+				Arguments.of(HISTORY + "findAllByAccountIdForExport", Map.of("accountId", 1)),
+				Arguments.of(HISTORY + "deleteOrphans", Map.of("from", cursor, "to", cursor)),
+				Arguments.of(LEDGER + "findLatestCheckpoint", ledger(null)),
+				Arguments.of(LEDGER + "findLatestCheckpoint", ledger(cursor)),
+				Arguments.of(LEDGER + "sumTail", ledger(null)),
+				Arguments.of(LEDGER + "sumTail", ledger(cursor)),
+				Arguments.of(LEDGER + "findLastEntryId", Map.of("accountId", 1)),
+				Arguments.of(DAILY_BALANCE + "findLatestBefore", Map.of("accountId", 1, "before", today)),
+				Arguments.of(DAILY_BALANCE + "insertSnapshots", snapshot(today)),
+				Arguments.of(PENDING_TRANSFER + "findPendingByLane", Map.of("lane", 1, "limit", 100)),
+				Arguments.of(PENDING_TRANSFER + "countPending", Map.of()),
+				Arguments.of(IDEMPOTENCY + "findByUserIdAndKey", Map.of("userId", 10, "idemKey", "plan-1")),
+				Arguments.of(IDEMPOTENCY + "deleteExpired", Map.of("now", cursor, "limit", 1000)),
+				Arguments.of(USER + "findById", Map.of("id", 1)),
+				Arguments.of(USER + "findByUsernameAndPassword", Map.of("username", "길동", "password", "1234")));
+	}
+
+	@ParameterizedTest(name = "{0} {1}")
+	@MethodSource("statements")
+	void hotQueryDoesNotScanTable(String statementId, Map<String, Object> parameter) {
+		String sql = inlineParameters(statementId, parameter);
+		List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class);
+		String planText = String.join("\n", plan);
+		assertFalse(planText.contains("tableScan"), () -> statementId + " regressed to a table scan:\n" + planText);
+	}
+
+	private static Map<String, Object> ledger(Timestamp at) {
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("accountId", 1);
+		parameter.put("afterEntryId", 100L);
+		parameter.put("at", at);
+		return parameter;
+	}
+
+	private static Map<String, Object> snapshot(Date snapshotDate) {
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("snapshotDate", snapshotDate);
+		parameter.put("from", new Timestamp(snapshotDate.getTime()));
+		parameter.put("to", new Timestamp(snapshotDate.getTime() + 86_400_000L));
+		parameter.put("afterEntryId", 0L);
+		return parameter;
+	}
+
+	private static Map<String, Object> historyPage(String type, Timestamp cursorCreatedAt, Integer cursorId) {
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("type", type);
+		parameter.put("accountId", 1);
+		parameter.put("cursorCreatedAt", cursorCreatedAt);
+		parameter.put("cursorId", cursorId);
+		parameter.put("limit", 21);
+		return parameter;
+	}
+
+	// 매퍼 SQL 의 ? 자리에 파라미터 값을 리터럴로 넣는다. (EXPLAIN 용)
+	private String inlineParameters(String statementId, Map<String, Object> parameter) {
+		Configuration configuration = sqlSessionFactory.getConfiguration();
+		BoundSql boundSql = configuration.getMappedStatement(statementId).getBoundSql(parameter);
+		MetaObject metaObject = configuration.newMetaObject(parameter);
+
+		StringBuilder sql = new StringBuilder();
+		String[] parts = boundSql.getSql().split("\\?", -1);
+		List<ParameterMapping> mappings = boundSql.getParameterMappings();
+		for (int i = 0; i < parts.length; i++) {
+			sql.append(parts[i]);
+			if (i < mappings.size()) {
+				String property = mappings.get(i).getProperty();
+				Object value = boundSql.hasAdditionalParameter(property)
+						? boundSql.getAdditionalParameter(property)
+						: metaObject.getValue(property);
+				sql.append(toLiteral(value));
+			}
+		}
+		return sql.toString();
+	}
+
+	private static String toLiteral(Object value) {
+		if (value == null) {
+			return "null";
+		}
+		if (value instanceof Number) {
+			return value.toString();
+		}
+		if (value instanceof Timestamp) {
+			return "timestamp '" + value + "'";
+		}
+		if (value instanceof Date) {
+			return "date '" + value + "'";
+		}
+		return "'" + value.toString().replace("'", "''") + "'";
+	}
+
+}
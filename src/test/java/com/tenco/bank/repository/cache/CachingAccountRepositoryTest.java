@@ -0,0 +1,129 @@
+package com.tenco.bank.repository.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.service.AccountService;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:account_cache;MODE=MySQL",
+		"bank.account.cache.enabled=true" })
+class CachingAccountRepositoryTest {
+
+	private static final Integer PRINCIPAL_ID = 1;
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	@Qualifier("accountRepository")
+	private AccountRepository mapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void serviceUsesCachingRepository() {
+		assertSame(CachingAccountRepository.class, accountRepository.getClass());
+	}
+
+	@Test
+	void repeatedLookupIsServedFromCache() {
+		Account account = createAccount(100L);
+		CachingAccountRepository cache = (CachingAccountRepository) accountRepository;
+		long hits = cache.getNumberStats().hitCount();
+
+		accountRepository.findByNumber(account.getNumber());
+		accountRepository.findByNumber(account.getNumber());
+
+		assertEquals(hits + 2, cache.getNumberStats().hitCount());
+	}
+
+	@Test
+	void balanceIsRereadInsideTransaction() {
+		Account account = createAccount(100L);
+		// 캐시를 거치지 않고 잔액 변경 --> 캐시에는 100 이 남아 있다.
+		jdbcTemplate.update("update account_tb set balance = 0 where id = ?", account.getId());
+
+		assertEquals(100L, accountRepository.findByNumber(account.getNumber()).getBalance());
+		Long balanceInTransaction = new TransactionTemplate(transactionManager)
+				.execute(status -> accountRepository.findByNumber(account.getNumber()).getBalance());
+		assertEquals(0L, balanceInTransaction);
+	}
+
+	@Test
+	void updateByIdInvalidatesOldNumber() {
+		Account account = createAccount(100L);
+		String oldNumber = account.getNumber();
+		String newNumber = "n-" + UUID.randomUUID().toString().substring(0, 12);
+
+		account.setNumber(newNumber);
+		accountRepository.updateById(account);
+
+		assertNull(accountRepository.findByNumber(oldNumber));
+		assertNotNull(accountRepository.findByNumber(newNumber));
+	}
+
+	@Test
+	void balanceChangeInvalidatesAccountList() {
+		Account account = createAccount(100L);
+		accountService.readAccountListByUserId(PRINCIPAL_ID);
+
+		accountService.updateAccountDeposit(new DepositDTO(50L, account.getNumber()), PRINCIPAL_ID);
+
+		Account listed = accountService.readAccountListByUserId(PRINCIPAL_ID).stream()
+				.filter(a -> a.getId().equals(account.getId()))
+				.findFirst()
+				.orElseThrow();
+		assertEquals(150L, listed.getBalance());
+	}
+
+	// reread-balance=false : 잔액 변경은 id 색인으로 번호 항목을 바로 지우고, 색인은 캐시 크기를 넘지 않는다.
+	@Test
+	void balanceEvictionUsesBoundedIndex() {
+		CachingAccountRepository cache = new CachingAccountRepository(mapper, 2, 60, false);
+		Account account = createAccount(100L);
+		cache.findByNumber(account.getNumber());
+		jdbcTemplate.update("update account_tb set balance = 0 where id = ?", account.getId());
+
+		cache.evictBalance(account.getId());
+		assertEquals(0L, cache.findByNumber(account.getNumber()).getBalance());
+
+		for (int i = 0; i < 10; i++) {
+			cache.findByNumber(createAccount(1L).getNumber());
+		}
+		cache.getNumberCache().cleanUp();
+		assertTrue(cache.getIndexSize() <= 2, () -> "index size " + cache.getIndexSize());
+	}
+
+	private Account createAccount(Long balance) {
+		String number = "c-" + UUID.randomUUID().toString().substring(0, 12);
+		accountService.createAccount(new SaveDTO(number, PASSWORD, balance), PRINCIPAL_ID);
+		return accountRepository.findByNumber(number);
+	}
+
+}
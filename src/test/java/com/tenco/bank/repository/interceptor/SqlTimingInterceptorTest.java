@@ -0,0 +1,58 @@
+package com.tenco.bank.repository.interceptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tenco.bank.repository.interfaces.AccountRepository;
+
+@SpringBootTest
+class SqlTimingInterceptorTest {
+
+	private static final String FIND_BY_NUMBER = "com.tenco.bank.repository.interfaces.AccountRepository.findByNumber";
+
+	@Autowired
+	private SqlTimingInterceptor sqlTimingInterceptor;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void recordsTimeAndRowsPerStatement() {
+		long before = stats(FIND_BY_NUMBER) == null ? 0 : stats(FIND_BY_NUMBER).getCount();
+
+		for (int i = 0; i < 10; i++) {
+			accountRepository.findByNumber("1111");
+		}
+
+		SqlStatementStats stats = stats(FIND_BY_NUMBER);
+		assertEquals(before + 10, stats.getCount());
+		assertTrue(stats.getRows() >= 10);
+		assertTrue(stats.percentileMillis(99) >= stats.percentileMillis(50));
+		assertTrue(stats.getMaxMillis() > 0);
+	}
+
+	@Test
+	void percentilesUseBucketUpperBounds() {
+		SqlStatementStats stats = new SqlStatementStats("test");
+		for (int i = 0; i < 99; i++) {
+			stats.record(900_000, 1); // 0.9ms --> 1.024ms 구간
+		}
+		stats.record(90_000_000, 1); // 90ms --> 131.072ms 구간
+
+		assertEquals(1.024, stats.percentileMillis(50));
+		assertEquals(1.024, stats.percentileMillis(99));
+		assertEquals(131.072, stats.percentileMillis(100));
+	}
+
+	private SqlStatementStats stats(String id) {
+		List<SqlStatementStats> all = sqlTimingInterceptor.top(Integer.MAX_VALUE, "total");
+		return all.stream().filter(s -> s.getId().equals(id)).findFirst().orElse(null);
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class AccountLockManagerTest {
+
+	private static final int ROUNDS = 2_000;
+
+	@Test
+	void stripeCountIsRoundedUpToPowerOfTwo() {
+		assertEquals(1, new AccountLockManager(true, 0, 1000).getStripeCount());
+		assertEquals(1, new AccountLockManager(true, 1, 1000).getStripeCount());
+		assertEquals(2, new AccountLockManager(true, 2, 1000).getStripeCount());
+		assertEquals(4, new AccountLockManager(true, 3, 1000).getStripeCount());
+		assertEquals(256, new AccountLockManager(true, 256, 1000).getStripeCount());
+		assertEquals(512, new AccountLockManager(true, 257, 1000).getStripeCount());
+	}
+
+	/**
+	 * A->B, B->A 이체가 동시에 잠가도 교착 상태 없이 끝나야 한다.
+	 * stripe 2 개 : "0", "1" 은 hashCode 끝 비트가 달라서 서로 다른 stripe 에 매핑된다.
+	 * 순서 없이 잠그면 대기 시간(1초) 초과로 DataDeliveryException 이 발생한다.
+	 */
+	@Test
+	void oppositeTransfersDoNotDeadlock() throws Exception {
+		AccountLockManager lockManager = new AccountLockManager(true, 2, 1000);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<?>> futures = List.of(
+					executor.submit(() -> transferRounds(lockManager, start, "0", "1")),
+					executor.submit(() -> transferRounds(lockManager, start, "1", "0")));
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(4L * ROUNDS, lockManager.getAcquireCount());
+	}
+
+	private static Void transferRounds(AccountLockManager lockManager, CountDownLatch start, String from, String to)
+			throws InterruptedException {
+		start.await();
+		for (int i = 0; i < ROUNDS; i++) {
+			// 트랜잭션 대신 동기화만 열고, 종료 시 afterCompletion 을 직접 호출해서 잠금 해제
+			TransactionSynchronizationManager.initSynchronization();
+			try {
+				lockManager.lockUntilCompletion(from, to);
+				Thread.onSpinWait();
+			} finally {
+				List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+				TransactionSynchronizationManager.clearSynchronization();
+				synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+			}
+		}
+		return null;
+	}
+
+}
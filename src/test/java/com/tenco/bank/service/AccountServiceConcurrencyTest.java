@@ -0,0 +1,144 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.utils.Define;
+
+// 같은 계좌에 동시 요청이 몰려도 갱신 손실이 없는지 확인
+@SpringBootTest
+class AccountServiceConcurrencyTest {
+
+	private static final int THREADS = 64;
+	private static final int OPERATIONS = 20;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentDepositsAreNotLost() throws Exception {
+		Account account = createAccount(0L);
+
+		List<Throwable> errors = runConcurrently(() -> {
+			accountService.updateAccountDeposit(new DepositDTO(1L, account.getNumber()), PRINCIPAL_ID);
+		});
+
+		assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+		long expected = (long) THREADS * OPERATIONS;
+		assertEquals(expected, accountRepository.findBalanceById(account.getId()));
+		assertEquals(expected, countHistory("d_account_id", account.getId()));
+	}
+
+	@Test
+	void concurrentWithdrawalsNeverOverdraw() throws Exception {
+		long initial = 500L;
+		Account account = createAccount(initial);
+		AtomicInteger lackOfBalance = new AtomicInteger();
+
+		List<Throwable> errors = runConcurrently(() -> {
+			try {
+				accountService.updateAccountWithdrawal(new WithdrawalDTO(1L, account.getNumber(), PASSWORD), PRINCIPAL_ID);
+			} catch (DataDeliveryException e) {
+				if (!Define.LACK_Of_BALANCE.equals(e.getMessage())) {
+					throw e;
+				}
+				lackOfBalance.incrementAndGet();
+			}
+		});
+
+		assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+		assertEquals(0L, accountRepository.findBalanceById(account.getId()));
+		assertEquals(initial, countHistory("w_account_id", account.getId()));
+		assertEquals(THREADS * OPERATIONS - initial, lackOfBalance.get());
+	}
+
+	@Test
+	void concurrentTransfersConserveMoney() throws Exception {
+		long initial = 1000L;
+		Account from = createAccount(initial);
+		Account to = createAccount(initial);
+
+		List<Throwable> errors = runConcurrently(() -> {
+			try {
+				accountService.updateAccountTransfer(
+						new TransferDTO(1L, from.getNumber(), to.getNumber(), PASSWORD), PRINCIPAL_ID);
+			} catch (DataDeliveryException e) {
+				if (!Define.LACK_Of_BALANCE.equals(e.getMessage())) {
+					throw e;
+				}
+			}
+		});
+
+		assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+		assertEquals(0L, accountRepository.findBalanceById(from.getId()));
+		assertEquals(initial * 2, accountRepository.findBalanceById(to.getId()));
+		assertEquals(initial, countHistory("w_account_id", from.getId()));
+	}
+
+	private Account createAccount(Long balance) {
+		String number = "c-" + UUID.randomUUID().toString().substring(0, 12);
+		accountService.createAccount(new SaveDTO(number, PASSWORD, balance), PRINCIPAL_ID);
+		return accountRepository.findByNumber(number);
+	}
+
+	private long countHistory(String column, Integer accountId) {
+		return jdbcTemplate.queryForObject(
+				"select count(*) from history_tb where " + column + " = ?", Long.class, accountId);
+	}
+
+	// THREADS 개의 스레드가 동시에 출발해서 각각 OPERATIONS 번 실행
+	private List<Throwable> runConcurrently(Runnable task) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				executor.execute(() -> {
+					try {
+						start.await();
+						for (int j = 0; j < OPERATIONS; j++) {
+							task.run();
+						}
+					} catch (Throwable e) {
+						errors.add(e);
+					}
+				});
+			}
+			start.countDown();
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "timed out");
+		return List.copyOf(errors);
+	}
+
+}
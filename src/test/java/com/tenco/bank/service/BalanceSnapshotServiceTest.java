@@ -0,0 +1,54 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 일별 스냅샷이 거래가 있었던 날/계좌만 만들어지고, 시점 잔액이 스냅샷 + 같은 날 항목으로 계산되는지 확인
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:balance_snapshot;MODE=MySQL")
+class BalanceSnapshotServiceTest {
+
+	private static final Integer ACCOUNT_ID = 3; // data.sql 의 3333 계좌 (초기 잔액 0, 원장 항목 없음)
+
+	@Autowired
+	private BalanceSnapshotService balanceSnapshotService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void balanceAtUsesSnapshotAndSameDayEntries() {
+		LocalDate today = LocalDate.now();
+		entry(today.minusDays(3).atTime(10, 0), "C", 100);
+		entry(today.minusDays(2).atTime(10, 0), "D", 30);
+		entry(today.minusDays(1).atTime(23, 0), "C", 5);
+		entry(LocalDateTime.now().minusSeconds(1), "C", 1000);
+
+		assertEquals(3, balanceSnapshotService.snapshotThrough(today.minusDays(1)));
+		// 이미 만든 날짜는 다시 만들지 않는다.
+		assertEquals(0, balanceSnapshotService.snapshotThrough(today.minusDays(1)));
+		assertEquals(75L, jdbcTemplate.queryForObject(
+				"select balance from daily_balance_tb where account_id = ? and snapshot_date = ?", Long.class,
+				ACCOUNT_ID, Date.valueOf(today.minusDays(1))));
+
+		assertEquals(100L, balanceSnapshotService.balanceAt(ACCOUNT_ID, today.minusDays(3).atTime(12, 0)));
+		assertEquals(100L, balanceSnapshotService.balanceAt(ACCOUNT_ID, today.minusDays(2).atTime(9, 0)));
+		assertEquals(70L, balanceSnapshotService.balanceAt(ACCOUNT_ID, today.minusDays(2).atTime(12, 0)));
+		assertEquals(75L, balanceSnapshotService.balanceAt(ACCOUNT_ID, today.minusDays(1).atTime(23, 30)));
+		assertEquals(1075L, balanceSnapshotService.balanceAt(ACCOUNT_ID, LocalDateTime.now()));
+	}
+
+	private void entry(LocalDateTime createdAt, String direction, long amount) {
+		jdbcTemplate.update("insert into ledger_entry_tb(movement_id, account_id, direction, amount, created_at) "
+				+ "values('test', ?, ?, ?, ?)", ACCOUNT_ID, direction, amount, Timestamp.valueOf(createdAt));
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.BulkTransferDTO;
+import com.tenco.bank.dto.BulkTransferItemDTO;
+import com.tenco.bank.dto.BulkTransferResultDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.utils.Define;
+
+// 대량 이체 - CSV 파싱, 건별 결과, 같은 입금 계좌 반복, 잔액 부족 건, chunk 단위 롤백, hot 계좌 거절 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bulk_transfer;MODE=MySQL",
+		"bank.transfer.bulk.chunk-size=3",
+		"bank.account.hot.enabled=true" })
+class BulkTransferServiceTest {
+
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private BulkTransferService bulkTransferService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private ReconciliationService reconciliationService;
+
+	@Autowired
+	private HotAccountService hotAccountService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void csvFormatErrorsAreReportedPerItem() throws Exception {
+		String source = open("csv-w", 1_000L);
+		String destination = open("csv-d", 0L);
+		String csv = destination + ",100\n\n " + destination + " , 50 \nno-amount\n" + destination + ",abc\n"
+				+ destination + ",1,2\nmissing-account,10\n";
+
+		List<BulkTransferItemDTO> items = bulkTransferService
+				.parseCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(List.of(new BulkTransferItemDTO(destination, 100L), new BulkTransferItemDTO(destination, 50L),
+				new BulkTransferItemDTO("no-amount", null), new BulkTransferItemDTO(destination, null),
+				new BulkTransferItemDTO(destination, null), new BulkTransferItemDTO("missing-account", 10L)), items);
+
+		List<BulkTransferResultDTO> results = transfer(source, items);
+
+		assertMessages(results, null, null, Define.ENTER_YOUR_BALANCE, Define.ENTER_YOUR_BALANCE,
+				Define.ENTER_YOUR_BALANCE, Define.NOT_EXIST_ACCOUNT);
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i, results.get(i).getIndex());
+		}
+		assertEquals(850L, balance(source));
+		assertEquals(150L, balance(destination));
+	}
+
+	@Test
+	void repeatedDestinationReceivesEveryItem() {
+		String source = open("dup-w", 1_000L);
+		String first = open("dup-d1", 0L);
+		String second = open("dup-d2", 0L);
+
+		List<BulkTransferResultDTO> results = transfer(source, List.of(item(first, 100L), item(first, 200L),
+				item(second, 50L), item(first, 1L), item(source, 5L)));
+
+		assertMessages(results, null, null, null, null, Define.INVALID_INPUT);
+		assertEquals(649L, balance(source));
+		assertEquals(301L, balance(first));
+		assertEquals(50L, balance(second));
+		// 같은 계좌의 연속 입금 내역 잔액이 누적되어야 한다.
+		assertEquals(List.of(100L, 300L, 301L), jdbcTemplate.queryForList("select d_balance from history_tb "
+				+ "where d_account_id = ? order by id", Long.class, accountId(first)));
+		assertTrue(reconciliationService.reconcile().getMismatches().isEmpty());
+	}
+
+	// 잔액 부족 건은 그 건만 실패하고 같은 chunk 의 나머지는 남은 잔액으로 처리된다.
+	@Test
+	void shortItemFailsAloneInsideChunk() {
+		String source = open("short-w", 500L);
+		String[] destinations = { open("short-d1", 0L), open("short-d2", 0L), open("short-d3", 0L) };
+
+		List<BulkTransferResultDTO> results = transfer(source, List.of(item(destinations[0], 200L),
+				item(destinations[1], 400L), item(destinations[2], 300L)));
+
+		assertMessages(results, null, Define.LACK_Of_BALANCE, null);
+		assertEquals(0L, balance(source));
+		assertEquals(200L, balance(destinations[0]));
+		assertEquals(0L, balance(destinations[1]));
+		assertEquals(300L, balance(destinations[2]));
+	}
+
+	// chunk 중간 건에서 DB 오류 (입금 잔액 bigint 범위 초과) --> 그 chunk 전체 롤백, 다음 chunk 는 처리
+	@Test
+	void failingItemRollsBackWholeChunk() {
+		String source = open("chunk-w", 1_000L);
+		String[] destinations = { open("chunk-d1", 0L), open("chunk-d2", 0L), open("chunk-d3", 0L),
+				open("chunk-d4", 0L) };
+		jdbcTemplate.update("update account_tb set balance = ? where number = ?", Long.MAX_VALUE, destinations[1]);
+		long historyBefore = historyCount();
+
+		List<BulkTransferResultDTO> results = transfer(source, List.of(item(destinations[0], 10L),
+				item(destinations[1], 10L), item(destinations[2], 10L), item(destinations[3], 10L)));
+
+		assertMessages(results, Define.FAILED_PROCESSING, Define.FAILED_PROCESSING, Define.FAILED_PROCESSING, null);
+		assertEquals(990L, balance(source));
+		assertEquals(0L, balance(destinations[0]));
+		assertEquals(Long.MAX_VALUE, balance(destinations[1]));
+		assertEquals(0L, balance(destinations[2]));
+		assertEquals(10L, balance(destinations[3]));
+		assertEquals(historyBefore + 1, historyCount());
+		// 원장과 다시 맞춰 둔다. (다른 테스트의 대사 확인용)
+		jdbcTemplate.update("update account_tb set balance = 0 where number = ?", destinations[1]);
+	}
+
+	// hot 계좌는 slot 잔액을 보지 않는 chunk 처리로 바꾸지 않는다. (입금 건만 실패, 출금 계좌면 전체 거절)
+	@Test
+	void hotAccountsAreRejected() {
+		String source = open("hot-w", 1_000L);
+		String normal = open("hot-d1", 0L);
+		String hot = open("hot-d2", 0L);
+		hotAccountService.enable(accountId(hot), 2);
+
+		List<BulkTransferResultDTO> results = transfer(source, List.of(item(normal, 100L), item(hot, 100L)));
+
+		assertMessages(results, null, Define.HOT_ACCOUNT_NOT_SUPPORTED);
+		assertEquals(900L, balance(source));
+		assertEquals(0L, balance(hot));
+
+		hotAccountService.enable(accountId(source), 2);
+		DataDeliveryException e = assertThrows(DataDeliveryException.class,
+				() -> transfer(source, List.of(item(normal, 100L))));
+		assertEquals(Define.HOT_ACCOUNT_NOT_SUPPORTED, e.getMessage());
+		assertEquals(100L, balance(normal));
+		hotAccountService.disable(accountId(source));
+		hotAccountService.disable(accountId(hot));
+	}
+
+	private List<BulkTransferResultDTO> transfer(String source, List<BulkTransferItemDTO> items) {
+		return bulkTransferService.transferAll(new BulkTransferDTO(source, PASSWORD, items), PRINCIPAL_ID);
+	}
+
+	private static void assertMessages(List<BulkTransferResultDTO> results, String... messages) {
+		assertEquals(messages.length, results.size());
+		for (int i = 0; i < messages.length; i++) {
+			BulkTransferResultDTO result = results.get(i);
+			if (messages[i] == null) {
+				assertTrue(result.isSuccess(), () -> "expected success: " + result);
+				assertNull(result.getMessage());
+			} else {
+				assertEquals(messages[i], result.getMessage(), () -> "unexpected result: " + result);
+			}
+		}
+	}
+
+	private static BulkTransferItemDTO item(String accountNumber, Long amount) {
+		return new BulkTransferItemDTO(accountNumber, amount);
+	}
+
+	private String open(String number, long balance) {
+		accountService.createAccount(new SaveDTO(number, PASSWORD, balance), PRINCIPAL_ID);
+		return number;
+	}
+
+	private Integer accountId(String number) {
+		return jdbcTemplate.queryForObject("select id from account_tb where number = ?", Integer.class, number);
+	}
+
+	private long balance(String number) {
+		return jdbcTemplate.queryForObject("select balance from account_tb where number = ?", Long.class, number);
+	}
+
+	private long historyCount() {
+		return jdbcTemplate.queryForObject("select count(*) from history_tb", Long.class);
+	}
+
+}
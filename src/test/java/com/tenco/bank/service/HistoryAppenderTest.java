@@ -0,0 +1,160 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.repository.model.History;
+
+// 그룹 커밋 사용 시 내역이 빠짐없이 묶여서 기록되는지, 롤백된 거래의 내역은 남지 않는지 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:group_commit;MODE=MySQL",
+		"spring.datasource.hikari.maximum-pool-size=16",
+		"bank.history.group-commit.enabled=true" })
+class HistoryAppenderTest {
+
+	private static final int THREADS = 32;
+	private static final int OPERATIONS = 20;
+	private static final Integer PRINCIPAL_ID = 3; // data.sql 의 '마이' (3333 계좌)
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private HistoryAppender historyAppender;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// 계좌마다 한 스레드씩 동시에 입금 - 서로 다른 계좌의 커밋이 겹치므로 묶여서 기록되어야 한다.
+	@Test
+	void concurrentDepositsAcrossAccountsAreWrittenInGroups() throws Exception {
+		List<String> numbers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			String number = "group-" + i;
+			accountService.createAccount(new SaveDTO(number, "1234", 1L), PRINCIPAL_ID);
+			numbers.add(number);
+		}
+		long flushesBefore = historyAppender.getFlushCount();
+		long flushedBefore = historyAppender.getFlushedRows();
+
+		runConcurrently(numbers);
+
+		for (String number : numbers) {
+			assertEquals((long) OPERATIONS, depositHistoryCount(number));
+		}
+		long flushes = historyAppender.getFlushCount() - flushesBefore;
+		long flushed = historyAppender.getFlushedRows() - flushedBefore;
+		assertTrue(flushed > flushes, () -> "expected batched flushes but got " + flushed + " rows in " + flushes);
+	}
+
+	// 같은 계좌 입금은 행 잠금으로 줄을 서므로 기록 스레드를 기다리지 않고 바로 insert 한다. (잠금 대기 시간 초과 없음)
+	@Test
+	void concurrentDepositsToOneAccountDoNotWaitForFlusher() throws Exception {
+		List<String> numbers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			numbers.add("3333");
+		}
+		long before = depositHistoryCount("3333");
+
+		runConcurrently(numbers);
+
+		assertEquals(before + (long) THREADS * OPERATIONS, depositHistoryCount("3333"));
+	}
+
+	// 스레드마다 numbers 의 계좌에 OPERATIONS 번 입금
+	private void runConcurrently(List<String> numbers) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(numbers.size());
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (String number : numbers) {
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < OPERATIONS; j++) {
+						accountService.updateAccountDeposit(new DepositDTO(1L, number), PRINCIPAL_ID);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	// 응답이 돌아온 시점에 내역은 이미 커밋되어 있어야 한다.
+	private long depositHistoryCount(String number) {
+		return jdbcTemplate.queryForObject("select count(*) from history_tb h join account_tb a on h.d_account_id = a.id "
+				+ "where a.number = ?", Long.class, number);
+	}
+
+	// 내역만 커밋되고 업무 트랜잭션 커밋 전에 종료된 경우 - 원장 항목이 없는 내역은 기동 시 삭제된다.
+	@Test
+	void orphanHistoryIsDeletedOnStartup() {
+		Timestamp past = Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES));
+		String committed = UUID.randomUUID().toString();
+		jdbcTemplate.update("insert into ledger_entry_tb(movement_id, account_id, direction, amount) values(?, -2, 'D', 5)",
+				committed);
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, w_account_id, movement_id, created_at) "
+				+ "values(5, 0, -2, ?, ?)", committed, past);
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, w_account_id, movement_id, created_at) "
+				+ "values(6, 0, -2, ?, ?)", UUID.randomUUID().toString(), past);
+		// 다른 노드가 커밋 중일 수 있는 최근 내역은 남긴다.
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, w_account_id, movement_id) values(7, 0, -2, ?)",
+				UUID.randomUUID().toString());
+
+		assertEquals(1, historyAppender.deleteOrphans());
+		assertEquals(List.of(5L, 7L), jdbcTemplate.queryForList(
+				"select amount from history_tb where w_account_id = -2 order by amount", Long.class));
+	}
+
+	@Test
+	void historyOfRolledBackTransactionIsRemoved() throws Exception {
+		History history = History.builder().amount(7L).wBalance(0L).wAccountId(-1).build();
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+			historyAppender.append(history);
+			// 내역 기록(beforeCommit) 이후에 커밋이 실패하는 상황
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					throw new IllegalStateException("commit failed");
+				}
+			});
+		}));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		long remaining;
+		do {
+			Thread.sleep(20);
+			remaining = jdbcTemplate.queryForObject("select count(*) from history_tb where w_account_id = -1", Long.class);
+		} while (remaining > 0 && System.currentTimeMillis() < deadline);
+		assertEquals(0L, remaining);
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 거래내역 내보내기 - 출금/입금/자기 계좌 이체가 한 번씩 나가는지,
+ * 100만 건 내보내기 중 힙 사용량이 내역 건수에 비례해서 늘지 않는지 (부하 테스트 - ./gradlew loadTest) 확인
+ * LAZY_QUERY_EXECUTION : 인메모리 H2 가 같은 JVM 안에서 결과 전체를 미리 만들지 않게 한다.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export_test;MODE=MySQL;LAZY_QUERY_EXECUTION=1")
+class HistoryExportServiceTest {
+
+	private static final int ROWS = 1_000_000;
+	private static final int SAMPLE_EVERY = 100_000;
+	private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+	@Autowired
+	private HistoryExportService historyExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void everyRowOfAccountIsExportedOnce() throws Exception {
+		jdbcTemplate.update("insert into account_tb(number, password, balance, user_id) values('export-1', '1234', 0, 1)");
+		Integer accountId = jdbcTemplate.queryForObject("select id from account_tb where number = 'export-1'", Integer.class);
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id) "
+				+ "values(1, 0, null, ?, null), (2, null, 0, null, ?), (3, 0, 0, ?, ?), (4, 0, 0, -1, -2)",
+				accountId, accountId, accountId, accountId);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long exported = historyExportService.exportHistory(accountId, HistoryExportService.CSV, out);
+
+		assertEquals(3, exported);
+		List<String> amounts = out.toString(StandardCharsets.UTF_8).lines().skip(1)
+				.map(line -> line.split(",")[2]).sorted().toList();
+		assertEquals(List.of("1", "2", "3"), amounts);
+	}
+
+	@Test
+	@Tag("load")
+	void exportsMillionRowsWithConstantHeap() throws Exception {
+		Integer accountId = jdbcTemplate.queryForObject("select id from account_tb where number = '3333'", Integer.class);
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id) "
+				+ "select 1, x, null, ?, null from system_range(1, ?)", accountId, ROWS);
+		long expected = jdbcTemplate.queryForObject(
+				"select count(*) from history_tb where w_account_id = ? or d_account_id = ?", Long.class, accountId, accountId);
+
+		HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+		long exported = historyExportService.exportHistory(accountId, HistoryExportService.NDJSON, out);
+
+		assertEquals(expected, exported);
+		assertEquals(expected, out.lines);
+		long growth = out.maxUsed - out.baseline;
+		System.out.printf("export heap baseline=%dMB max=%dMB growth=%dMB%n",
+				out.baseline >> 20, out.maxUsed >> 20, growth >> 20);
+		assertTrue(growth < MAX_HEAP_GROWTH, () -> "heap grew by " + (growth >> 20) + "MB while exporting");
+	}
+
+	// 받은 줄 수를 세면서 일정 간격마다 GC 후 사용 중인 힙을 기록한다. (내용은 버림)
+	private static class HeapSamplingOutputStream extends OutputStream {
+		final long baseline = usedHeap();
+		long maxUsed = baseline;
+		long lines;
+
+		@Override
+		public void write(int b) {
+			count((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = off; i < off + len; i++) {
+				count(b[i]);
+			}
+		}
+
+		private void count(byte b) {
+			if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+				maxUsed = Math.max(maxUsed, usedHeap());
+			}
+		}
+
+		private static long usedHeap() {
+			System.gc();
+			Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.HistoryPageDTO;
+import com.tenco.bank.repository.model.History;
+
+// 키셋 페이징 - 같은 created_at 이 여러 건이어도 페이지를 넘기며 빠짐/중복 없이 모두 읽는지 확인
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:history_page;MODE=MySQL")
+class HistoryPageTest {
+
+	private static final Integer PRINCIPAL_ID = 3; // data.sql 의 '마이' (3333 계좌, 내역 없음)
+	private static final Timestamp SAME_TIME = Timestamp.valueOf("2024-07-01 10:15:30.123456");
+	private static final Timestamp EARLIER = Timestamp.valueOf("2024-07-01 09:00:00");
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Integer accountId;
+	private Integer otherAccountId;
+
+	@BeforeEach
+	void setUp() {
+		accountId = jdbcTemplate.queryForObject("select id from account_tb where number = '3333'", Integer.class);
+		otherAccountId = jdbcTemplate.queryForObject("select id from account_tb where number = '1111'", Integer.class);
+		jdbcTemplate.update("delete from history_tb where w_account_id = ? or d_account_id = ?", accountId, accountId);
+	}
+
+	@Test
+	void pagesAreContinuousAcrossEqualCreatedAt() {
+		List<Integer> expected = new ArrayList<>();
+		// 출금 / 입금 / 이체 입출금을 같은 시각으로 섞어서 기록
+		for (int i = 0; i < 7; i++) {
+			expected.add(insert(10L, accountId, null, SAME_TIME));
+			expected.add(insert(20L, null, accountId, SAME_TIME));
+			expected.add(insert(30L, otherAccountId, accountId, SAME_TIME));
+		}
+		expected.add(insert(40L, accountId, otherAccountId, EARLIER));
+		// 최신순 = created_at desc, id desc
+		List<Integer> newestFirst = new ArrayList<>(expected.subList(0, expected.size() - 1)).reversed();
+		newestFirst.add(expected.get(expected.size() - 1));
+
+		assertEquals(newestFirst, readAllPages("all", 4));
+		assertEquals(newestFirst.stream().filter(id -> withdrawalIds().contains(id)).toList(),
+				readAllPages("withdrawal", 3));
+		assertEquals(newestFirst.stream().filter(id -> !withdrawalIds().contains(id)).toList(),
+				readAllPages("deposit", 5));
+	}
+
+	@Test
+	void selfTransferIsListedOnce() {
+		Integer self = insert(50L, accountId, accountId, SAME_TIME);
+		Integer deposit = insert(60L, null, accountId, EARLIER);
+
+		HistoryPageDTO page = accountService.readHistoryListByAccountId("all", accountId, null, 10, PRINCIPAL_ID);
+
+		assertEquals(List.of(self, deposit), page.getHistoryList().stream().map(History::getId).toList());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void pageSizeIsKeptForNextPage() {
+		for (int i = 0; i < 5; i++) {
+			insert(10L, null, accountId, SAME_TIME);
+		}
+		HistoryPageDTO first = accountService.readHistoryListByAccountId("all", accountId, null, 2, PRINCIPAL_ID);
+		assertEquals(2, first.getSize());
+		HistoryPageDTO second = accountService.readHistoryListByAccountId("all", accountId, first.getNextCursor(),
+				first.getSize(), PRINCIPAL_ID);
+		assertEquals(2, second.getHistoryList().size());
+	}
+
+	// 다음 커서를 따라가며 모든 페이지의 id 를 모은다.
+	private List<Integer> readAllPages(String type, int size) {
+		List<Integer> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			HistoryPageDTO page = accountService.readHistoryListByAccountId(type, accountId, cursor, size, PRINCIPAL_ID);
+			page.getHistoryList().forEach(history -> ids.add(history.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private List<Integer> withdrawalIds() {
+		return jdbcTemplate.queryForList("select id from history_tb where w_account_id = ?", Integer.class, accountId);
+	}
+
+	private Integer insert(long amount, Integer wAccountId, Integer dAccountId, Timestamp createdAt) {
+		jdbcTemplate.update("insert into history_tb(amount, w_balance, d_balance, w_account_id, d_account_id, created_at) "
+				+ "values(?, 0, 0, ?, ?, ?)", amount, wAccountId, dAccountId, createdAt);
+		return jdbcTemplate.queryForObject("select max(id) from history_tb", Integer.class);
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+import com.tenco.bank.utils.Define;
+
+// hot 계좌 : 동시 입금이 slot 에 나뉘어 쌓이고, 출금/정리 후에도 잔액과 원장이 맞는지 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:hot_account;MODE=MySQL",
+		"bank.account.hot.enabled=true",
+		"bank.account.hot.numbers=2222",
+		"bank.account.hot.slots=4",
+		"bank.account.hot.compaction-interval-ms=3600000",
+		"bank.ledger.checkpoint-interval=10" })
+class HotAccountServiceTest {
+
+	private static final int THREADS = 16;
+	private static final int OPERATIONS = 25;
+	private static final Integer PRINCIPAL_ID = 2; // data.sql 의 '둘리' (2222 계좌)
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private HotAccountService hotAccountService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private ReconciliationService reconciliationService;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentDepositsAreSpreadOverSlots() throws Exception {
+		Account account = accountRepository.findByNumber("2222");
+		assertTrue(hotAccountService.isHot(account.getId()));
+		long before = hotAccountService.balanceOf(account.getId());
+
+		ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			executor.execute(() -> {
+				try {
+					for (int i = 0; i < OPERATIONS; i++) {
+						accountService.updateAccountDeposit(new DepositDTO(1L, "2222"), PRINCIPAL_ID);
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+
+		long expected = before + THREADS * OPERATIONS;
+		assertEquals(expected, hotAccountService.balanceOf(account.getId()));
+		assertEquals(expected, accountService.readAccountByAccountId(account.getId(), PRINCIPAL_ID).getBalance());
+		assertEquals(List.of(), reconciliationService.reconcile().getMismatches());
+		// 체크포인트 (입금 중에는 찍지 않음) + tail 로 계산한 원장 잔액
+		assertEquals(expected, ledgerService.balanceOf(account.getId()));
+
+		hotAccountService.compact();
+		assertEquals(expected, accountRepository.findBalanceById(account.getId()));
+		assertEquals(0L, slotSum(account.getId()));
+		// 정리 시점 체크포인트 이후에도 같아야 한다.
+		accountService.updateAccountDeposit(new DepositDTO(1L, "2222"), PRINCIPAL_ID);
+		assertEquals(expected + 1, ledgerService.balanceOf(account.getId()));
+	}
+
+	@Test
+	void withdrawalGathersBalanceSpreadOverRows() {
+		accountService.createAccount(new SaveDTO("hot-1", PASSWORD, 10L), PRINCIPAL_ID);
+		Account account = accountRepository.findByNumber("hot-1");
+		hotAccountService.enable(account.getId(), 4);
+		for (int i = 0; i < 4; i++) {
+			accountService.updateAccountDeposit(new DepositDTO(5L, "hot-1"), PRINCIPAL_ID);
+		}
+
+		// 계좌 행 10, slot 합계 20 - 어느 한 행도 25 가 없다.
+		accountService.updateAccountWithdrawal(new WithdrawalDTO(25L, "hot-1", PASSWORD), PRINCIPAL_ID);
+		assertEquals(5L, hotAccountService.balanceOf(account.getId()));
+		assertEquals(5L, accountRepository.findBalanceById(account.getId()));
+		assertEquals(0L, slotSum(account.getId()));
+
+		DataDeliveryException e = assertThrows(DataDeliveryException.class, () -> accountService
+				.updateAccountWithdrawal(new WithdrawalDTO(6L, "hot-1", PASSWORD), PRINCIPAL_ID));
+		assertEquals(Define.LACK_Of_BALANCE, e.getMessage());
+		assertEquals(List.of(), reconciliationService.reconcile().getMismatches());
+		assertEquals(5L, ledgerService.balanceOf(account.getId()));
+	}
+
+	private long slotSum(Integer accountId) {
+		return jdbcTemplate.queryForObject(
+				"select coalesce(sum(balance), 0) from account_slot_tb where account_id = ?", Long.class, accountId);
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.handler.exception.DataDeliveryException;
+import com.tenco.bank.utils.Define;
+
+// 같은 멱등 키 재전송은 한 번만 처리되고, 만료된 키는 정리되는지 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL",
+		"bank.idempotency.sweeper.batch-size=2" })
+class IdempotencyServiceTest {
+
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동' (1111 계좌)
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private IdempotencyKeySweeper idempotencyKeySweeper;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void retriedTransferIsAppliedOnce() {
+		String key = UUID.randomUUID().toString();
+		TransferDTO dto = new TransferDTO(10L, "1111", "2222", "1234");
+		AtomicInteger calls = new AtomicInteger();
+		Long before = balance("1111");
+
+		for (int i = 0; i < 3; i++) {
+			idempotencyService.execute(PRINCIPAL_ID, key, "transfer", "1111|2222|10", () -> {
+				calls.incrementAndGet();
+				accountService.updateAccountTransfer(dto, PRINCIPAL_ID);
+			});
+		}
+
+		assertEquals(1, calls.get());
+		assertEquals(before - 10L, balance("1111"));
+		// 같은 키로 내용이 다른 요청은 거절
+		DataDeliveryException e = assertThrows(DataDeliveryException.class, () -> idempotencyService
+				.execute(PRINCIPAL_ID, key, "transfer", "1111|2222|20", calls::incrementAndGet));
+		assertEquals(Define.INVALID_INPUT, e.getMessage());
+	}
+
+	@Test
+	void businessFailureIsReplayedWithoutRunningAgain() {
+		String key = UUID.randomUUID().toString();
+		TransferDTO dto = new TransferDTO(100_000_000L, "1111", "2222", "1234");
+		AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			DataDeliveryException e = assertThrows(DataDeliveryException.class,
+					() -> idempotencyService.execute(PRINCIPAL_ID, key, "transfer", "1111|2222|100000000", () -> {
+						calls.incrementAndGet();
+						accountService.updateAccountTransfer(dto, PRINCIPAL_ID);
+					}));
+			assertEquals(Define.LACK_Of_BALANCE, e.getMessage());
+		}
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void unknownResultIsNotRunAgain() {
+		// 이체 엔진 응답 시간 초과 - 작업이 나중에 적용될 수 있으므로 같은 키로 다시 실행하면 안 된다.
+		String key = UUID.randomUUID().toString();
+		AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			DataDeliveryException e = assertThrows(DataDeliveryException.class,
+					() -> idempotencyService.execute(PRINCIPAL_ID, key, "deposit", "1111|10", () -> {
+						calls.incrementAndGet();
+						throw new DataDeliveryException(Define.RESULT_UNKNOWN, HttpStatus.SERVICE_UNAVAILABLE);
+					}));
+			assertEquals(Define.RESULT_UNKNOWN, e.getMessage());
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+		}
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void lockFailureInsideActionIsNotReportedAsInProgress() {
+		// 작업 안의 교착 상태/잠금 시간 초과는 같은 키 처리 중(409)이 아니다. 키도 남지 않아 다시 실행할 수 있다.
+		String key = UUID.randomUUID().toString();
+		AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			assertThrows(CannotAcquireLockException.class,
+					() -> idempotencyService.execute(PRINCIPAL_ID, key, "deposit", "1111|10", () -> {
+						calls.incrementAndGet();
+						throw new CannotAcquireLockException("lock wait timeout");
+					}));
+		}
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void expiredKeysAreSweptInBatches() {
+		Timestamp past = Timestamp.from(Instant.now().minus(1, ChronoUnit.HOURS));
+		for (int i = 0; i < 5; i++) {
+			jdbcTemplate.update("insert into idempotency_key_tb(user_id, idem_key, operation, request_hash, success, expires_at) "
+					+ "values(2, ?, 'deposit', 'h', true, ?)", "expired-" + i, past);
+		}
+
+		assertEquals(5, idempotencyKeySweeper.sweepExpired(Timestamp.from(Instant.now())));
+		assertEquals(0L, jdbcTemplate.queryForObject(
+				"select count(*) from idempotency_key_tb where user_id = 2", Long.class));
+	}
+
+	private Long balance(String number) {
+		return jdbcTemplate.queryForObject("select balance from account_tb where number = ?", Long.class, number);
+	}
+
+}
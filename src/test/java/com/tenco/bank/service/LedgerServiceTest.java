@@ -0,0 +1,72 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.dto.WithdrawalDTO;
+
+// 원장 기준 잔액(체크포인트 + tail)이 account_tb 잔액과 같고, 과거 시점 잔액도 계산되는지 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:ledger;MODE=MySQL",
+		"bank.ledger.checkpoint-interval=3" })
+class LedgerServiceTest {
+
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동' (1111 계좌)
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void ledgerBalanceMatchesAccountBalance() throws Exception {
+		accountService.createAccount(new SaveDTO("1112", "1234", 500L), PRINCIPAL_ID);
+		Integer source = accountId("1111");
+		Integer opened = accountId("1112");
+
+		for (int i = 0; i < 10; i++) {
+			accountService.updateAccountTransfer(new TransferDTO(7L, "1111", "1112", "1234"), PRINCIPAL_ID);
+		}
+		Thread.sleep(20);
+		Timestamp middle = new Timestamp(System.currentTimeMillis());
+		long sourceAtMiddle = balance("1111");
+		Thread.sleep(20);
+		accountService.updateAccountDeposit(new DepositDTO(100L, "1111"), PRINCIPAL_ID);
+		accountService.updateAccountWithdrawal(new WithdrawalDTO(30L, "1112", "1234"), PRINCIPAL_ID);
+
+		assertEquals(balance("1111"), ledgerService.balanceOf(source));
+		assertEquals(balance("1112"), ledgerService.balanceOf(opened));
+		assertEquals(sourceAtMiddle, ledgerService.balanceAt(source, middle));
+
+		// 체크포인트가 찍혀서 tail 만 읽는다.
+		assertTrue(jdbcTemplate.queryForObject(
+				"select count(*) from balance_checkpoint_tb where account_id = ?", Long.class, source) > 1);
+		// 거래마다 D 합계 = C 합계
+		assertEquals(0L, jdbcTemplate.queryForObject(
+				"select coalesce(sum(case when direction = 'C' then amount else -amount end), 0) from ledger_entry_tb",
+				Long.class));
+	}
+
+	private Integer accountId(String number) {
+		return jdbcTemplate.queryForObject("select id from account_tb where number = ?", Integer.class, number);
+	}
+
+	private long balance(String number) {
+		return jdbcTemplate.queryForObject("select balance from account_tb where number = ?", Long.class, number);
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tenco.bank.dto.DepositDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// OPTIMISTIC 모드 : 같은 계좌 동시 변경이 충돌로 감지되고 재시도로 모두 반영되는지 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:optimistic;MODE=MySQL",
+		"bank.account.lock-mode=OPTIMISTIC",
+		"bank.account.retry.max-attempts=100",
+		"bank.account.retry.backoff-ms=1",
+		"bank.account.retry.max-backoff-ms=20" })
+class OptimisticRetryTest {
+
+	private static final int THREADS = 16;
+	private static final int OPERATIONS = 20;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+	private static final String PASSWORD = "1234";
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void conflictingUpdatesAreRetriedNotLost() throws Exception {
+		Account target = createAccount(0L);
+		Account source = createAccount(THREADS * OPERATIONS);
+
+		ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			executor.execute(() -> {
+				try {
+					for (int i = 0; i < OPERATIONS; i++) {
+						// 입금과 이체를 섞어서 두 계좌 모두 충돌
+						if ((thread + i) % 2 == 0) {
+							accountService.updateAccountDeposit(new DepositDTO(1L, target.getNumber()), PRINCIPAL_ID);
+						} else {
+							accountService.updateAccountTransfer(
+									new TransferDTO(1L, source.getNumber(), target.getNumber(), PASSWORD), PRINCIPAL_ID);
+						}
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+
+		int transfers = THREADS * OPERATIONS / 2;
+		assertEquals((long) THREADS * OPERATIONS, accountRepository.findBalanceById(target.getId()));
+		assertEquals((long) THREADS * OPERATIONS - transfers, accountRepository.findBalanceById(source.getId()));
+		double retried = meterRegistry.find("bank.account.conflict.retries").tag("outcome", "retried").counters()
+				.stream().mapToDouble(counter -> counter.count()).sum();
+		assertTrue(retried > 0, "expected optimistic lock conflicts to be retried");
+	}
+
+	@Test
+	void staleUpdateByIdChangesNothing() {
+		Account account = createAccount(100L);
+		Account stale = accountRepository.findByAccountId(account.getId());
+		accountService.updateAccountDeposit(new DepositDTO(5L, account.getNumber()), PRINCIPAL_ID);
+
+		stale.setBalance(0L);
+		assertEquals(0, accountRepository.updateById(stale));
+		assertEquals(105L, accountRepository.findBalanceById(account.getId()));
+	}
+
+	private Account createAccount(long balance) {
+		String number = "o-" + UUID.randomUUID().toString().substring(0, 12);
+		accountService.createAccount(new SaveDTO(number, PASSWORD, balance), PRINCIPAL_ID);
+		return accountRepository.findByNumber(number);
+	}
+
+}
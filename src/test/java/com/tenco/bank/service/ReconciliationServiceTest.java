@@ -0,0 +1,53 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.ReconciliationReportDTO;
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.repository.model.BalanceMismatch;
+
+// 범위를 잘게 나눠 병렬 대사했을 때 정상 거래는 통과하고 잔액을 직접 바꾼 계좌만 보고되는지 확인
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:reconcile;MODE=MySQL",
+		"bank.reconcile.range-size=2",
+		"bank.reconcile.parallelism=4" })
+class ReconciliationServiceTest {
+
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동' (1111 계좌)
+
+	@Autowired
+	private ReconciliationService reconciliationService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void reportsOnlyTamperedAccount() {
+		for (int i = 0; i < 5; i++) {
+			accountService.createAccount(new SaveDTO("r-" + i, "1234", 100L * i), PRINCIPAL_ID);
+			accountService.updateAccountTransfer(new TransferDTO(10L, "1111", "r-" + i, "1234"), PRINCIPAL_ID);
+		}
+
+		ReconciliationReportDTO clean = reconciliationService.reconcile();
+		assertEquals(List.of(), clean.getMismatches());
+		assertEquals(4, clean.getRanges()); // 계좌 8 개, 범위 크기 2
+
+		jdbcTemplate.update("update account_tb set balance = balance + 1 where number = 'r-3'");
+		List<BalanceMismatch> mismatches = reconciliationService.reconcile().getMismatches();
+		assertEquals(1, mismatches.size());
+		assertEquals("r-3", mismatches.get(0).getNumber());
+		assertEquals(mismatches.get(0).getBalance() - 1, mismatches.get(0).getLedgerBalance());
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.tenco.bank.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenco.bank.dto.SaveDTO;
+import com.tenco.bank.dto.TransferDTO;
+import com.tenco.bank.repository.interfaces.AccountRepository;
+import com.tenco.bank.repository.model.Account;
+
+/**
+ * A->B / B->A 이체를 동시에 보내는 스트레스 하네스
+ * 잠금 방식별로 처리량, p99 지연, 교착(재시도) 횟수를 출력한다.
+ * 모드마다 컨텍스트(H2 DB)를 따로 띄운다.
+ * 부하 테스트 - 기본 test 에서는 빠지고 ./gradlew loadTest --tests '*TransferContentionTest*' 로 실행
+ */
+@Tag("load")
+abstract class TransferContentionTest {
+
+	private static final int THREADS = 16;
+	private static final int TRANSFERS_PER_THREAD = 200;
+	private static final int MAX_ATTEMPTS = 10;
+	private static final long INITIAL_BALANCE = 1_000_000L;
+	private static final Integer PRINCIPAL_ID = 1; // data.sql 의 '길동'
+	private static final String PASSWORD = "1234";
+
+	@SpringBootTest(properties = {
+			"spring.datasource.url=jdbc:h2:mem:contention_none;MODE=MySQL",
+			"bank.account.lock-mode=NONE" })
+	static class WithoutOrderedLocking extends TransferContentionTest {
+	}
+
+	@SpringBootTest(properties = {
+			"spring.datasource.url=jdbc:h2:mem:contention_ordered;MODE=MySQL",
+			"bank.account.lock-mode=ORDERED" })
+	static class WithOrderedLocking extends TransferContentionTest {
+
+		@Override
+		void verifyContention(long deadlocks) {
+			assertEquals(0, deadlocks, "ordered locking must not deadlock");
+		}
+	}
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${bank.account.lock-mode}")
+	private AccountLockMode lockMode;
+
+	@Test
+	void opposingTransfers() throws Exception {
+		Account a = createAccount();
+		Account b = createAccount();
+
+		long[][] latencies = new long[THREADS][TRANSFERS_PER_THREAD];
+		AtomicLong deadlocks = new AtomicLong();
+		AtomicLong failures = new AtomicLong();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < THREADS; t++) {
+			// 짝수 스레드 A->B, 홀수 스레드 B->A
+			final int thread = t;
+			final TransferDTO dto = (t % 2 == 0)
+					? new TransferDTO(1L, a.getNumber(), b.getNumber(), PASSWORD)
+					: new TransferDTO(1L, b.getNumber(), a.getNumber(), PASSWORD);
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+					long begin = System.nanoTime();
+					if (!transferWithRetry(dto, deadlocks)) {
+						failures.incrementAndGet();
+					}
+					latencies[thread][i] = System.nanoTime() - begin;
+				}
+			});
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES), "timed out");
+		long elapsed = System.nanoTime() - begin;
+
+		report(latencies, elapsed, deadlocks.get(), failures.get());
+
+		// 방향과 상관없이 돈은 보존되어야 한다.
+		long total = accountRepository.findBalanceById(a.getId()) + accountRepository.findBalanceById(b.getId());
+		assertEquals(INITIAL_BALANCE * 2, total);
+		long succeeded = (long) THREADS * TRANSFERS_PER_THREAD - failures.get();
+		assertEquals(succeeded, jdbcTemplate.queryForObject(
+				"select count(*) from history_tb where w_account_id in (?, ?)", Long.class, a.getId(), b.getId()));
+		verifyContention(deadlocks.get());
+	}
+
+	// 모드별 추가 검증
+	void verifyContention(long deadlocks) {
+	}
+
+	// 교착/잠금 대기 시간 초과는 롤백된 것이므로 다시 시도한다.
+	private boolean transferWithRetry(TransferDTO dto, AtomicLong deadlocks) {
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			try {
+				accountService.updateAccountTransfer(dto, PRINCIPAL_ID);
+				return true;
+			} catch (ConcurrencyFailureException e) {
+				deadlocks.incrementAndGet();
+			}
+		}
+		return false;
+	}
+
+	private void report(long[][] latencies, long elapsedNanos, long deadlocks, long failures) {
+		long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+		double seconds = elapsedNanos / 1_000_000_000.0;
+		System.out.println("----------------------");
+		System.out.printf("lock-mode      : %s%n", lockMode);
+		System.out.printf("transfers      : %d (%d threads)%n", all.length, THREADS);
+		System.out.printf("throughput     : %.1f ops/s%n", all.length / seconds);
+		System.out.printf("latency p50    : %.3f ms%n", percentile(all, 0.50) / 1_000_000.0);
+		System.out.printf("latency p99    : %.3f ms%n", percentile(all, 0.99) / 1_000_000.0);
+		System.out.printf("deadlock/retry : %d%n", deadlocks);
+		System.out.printf("gave up        : %d%n", failures);
+		System.out.println("----------------------");
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		int index = (int) Math.ceil(p * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+
+	private Account createAccount() {
+		String number = "s-" + UUID.randomUUID().toString().substring(0, 12);
+		accountService.createAccount(new SaveDTO(number, PASSWORD, INITIAL_BALANCE), PRINCIPAL_ID);
+		return accountRepository.findByNumber(number);
+	}
+
+}